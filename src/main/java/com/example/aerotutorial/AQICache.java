@@ -0,0 +1,123 @@
+package com.example.aerotutorial;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of current air quality readings, shared by all dashboards.
+ * Coordinates are quantized to the 0.01° grid cell (about 1 km) of
+ * {@link Coordinate#cellKey}, the key used for stored readings, so repeated
+ * clicks in the same area hit the cache instead of the API. Entries expire
+ * after a TTL in line with the provider's update cadence and the least
+ * recently used cells are evicted once the cache is full.
+ */
+public final class AQICache {
+    private static final AQICache INSTANCE = new AQICache(
+            ConfigLoader.getInt("aqi.cache.max.entries", 1024),
+            TimeUnit.MINUTES.toNanos(ConfigLoader.getInt("aqi.cache.ttl.minutes", 15)));
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    AQICache(int maxEntries, long ttlNanos) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        // Access-ordered map gives LRU eviction for free
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > AQICache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static AQICache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Look up a fresh reading for the cell containing the coordinate
+     * @return Cached reading, or null on a miss or expired entry
+     */
+    public PollutantReading get(double lat, double lon) {
+        long key = Coordinate.packedCellKey(lat, lon);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.storedAt < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.reading;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store a reading for the cell containing the coordinate
+     */
+    public void put(double lat, double lon, PollutantReading reading) {
+        long key = Coordinate.packedCellKey(lat, lon);
+        synchronized (entries) {
+            entries.put(key, new Entry(reading, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Drop every cached reading
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    /**
+     * @return Fraction of lookups served from the cache (0 when unused)
+     */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AQICache[size=%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f]",
+                size(), getHits(), getMisses(), getEvictions(), getHitRatio());
+    }
+
+    private static final class Entry {
+        final PollutantReading reading;
+        final long storedAt;
+
+        Entry(PollutantReading reading, long storedAt) {
+            this.reading = reading;
+            this.storedAt = storedAt;
+        }
+    }
+}
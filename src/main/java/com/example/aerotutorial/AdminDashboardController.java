@@ -15,12 +15,16 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
 import javafx.stage.Stage;
 
 import java.net.URL;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -47,7 +51,9 @@ public class AdminDashboardController implements Initializable {
     @FXML private TableColumn<Report, Integer> reportIdCol;
     @FXML private TableColumn<Report, String> reportDateCol, reporterNameCol, reportLocationCol;
     @FXML private TableColumn<Report, String> reportIssueCol, reportSeverityCol, reportStatusCol;
+    @FXML private TableColumn<Report, String> reportMatchCol;
     @FXML private ComboBox<String> reportStatusFilter;
+    @FXML private TextField reportSearchField;
 
     // Alerts
     @FXML private ComboBox<String> alertTypeCombo, alertSeverityCombo;
@@ -55,11 +61,25 @@ public class AdminDashboardController implements Initializable {
     @FXML private TextArea alertMessageArea;
     @FXML private VBox activeAlertsBox;
 
+    // Paged queries behind the tables
+    private static final KeysetQuery<User> USERS = userQuery("users");
+    private static final KeysetQuery<User> RESEARCHERS = userQuery("researchers");
+    private static final KeysetQuery<User> ADMINS = userQuery("admin");
+    private static final KeysetQuery<Report> REPORTS = new KeysetQuery<>("reports",
+            "id, submitted_date, reporter_name, location, issue_type, severity, status",
+            rs -> new Report(
+                rs.getInt("id"),
+                rs.getString("submitted_date"),
+                rs.getString("reporter_name"),
+                rs.getString("location"),
+                rs.getString("issue_type"),
+                rs.getString("severity"),
+                rs.getString("status")
+            ));
+
     // Data
-    private ObservableList<User> usersList = FXCollections.observableArrayList();
-    private ObservableList<User> researchersList = FXCollections.observableArrayList();
-    private ObservableList<User> adminsList = FXCollections.observableArrayList();
-    private ObservableList<Report> reportsList = FXCollections.observableArrayList();
+    private LazyTableLoader<User> usersLoader, researchersLoader, adminsLoader;
+    private LazyTableLoader<Report> reportsLoader;
     private ObservableList<Alert> alertsList = FXCollections.observableArrayList();
 
     @Override
@@ -78,25 +98,38 @@ public class AdminDashboardController implements Initializable {
         showUsers();
     }
 
+    private static KeysetQuery<User> userQuery(String table) {
+        // username is UNIQUE, so its index serves the sort
+        return new KeysetQuery<>(table, "id, username, location",
+                rs -> new User(rs.getInt("id"), rs.getString("username"), rs.getString("location")),
+                "username");
+    }
+
     /** Setup users tables */
     private void setupUsersTables() {
         // Users table
         userIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         userNameCol.setCellValueFactory(new PropertyValueFactory<>("username"));
         userLocationCol.setCellValueFactory(new PropertyValueFactory<>("location"));
-        usersTable.setItems(usersList);
+        usersLoader = new LazyTableLoader<>(usersTable, USERS)
+                .sortBy(userIdCol, "id")
+                .sortBy(userNameCol, "username");
 
         // Researchers table
         researcherIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         researcherNameCol.setCellValueFactory(new PropertyValueFactory<>("username"));
         researcherLocationCol.setCellValueFactory(new PropertyValueFactory<>("location"));
-        researchersTable.setItems(researchersList);
+        researchersLoader = new LazyTableLoader<>(researchersTable, RESEARCHERS)
+                .sortBy(researcherIdCol, "id")
+                .sortBy(researcherNameCol, "username");
 
         // Admins table
         adminIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
         adminNameCol.setCellValueFactory(new PropertyValueFactory<>("username"));
         adminLocationCol.setCellValueFactory(new PropertyValueFactory<>("location"));
-        adminsTable.setItems(adminsList);
+        adminsLoader = new LazyTableLoader<>(adminsTable, ADMINS)
+                .sortBy(adminIdCol, "id")
+                .sortBy(adminNameCol, "username");
     }
 
     /** Setup reports table */
@@ -108,7 +141,13 @@ public class AdminDashboardController implements Initializable {
         reportIssueCol.setCellValueFactory(new PropertyValueFactory<>("issueType"));
         reportSeverityCol.setCellValueFactory(new PropertyValueFactory<>("severity"));
         reportStatusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
-        reportsTable.setItems(reportsList);
+        reportMatchCol.setCellValueFactory(new PropertyValueFactory<>("snippet"));
+        reportMatchCol.setCellFactory(col -> new SnippetCell());
+
+        // Ids follow submission order, so the date column sorts by id
+        reportsLoader = new LazyTableLoader<>(reportsTable, REPORTS)
+                .sortBy(reportIdCol, "id")
+                .sortBy(reportDateCol, "id");
 
         // Status filter
         reportStatusFilter.getItems().addAll("All", "Pending", "Resolved", "In Progress");
@@ -135,57 +174,23 @@ public class AdminDashboardController implements Initializable {
 
     /** Load all users from database */
     private void loadAllUsers() {
+        usersLoader.reload();
+        researchersLoader.reload();
+        adminsLoader.reload();
+
+        // Totals are counted in SQLite; the tables only hold the rows scrolled through
         new Thread(() -> {
             try {
-                Connection conn = DBConnector.getInstance().getConnection();
-
-                // Load regular users
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM users");
-                usersList.clear();
-                int userCount = 0;
-                while (rs.next()) {
-                    usersList.add(new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("location")
-                    ));
-                    userCount++;
-                }
-                int finalUserCount = userCount;
-                Platform.runLater(() -> totalUsersLabel.setText(String.valueOf(finalUserCount)));
-
-                // Load researchers
-                rs = stmt.executeQuery("SELECT * FROM researchers");
-                researchersList.clear();
-                int researcherCount = 0;
-                while (rs.next()) {
-                    researchersList.add(new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("location")
-                    ));
-                    researcherCount++;
-                }
-                int finalResearcherCount = researcherCount;
-                Platform.runLater(() -> totalResearchersLabel.setText(String.valueOf(finalResearcherCount)));
-
-                // Load admins
-                rs = stmt.executeQuery("SELECT * FROM admin");
-                adminsList.clear();
-                int adminCount = 0;
-                while (rs.next()) {
-                    adminsList.add(new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("location")
-                    ));
-                    adminCount++;
-                }
-                int finalAdminCount = adminCount;
-                Platform.runLater(() -> totalAdminsLabel.setText(String.valueOf(finalAdminCount)));
+                long userCount = USERS.count();
+                long researcherCount = RESEARCHERS.count();
+                long adminCount = ADMINS.count();
+                Platform.runLater(() -> {
+                    totalUsersLabel.setText(String.valueOf(userCount));
+                    totalResearchersLabel.setText(String.valueOf(researcherCount));
+                    totalAdminsLabel.setText(String.valueOf(adminCount));
+                });
 
-                System.out.println("✓ Loaded users: " + finalUserCount + ", researchers: " + finalResearcherCount + ", admins: " + finalAdminCount);
+                System.out.println("✓ Loaded users: " + userCount + ", researchers: " + researcherCount + ", admins: " + adminCount);
 
             } catch (Exception e) {
                 System.err.println("Error loading users: " + e.getMessage());
@@ -196,29 +201,12 @@ public class AdminDashboardController implements Initializable {
 
     /** Load all reports from database */
     private void loadAllReports() {
+        reportsLoader.reload();
+
         new Thread(() -> {
             try {
-                Connection conn = DBConnector.getInstance().getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM reports ORDER BY id DESC");
-
-                reportsList.clear();
-                int count = 0;
-                while (rs.next()) {
-                    reportsList.add(new Report(
-                        rs.getInt("id"),
-                        rs.getString("submitted_date"),
-                        rs.getString("reporter_name"),
-                        rs.getString("location"),
-                        rs.getString("issue_type"),
-                        rs.getString("severity"),
-                        rs.getString("status")
-                    ));
-                    count++;
-                }
-
-                int finalCount = count;
-                Platform.runLater(() -> totalReportsLabel.setText(String.valueOf(finalCount)));
+                long count = REPORTS.count();
+                Platform.runLater(() -> totalReportsLabel.setText(String.valueOf(count)));
 
                 System.out.println("✓ Loaded " + count + " reports");
 
@@ -232,38 +220,23 @@ public class AdminDashboardController implements Initializable {
     private void loadActiveAlerts() {
         new Thread(() -> {
             try {
-                Connection conn = DBConnector.getInstance().getConnection();
-
-                // Create alerts table if not exists
-                String createTable = "CREATE TABLE IF NOT EXISTS alerts(" +
-                        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                        "alert_type TEXT, " +
-                        "severity TEXT, " +
-                        "location TEXT, " +
-                        "message TEXT, " +
-                        "created_date TEXT, " +
-                        "status TEXT DEFAULT 'Active')";
-                conn.createStatement().execute(createTable);
-
-                // Load active alerts
-                ResultSet rs = conn.createStatement().executeQuery(
-                    "SELECT * FROM alerts WHERE status='Active' ORDER BY id DESC"
-                );
-
-                alertsList.clear();
-                while (rs.next()) {
-                    alertsList.add(new Alert(
-                        rs.getInt("id"),
-                        rs.getString("alert_type"),
-                        rs.getString("severity"),
-                        rs.getString("location"),
-                        rs.getString("message"),
-                        rs.getString("created_date")
+                List<Alert> loaded = new ArrayList<>();
+                for (AlertRepository.Alert alert : StorageEngines.shared().alerts().active()) {
+                    loaded.add(new Alert(
+                        (int) alert.getId(),
+                        alert.getAlertType(),
+                        alert.getSeverity(),
+                        alert.getLocation(),
+                        alert.getMessage(),
+                        alert.getCreatedDate()
                     ));
                 }
 
-                Platform.runLater(this::displayActiveAlerts);
-                System.out.println("✓ Loaded " + alertsList.size() + " active alerts");
+                Platform.runLater(() -> {
+                    alertsList.setAll(loaded);
+                    displayActiveAlerts();
+                });
+                System.out.println("✓ Loaded " + loaded.size() + " active alerts");
 
             } catch (Exception e) {
                 System.err.println("Error loading alerts: " + e.getMessage());
@@ -333,14 +306,35 @@ public class AdminDashboardController implements Initializable {
 
     /** Calculate policy data */
     private void calculatePolicyData() {
-        // Generate sample policy statistics
-        goodAqiDaysLabel.setText("18");
-        moderateAqiDaysLabel.setText("9");
-        unhealthyAqiDaysLabel.setText("3");
+        // AQI category of each recent day, read from the daily rollups
+        int days = ConfigLoader.getInt("policy.stats.days", 30);
+        new Thread(() -> {
+            try (Connection conn = DBConnector.getInstance().getConnection()) {
+                int[] counts = Rollups.networkCategoryDays(conn, days);
+                int unhealthy = 0;
+                for (int i = 2; i < counts.length; i++) {
+                    unhealthy += counts[i];
+                }
+                int finalUnhealthy = unhealthy;
+                Platform.runLater(() -> {
+                    goodAqiDaysLabel.setText(String.valueOf(counts[0]));
+                    moderateAqiDaysLabel.setText(String.valueOf(counts[1]));
+                    unhealthyAqiDaysLabel.setText(String.valueOf(finalUnhealthy));
+                });
+            } catch (Exception e) {
+                System.err.println("Error loading policy statistics: " + e.getMessage());
+            }
+        }).start();
 
         // Calculate affected users (total users + researchers)
-        int totalAffected = usersList.size() + researchersList.size();
-        affectedUsersLabel.setText(String.valueOf(totalAffected));
+        new Thread(() -> {
+            try {
+                long totalAffected = USERS.count() + RESEARCHERS.count();
+                Platform.runLater(() -> affectedUsersLabel.setText(String.valueOf(totalAffected)));
+            } catch (Exception e) {
+                System.err.println("Error counting users: " + e.getMessage());
+            }
+        }).start();
     }
 
     // Action Methods
@@ -399,18 +393,42 @@ public class AdminDashboardController implements Initializable {
 
     @FXML
     private void filterReports() {
+        String text = reportSearchField.getText();
+        if (text != null && !text.isBlank()) {
+            searchReports();
+            return;
+        }
+        // Filtered in SQLite (reports_status index)
+        String filter = reportStatusFilter.getValue();
+        reportsLoader.setQuery("All".equals(filter) ? REPORTS : REPORTS.where("status", filter));
+    }
+
+    @FXML
+    private void searchReports() {
+        String text = reportSearchField.getText();
+        if (text == null || text.isBlank()) {
+            filterReports();
+            return;
+        }
         String filter = reportStatusFilter.getValue();
-        if ("All".equals(filter)) {
-            reportsTable.setItems(reportsList);
-        } else {
-            ObservableList<Report> filtered = FXCollections.observableArrayList();
-            for (Report report : reportsList) {
-                if (report.getStatus().equals(filter)) {
-                    filtered.add(report);
+        String status = filter == null || "All".equals(filter) ? null : filter;
+        int limit = ConfigLoader.getInt("reports.search.limit", 200);
+
+        new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                List<Report> results = new ArrayList<>();
+                for (ReportSearch.Hit hit : ReportSearch.search(text, status, limit)) {
+                    results.add(new Report(hit.getId(), hit.getDate(), hit.getReporterName(), hit.getLocation(),
+                            hit.getIssueType(), hit.getSeverity(), hit.getStatus(), hit.getSnippet()));
                 }
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                Platform.runLater(() -> reportsLoader.showRows(results));
+                System.out.println("✓ Report search \"" + text + "\": " + results.size() + " match(es) in " + millis + " ms");
+            } catch (Exception e) {
+                Platform.runLater(() -> showAlert("Error", "Search failed: " + e.getMessage()));
             }
-            reportsTable.setItems(filtered);
-        }
+        }).start();
     }
 
     @FXML
@@ -421,8 +439,7 @@ public class AdminDashboardController implements Initializable {
             return;
         }
 
-        try {
-            Connection conn = DBConnector.getInstance().getConnection();
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
             PreparedStatement stmt = conn.prepareStatement(
                 "SELECT * FROM reports WHERE id=?"
             );
@@ -475,20 +492,15 @@ public class AdminDashboardController implements Initializable {
 
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                Connection conn = DBConnector.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(
-                    "UPDATE reports SET status='Resolved' WHERE id=?"
-                );
-                stmt.setInt(1, selected.getId());
-                stmt.executeUpdate();
-
+            StorageEngines.shared().reports().updateStatus(selected.getId(), "Resolved")
+                    .whenComplete((found, ex) -> Platform.runLater(() -> {
+                if (ex != null) {
+                    showAlert("Error", "Failed to update report: " + HttpService.rootCause(ex).getMessage());
+                    return;
+                }
                 showAlert("Success", "Report marked as resolved");
                 refreshReports();
-
-            } catch (Exception e) {
-                showAlert("Error", "Failed to update report: " + e.getMessage());
-            }
+            }));
         }
     }
 
@@ -504,18 +516,14 @@ public class AdminDashboardController implements Initializable {
             return;
         }
 
-        try {
-            Connection conn = DBConnector.getInstance().getConnection();
-            PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO alerts(alert_type, severity, location, message, created_date) VALUES (?, ?, ?, ?, ?)"
-            );
-            stmt.setString(1, alertType);
-            stmt.setString(2, severity);
-            stmt.setString(3, location);
-            stmt.setString(4, message);
-            stmt.setString(5, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            stmt.executeUpdate();
-
+        String createdDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        AlertRepository.Alert alert = new AlertRepository.Alert(0, alertType, severity, location, message,
+                createdDate, AlertRepository.ACTIVE);
+        StorageEngines.shared().alerts().issue(alert).whenComplete((id, ex) -> Platform.runLater(() -> {
+            if (ex != null) {
+                showAlert("Error", "Failed to issue alert: " + HttpService.rootCause(ex).getMessage());
+                return;
+            }
             showAlert("Alert Issued", "Public health alert has been issued successfully!");
 
             // Clear fields
@@ -526,43 +534,52 @@ public class AdminDashboardController implements Initializable {
 
             // Reload alerts
             loadActiveAlerts();
-
-        } catch (Exception e) {
-            showAlert("Error", "Failed to issue alert: " + e.getMessage());
-        }
+        }));
     }
 
     private void deactivateAlert(int alertId) {
-        try {
-            Connection conn = DBConnector.getInstance().getConnection();
-            PreparedStatement stmt = conn.prepareStatement(
-                "UPDATE alerts SET status='Inactive' WHERE id=?"
-            );
-            stmt.setInt(1, alertId);
-            stmt.executeUpdate();
-
+        StorageEngines.shared().alerts().deactivate(alertId).whenComplete((found, ex) -> Platform.runLater(() -> {
+            if (ex != null) {
+                showAlert("Error", "Failed to deactivate alert: " + HttpService.rootCause(ex).getMessage());
+                return;
+            }
             loadActiveAlerts();
             System.out.println("✓ Alert deactivated: " + alertId);
-
-        } catch (Exception e) {
-            showAlert("Error", "Failed to deactivate alert: " + e.getMessage());
-        }
+        }));
     }
 
     @FXML
     private void generatePolicyReport() {
-        int totalUsers = usersList.size() + researchersList.size() + adminsList.size();
-        int totalReports = reportsList.size();
+        String goodDays = goodAqiDaysLabel.getText();
+        String moderateDays = moderateAqiDaysLabel.getText();
+        String unhealthyDays = unhealthyAqiDaysLabel.getText();
 
-        long pendingReports = reportsList.stream()
-            .filter(r -> "Pending".equals(r.getStatus()))
-            .count();
-
-        long resolvedReports = reportsList.stream()
-            .filter(r -> "Resolved".equals(r.getStatus()))
-            .count();
+        // Counted in SQLite rather than from the rows loaded into the tables
+        new Thread(() -> {
+            try {
+                long users = USERS.count();
+                long researchers = RESEARCHERS.count();
+                long admins = ADMINS.count();
+                long totalReports = REPORTS.count();
+                long pendingReports = REPORTS.where("status", "Pending").count();
+                long resolvedReports = REPORTS.where("status", "Resolved").count();
+                String report = policyReport(users, researchers, admins, totalReports, pendingReports,
+                        resolvedReports, goodDays, moderateDays, unhealthyDays);
+                Platform.runLater(() -> {
+                    policyReportLabel.setText(report);
+                    System.out.println("✓ Policy report generated");
+                });
+            } catch (Exception e) {
+                System.err.println("Error generating policy report: " + e.getMessage());
+            }
+        }).start();
+    }
 
-        String report = String.format(
+    private static String policyReport(long users, long researchers, long admins, long totalReports,
+                                       long pendingReports, long resolvedReports,
+                                       String goodDays, String moderateDays, String unhealthyDays) {
+        long totalUsers = users + researchers + admins;
+        return String.format(
             "📊 POLICY REPORT - Generated on %s\n\n" +
             "SYSTEM OVERVIEW:\n" +
             "• Total Registered Users: %d\n" +
@@ -589,21 +606,18 @@ public class AdminDashboardController implements Initializable {
             "• Public Reporting: ✓ Active",
             LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
             totalUsers,
-            usersList.size(),
-            researchersList.size(),
-            adminsList.size(),
+            users,
+            researchers,
+            admins,
             totalReports,
             pendingReports,
             resolvedReports,
             totalReports > 0 ? (resolvedReports * 100.0 / totalReports) : 0,
-            goodAqiDaysLabel.getText(),
-            moderateAqiDaysLabel.getText(),
-            unhealthyAqiDaysLabel.getText(),
+            goodDays,
+            moderateDays,
+            unhealthyDays,
             totalUsers
         );
-
-        policyReportLabel.setText(report);
-        System.out.println("✓ Policy report generated");
     }
 
     @FXML
@@ -652,9 +666,16 @@ public class AdminDashboardController implements Initializable {
         private final SimpleStringProperty issueType;
         private final SimpleStringProperty severity;
         private final SimpleStringProperty status;
+        private final SimpleStringProperty snippet;
 
         public Report(int id, String date, String reporterName, String location,
                      String issueType, String severity, String status) {
+            this(id, date, reporterName, location, issueType, severity, status, "");
+        }
+
+        /** Report found by a text search, with the matching snippet ({@link ReportSearch.Hit#getSnippet()}) */
+        public Report(int id, String date, String reporterName, String location,
+                     String issueType, String severity, String status, String snippet) {
             this.id = new SimpleIntegerProperty(id);
             this.date = new SimpleStringProperty(date);
             this.reporterName = new SimpleStringProperty(reporterName);
@@ -662,6 +683,7 @@ public class AdminDashboardController implements Initializable {
             this.issueType = new SimpleStringProperty(issueType);
             this.severity = new SimpleStringProperty(severity);
             this.status = new SimpleStringProperty(status);
+            this.snippet = new SimpleStringProperty(snippet);
         }
 
         public int getId() { return id.get(); }
@@ -671,6 +693,37 @@ public class AdminDashboardController implements Initializable {
         public String getIssueType() { return issueType.get(); }
         public String getSeverity() { return severity.get(); }
         public String getStatus() { return status.get(); }
+        public String getSnippet() { return snippet.get(); }
+    }
+
+    /** Shows a search snippet with the matched terms in bold */
+    private static class SnippetCell extends TableCell<Report, String> {
+        @Override
+        protected void updateItem(String snippet, boolean empty) {
+            super.updateItem(snippet, empty);
+            setText(null);
+            if (empty || snippet == null || snippet.isEmpty()) {
+                setGraphic(null);
+                return;
+            }
+            TextFlow flow = new TextFlow();
+            boolean highlighted = false;
+            StringBuilder part = new StringBuilder();
+            for (char c : (snippet + ReportSearch.HIGHLIGHT_START).toCharArray()) {
+                if (c == ReportSearch.HIGHLIGHT_START || c == ReportSearch.HIGHLIGHT_END) {
+                    if (part.length() > 0) {
+                        Text text = new Text(part.toString());
+                        if (highlighted) text.setStyle("-fx-font-weight: bold; -fx-fill: #c0392b;");
+                        flow.getChildren().add(text);
+                        part.setLength(0);
+                    }
+                    highlighted = c == ReportSearch.HIGHLIGHT_START;
+                } else {
+                    part.append(c);
+                }
+            }
+            setGraphic(flow);
+        }
     }
 
     public static class Alert {
@@ -0,0 +1,48 @@
+package com.example.aerotutorial;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of raw air pollution data.
+ * Implementations are discovered with {@link java.util.ServiceLoader} and the
+ * one in use is chosen by the "aq.provider" config property (see
+ * {@link AirQualityProviders}). Responses use the OpenWeatherMap air
+ * pollution JSON format, so parsing and AQI calculation are shared.
+ */
+public interface AirQualityProvider {
+
+    /**
+     * @return Short name used to select this provider in config (e.g. "openweathermap")
+     */
+    String name();
+
+    /**
+     * Fetch the current reading for a location
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return Future completing with the raw JSON body
+     */
+    CompletableFuture<String> fetchCurrentAsync(double lat, double lon);
+
+    /**
+     * Fetch hourly history for a time range
+     * @param lat Latitude
+     * @param lon Longitude
+     * @param startTime Range start (epoch seconds)
+     * @param endTime Range end (epoch seconds)
+     * @return Future completing with the open JSON body stream (caller must close it)
+     */
+    CompletableFuture<InputStream> fetchHistoryAsync(double lat, double lon, long startTime, long endTime);
+
+    /**
+     * Fetch the hourly forecast starting from the current hour
+     * (OpenWeatherMap returns about four days)
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return Future completing with the open JSON body stream (caller must close it)
+     */
+    default CompletableFuture<InputStream> fetchForecastAsync(double lat, double lon) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException(name() + " has no forecast"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.aerotutorial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Looks up {@link AirQualityProvider} implementations registered with ServiceLoader.
+ */
+public final class AirQualityProviders {
+    public static final String DEFAULT_PROVIDER = "openweathermap";
+
+    private static volatile AirQualityProvider configured;
+
+    private AirQualityProviders() {
+    }
+
+    /**
+     * The provider selected by the "aq.provider" config property
+     * (openweathermap by default)
+     */
+    public static AirQualityProvider configured() {
+        AirQualityProvider provider = configured;
+        if (provider == null) {
+            synchronized (AirQualityProviders.class) {
+                provider = configured;
+                if (provider == null) {
+                    String name = ConfigLoader.getProperty("aq.provider", DEFAULT_PROVIDER);
+                    try {
+                        provider = forName(name);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("⚠️ " + e.getMessage() + ", falling back to " + DEFAULT_PROVIDER);
+                        provider = forName(DEFAULT_PROVIDER);
+                    }
+                    System.out.println("✓ Air quality provider: " + provider.name());
+                    configured = provider;
+                }
+            }
+        }
+        return provider;
+    }
+
+    /**
+     * Find a registered provider by name
+     * @param name Provider name (case-insensitive)
+     */
+    public static AirQualityProvider forName(String name) {
+        for (AirQualityProvider provider : available()) {
+            if (provider.name().equalsIgnoreCase(name.trim())) {
+                return provider;
+            }
+        }
+        throw new IllegalArgumentException("Unknown air quality provider: " + name);
+    }
+
+    /**
+     * @return Every provider registered with ServiceLoader
+     */
+    public static List<AirQualityProvider> available() {
+        List<AirQualityProvider> providers = new ArrayList<>();
+        ServiceLoader.load(AirQualityProvider.class, AirQualityProvider.class.getClassLoader())
+                .forEach(providers::add);
+        return providers;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.aerotutorial;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Public health alerts issued by government officials.
+ * Writes return a future like {@link ReportRepository}'s; reads are
+ * synchronous. Storage failures are thrown as IllegalStateException.
+ */
+public interface AlertRepository {
+    String ACTIVE = "Active";
+    String INACTIVE = "Inactive";
+
+    /**
+     * Store a new alert; its id and status are ignored (new alerts are {@link #ACTIVE})
+     * @return Future completing with the id of the stored alert
+     */
+    CompletableFuture<Long> issue(Alert alert);
+
+    /**
+     * @return Future completing with false if no alert has this id
+     */
+    CompletableFuture<Boolean> deactivate(long id);
+
+    /**
+     * Active alerts, newest first
+     */
+    List<Alert> active();
+
+    /**
+     * One stored (or new) alert
+     */
+    class Alert {
+        private final long id;
+        private final String alertType;
+        private final String severity;
+        private final String location;
+        private final String message;
+        private final String createdDate;
+        private final String status;
+
+        public Alert(long id, String alertType, String severity, String location, String message,
+                     String createdDate, String status) {
+            this.id = id;
+            this.alertType = alertType;
+            this.severity = severity;
+            this.location = location;
+            this.message = message;
+            this.createdDate = createdDate;
+            this.status = status;
+        }
+
+        /** Same alert with another id and status */
+        Alert stored(long id, String status) {
+            return new Alert(id, alertType, severity, location, message, createdDate, status);
+        }
+
+        public long getId() { return id; }
+        public String getAlertType() { return alertType; }
+        public String getSeverity() { return severity; }
+        public String getLocation() { return location; }
+        public String getMessage() { return message; }
+        public String getCreatedDate() { return createdDate; }
+        public String getStatus() { return status; }
+    }
+}
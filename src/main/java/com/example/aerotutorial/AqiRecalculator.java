@@ -0,0 +1,123 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps the stored hourly AQI on the configured {@link AqiStandard}.
+ * The standard the stored values were computed with is recorded in
+ * aqi_standard; when "aqi.standard" changes, every aq_hourly.aqi is
+ * recomputed from its concentrations and the rollups are rebuilt, in one
+ * transaction. Rollup buckets frozen by retention ({@link Rollups#freeze})
+ * and the imported daily aq_data.aqi have no concentrations left to
+ * recompute from, so they keep the scale they were stored with.
+ */
+public final class AqiRecalculator {
+    private static final int PAGE = 5000;
+
+    private AqiRecalculator() {
+    }
+
+    /**
+     * Create the table recording the standard of the stored values
+     */
+    static void createTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS aqi_standard(" +
+                    "id INTEGER PRIMARY KEY CHECK (id = 1), " +
+                    "name TEXT NOT NULL)");
+        }
+    }
+
+    /**
+     * Recompute stored AQI values if they were computed with another standard
+     * than the configured one. A database without a recorded standard is
+     * assumed to be on the configured one.
+     * @return Hourly readings recomputed (0 if the standard did not change)
+     */
+    public static int recomputeIfChanged() throws SQLException {
+        AqiStandard standard = AqiStandard.configured();
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                String stored = storedStandard(conn);
+                int recomputed = 0;
+                if (stored != null && !stored.equals(standard.getName())) {
+                    long start = System.nanoTime();
+                    recomputed = recompute(conn, standard);
+                    Rollups.rebuild(conn);
+                    System.out.println("✓ Recomputed " + recomputed + " hourly AQI values from " + stored + " to "
+                            + standard.getName() + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                }
+                if (!standard.getName().equals(stored)) {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "INSERT INTO aqi_standard(id, name) VALUES (1, ?1) ON CONFLICT(id) DO UPDATE SET name=?1")) {
+                        stmt.setString(1, standard.getName());
+                        stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return recomputed;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static String storedStandard(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM aqi_standard WHERE id=1")) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    // Paged in primary-key order; each page is recomputed column-wise with AqiStandard.overallAll
+    private static int recompute(Connection conn, AqiStandard standard) throws SQLException {
+        double[][] columns = new double[6][PAGE];
+        String[] cells = new String[PAGE];
+        long[] ts = new long[PAGE];
+        int[] aqi = new int[PAGE];
+        int total = 0;
+        String lastCell = "";
+        long lastTs = Long.MIN_VALUE;
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT cell, ts, pm25, pm10, no2, o3, so2, co FROM aq_hourly " +
+                "WHERE (cell, ts) > (?, ?) ORDER BY cell, ts LIMIT " + PAGE);
+             PreparedStatement update = conn.prepareStatement("UPDATE aq_hourly SET aqi=? WHERE cell=? AND ts=?")) {
+            while (true) {
+                select.setString(1, lastCell);
+                select.setLong(2, lastTs);
+                int n = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        cells[n] = rs.getString(1);
+                        ts[n] = rs.getLong(2);
+                        for (int c = 0; c < 6; c++) {
+                            columns[c][n] = rs.getDouble(c + 3);
+                        }
+                        n++;
+                    }
+                }
+                if (n == 0) break;
+
+                int[] out = n == PAGE ? aqi : new int[n];
+                standard.overallAll(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], out);
+                for (int i = 0; i < n; i++) {
+                    update.setInt(1, out[i]);
+                    update.setString(2, cells[i]);
+                    update.setLong(3, ts[i]);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                total += n;
+                lastCell = cells[n - 1];
+                lastTs = ts[n - 1];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.aerotutorial;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A national or regional air quality index, defined entirely by breakpoint
+ * tables. The overall index is the maximum of the pollutant sub-indices.
+ * The standard in use is picked with the "aqi.standard" config property
+ * (EPA, EU_CAQI or INDIA_NAQI; EPA by default).
+ */
+public final class AqiStandard {
+
+    /** US EPA AQI (0-500). Gas concentrations are converted from μg/m³ at 25°C. */
+    public static final AqiStandard EPA = new AqiStandard("EPA", 500, new int[]{50, 100, 150, 200, 300},
+            new String[]{"Good", "Moderate", "Unhealthy for Sensitive Groups", "Unhealthy", "Very Unhealthy", "Hazardous"},
+            new String[]{"#00E400", "#FFAA00", "#FF7E00", "#FF0000", "#8F3F97", "#7E0023"}, table(
+            Pollutant.PM25, new BreakpointTable(1, new double[][]{
+                    {0, 12.0, 0, 50}, {12.1, 35.4, 51, 100}, {35.5, 55.4, 101, 150},
+                    {55.5, 150.4, 151, 200}, {150.5, 250.4, 201, 300}, {250.5, 350.4, 301, 400},
+                    {350.5, 500.4, 401, 500}}, 500),
+            Pollutant.PM10, new BreakpointTable(1, new double[][]{
+                    {0, 54, 0, 50}, {55, 154, 51, 100}, {155, 254, 101, 150},
+                    {255, 354, 151, 200}, {355, 424, 201, 300}, {425, 504, 301, 400},
+                    {505, 604, 401, 500}}, 500),
+            // ppb = μg/m³ × 0.5319 (1-hour average)
+            Pollutant.NO2, new BreakpointTable(0.5319, new double[][]{
+                    {0, 53, 0, 50}, {54, 100, 51, 100}, {101, 360, 101, 150},
+                    {361, 649, 151, 200}, {650, 1249, 201, 300}, {1250, 1649, 301, 400},
+                    {1650, 2049, 401, 500}}, 500),
+            // ppb = μg/m³ × 0.5087 (8-hour average, table stops at 300)
+            Pollutant.O3, new BreakpointTable(0.5087, new double[][]{
+                    {0, 54, 0, 50}, {55, 70, 51, 100}, {71, 85, 101, 150},
+                    {86, 105, 151, 200}, {106, 200, 201, 300}}, 300),
+            // ppb = μg/m³ × 0.3817 (1-hour average)
+            Pollutant.SO2, new BreakpointTable(0.3817, new double[][]{
+                    {0, 35, 0, 50}, {36, 75, 51, 100}, {76, 185, 101, 150},
+                    {186, 304, 151, 200}, {305, 604, 201, 300}, {605, 804, 301, 400},
+                    {805, 1004, 401, 500}}, 500),
+            // ppm = μg/m³ × 0.000873 (8-hour average)
+            Pollutant.CO, new BreakpointTable(0.000873, new double[][]{
+                    {0, 4.4, 0, 50}, {4.5, 9.4, 51, 100}, {9.5, 12.4, 101, 150},
+                    {12.5, 15.4, 151, 200}, {15.5, 30.4, 201, 300}, {30.5, 40.4, 301, 400},
+                    {40.5, 50.4, 401, 500}}, 500)));
+
+    /** European Common Air Quality Index, hourly grid version (0-100, above 100 is "very high"). */
+    public static final AqiStandard EU_CAQI = new AqiStandard("EU_CAQI", 100, new int[]{25, 50, 75, 100},
+            new String[]{"Very Low", "Low", "Medium", "High", "Very High"},
+            new String[]{"#79BC6A", "#BBCF4C", "#EEC20B", "#F29305", "#E8416F"}, table(
+            Pollutant.PM25, new BreakpointTable(1, new double[][]{
+                    {0, 15, 0, 25}, {15, 30, 25, 50}, {30, 55, 50, 75}, {55, 110, 75, 100}}, 100),
+            Pollutant.PM10, new BreakpointTable(1, new double[][]{
+                    {0, 25, 0, 25}, {25, 50, 25, 50}, {50, 90, 50, 75}, {90, 180, 75, 100}}, 100),
+            Pollutant.NO2, new BreakpointTable(1, new double[][]{
+                    {0, 50, 0, 25}, {50, 100, 25, 50}, {100, 200, 50, 75}, {200, 400, 75, 100}}, 100),
+            Pollutant.O3, new BreakpointTable(1, new double[][]{
+                    {0, 60, 0, 25}, {60, 120, 25, 50}, {120, 180, 50, 75}, {180, 240, 75, 100}}, 100),
+            Pollutant.SO2, new BreakpointTable(1, new double[][]{
+                    {0, 50, 0, 25}, {50, 100, 25, 50}, {100, 350, 50, 75}, {350, 500, 75, 100}}, 100),
+            Pollutant.CO, new BreakpointTable(1, new double[][]{
+                    {0, 5000, 0, 25}, {5000, 7500, 25, 50}, {7500, 10000, 50, 75}, {10000, 20000, 75, 100}}, 100)));
+
+    /** India National AQI (0-500). CO is expressed in mg/m³. */
+    public static final AqiStandard INDIA_NAQI = new AqiStandard("INDIA_NAQI", 500, new int[]{50, 100, 200, 300, 400},
+            new String[]{"Good", "Satisfactory", "Moderate", "Poor", "Very Poor", "Severe"},
+            new String[]{"#00B050", "#92D050", "#E6C800", "#FF9900", "#FF0000", "#C00000"}, table(
+            Pollutant.PM25, new BreakpointTable(1, new double[][]{
+                    {0, 30, 0, 50}, {31, 60, 51, 100}, {61, 90, 101, 200},
+                    {91, 120, 201, 300}, {121, 250, 301, 400}, {251, 380, 401, 500}}, 500),
+            Pollutant.PM10, new BreakpointTable(1, new double[][]{
+                    {0, 50, 0, 50}, {51, 100, 51, 100}, {101, 250, 101, 200},
+                    {251, 350, 201, 300}, {351, 430, 301, 400}, {431, 600, 401, 500}}, 500),
+            Pollutant.NO2, new BreakpointTable(1, new double[][]{
+                    {0, 40, 0, 50}, {41, 80, 51, 100}, {81, 180, 101, 200},
+                    {181, 280, 201, 300}, {281, 400, 301, 400}, {401, 800, 401, 500}}, 500),
+            Pollutant.O3, new BreakpointTable(1, new double[][]{
+                    {0, 50, 0, 50}, {51, 100, 51, 100}, {101, 168, 101, 200},
+                    {169, 208, 201, 300}, {209, 748, 301, 400}, {749, 1000, 401, 500}}, 500),
+            Pollutant.SO2, new BreakpointTable(1, new double[][]{
+                    {0, 40, 0, 50}, {41, 80, 51, 100}, {81, 380, 101, 200},
+                    {381, 800, 201, 300}, {801, 1600, 301, 400}, {1601, 2100, 401, 500}}, 500),
+            Pollutant.CO, new BreakpointTable(0.001, new double[][]{
+                    {0, 1.0, 0, 50}, {1.1, 2.0, 51, 100}, {2.1, 10, 101, 200},
+                    {10.1, 17, 201, 300}, {17.1, 34, 301, 400}, {34.1, 50, 401, 500}}, 500)));
+
+    private static volatile AqiStandard configured;
+
+    private final String name;
+    private final int maxIndex;
+    // Upper index value of each category band except the last
+    private final int[] categoryBounds;
+    // Name and display colour of each category, best first
+    private final String[] categoryLabels;
+    private final String[] categoryColors;
+    // Indexed by Pollutant.ordinal() so lookups avoid hashing
+    private final BreakpointTable[] tables;
+
+    private AqiStandard(String name, int maxIndex, int[] categoryBounds, String[] categoryLabels,
+                        String[] categoryColors, Map<Pollutant, BreakpointTable> tables) {
+        if (categoryLabels.length != categoryBounds.length + 1 || categoryColors.length != categoryLabels.length) {
+            throw new IllegalArgumentException(name + " needs a label and colour for each category");
+        }
+        this.name = name;
+        this.maxIndex = maxIndex;
+        this.categoryBounds = categoryBounds;
+        this.categoryLabels = categoryLabels;
+        this.categoryColors = categoryColors;
+        this.tables = new BreakpointTable[Pollutant.values().length];
+        for (Pollutant p : Pollutant.values()) {
+            BreakpointTable t = tables.get(p);
+            if (t == null) {
+                throw new IllegalArgumentException(name + " has no table for " + p);
+            }
+            this.tables[p.ordinal()] = t;
+        }
+    }
+
+    /**
+     * Look up a standard by name
+     * @param name EPA, EU_CAQI or INDIA_NAQI (case-insensitive)
+     */
+    public static AqiStandard forName(String name) {
+        switch (name.trim().toUpperCase()) {
+            case "EPA":
+            case "US":
+                return EPA;
+            case "EU_CAQI":
+            case "CAQI":
+                return EU_CAQI;
+            case "INDIA_NAQI":
+            case "NAQI":
+                return INDIA_NAQI;
+            default:
+                throw new IllegalArgumentException("Unknown AQI standard: " + name);
+        }
+    }
+
+    /**
+     * The standard selected by the "aqi.standard" config property
+     */
+    public static AqiStandard configured() {
+        AqiStandard standard = configured;
+        if (standard == null) {
+            try {
+                standard = forName(ConfigLoader.getProperty("aqi.standard", "EPA"));
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ " + e.getMessage() + ", falling back to EPA");
+                standard = EPA;
+            }
+            configured = standard;
+        }
+        return standard;
+    }
+
+    public String getName() { return name; }
+
+    /** Highest index value this standard reports */
+    public int getMaxIndex() { return maxIndex; }
+
+    /**
+     * Upper index value of each category band, best first (e.g. 50 for EPA "Good").
+     * An index above the last bound falls in the worst category.
+     */
+    public int[] getCategoryBounds() { return categoryBounds.clone(); }
+
+    /**
+     * Category band of an index value: 0 is the best ("Good"), 1 the next and so on
+     */
+    public int category(double index) {
+        int category = 0;
+        while (category < categoryBounds.length && index > categoryBounds[category]) {
+            category++;
+        }
+        return category;
+    }
+
+    /**
+     * Name of a category band under this standard (e.g. "Moderate")
+     * @param category Band from {@link #category}
+     */
+    public String categoryLabel(int category) {
+        return categoryLabels[category];
+    }
+
+    /**
+     * Display colour of a category band, as a CSS hex colour
+     * @param category Band from {@link #category}
+     */
+    public String categoryColor(int category) {
+        return categoryColors[category];
+    }
+
+    /**
+     * Sub-index for one pollutant
+     * @param pollutant Pollutant
+     * @param concentration Concentration in μg/m³
+     */
+    public int subIndex(Pollutant pollutant, double concentration) {
+        return tables[pollutant.ordinal()].index(concentration);
+    }
+
+    /**
+     * Overall index: the maximum of the six sub-indices (all inputs in μg/m³)
+     */
+    public int overall(double pm25, double pm10, double no2, double o3, double so2, double co) {
+        int aqi = tables[0].index(pm25);
+        aqi = Math.max(aqi, tables[1].index(pm10));
+        aqi = Math.max(aqi, tables[2].index(no2));
+        aqi = Math.max(aqi, tables[3].index(o3));
+        aqi = Math.max(aqi, tables[4].index(so2));
+        return Math.max(aqi, tables[5].index(co));
+    }
+
+    /**
+     * Pollutant with the highest sub-index, i.e. the one that sets the
+     * overall index (the first one listed wins a tie)
+     */
+    public Pollutant dominant(double pm25, double pm10, double no2, double o3, double so2, double co) {
+        double[] concentrations = {pm25, pm10, no2, o3, so2, co};
+        int best = 0;
+        int bestIndex = tables[0].index(pm25);
+        for (int i = 1; i < concentrations.length; i++) {
+            int index = tables[i].index(concentrations[i]);
+            if (index > bestIndex) {
+                best = i;
+                bestIndex = index;
+            }
+        }
+        return Pollutant.values()[best];
+    }
+
+    /**
+     * Overall index for a stored reading
+     */
+    public int overall(PollutantReading r) {
+        return overall(r.getPm25(), r.getPm10(), r.getNo2(), r.getO3(), r.getSo2(), r.getCo());
+    }
+
+    /**
+     * Recompute the overall index for many readings in one pass.
+     * Input arrays are column-oriented (one array per pollutant, μg/m³) and
+     * must all have the same length as out.
+     * @param out Receives the overall index for each row
+     */
+    public void overallAll(double[] pm25, double[] pm10, double[] no2, double[] o3,
+                           double[] so2, double[] co, int[] out) {
+        int n = out.length;
+        if (pm25.length < n || pm10.length < n || no2.length < n || o3.length < n
+                || so2.length < n || co.length < n) {
+            throw new IllegalArgumentException("Pollutant columns shorter than output");
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] = overall(pm25[i], pm10[i], no2[i], o3[i], so2[i], co[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static Map<Pollutant, BreakpointTable> table(Object... pairs) {
+        Map<Pollutant, BreakpointTable> map = new EnumMap<>(Pollutant.class);
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.put((Pollutant) pairs[i], (BreakpointTable) pairs[i + 1]);
+        }
+        return map;
+    }
+}
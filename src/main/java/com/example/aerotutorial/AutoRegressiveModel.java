@@ -0,0 +1,119 @@
+package com.example.aerotutorial;
+
+/**
+ * AR(p) on the mean-removed series. Coefficients come from the Yule-Walker
+ * equations solved with Levinson-Durbin recursion, which is O(p²) on top of
+ * the O(n·p) autocovariance pass and needs no matrix library.
+ */
+public class AutoRegressiveModel implements ForecastModel {
+    private final int order;
+
+    /**
+     * @param order Number of lags p (at least 1)
+     */
+    public AutoRegressiveModel(int order) {
+        if (order < 1) {
+            throw new IllegalArgumentException("AR order must be at least 1");
+        }
+        this.order = order;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String name() {
+        return "ar" + order;
+    }
+
+    @Override
+    public int minPoints() {
+        return 3 * order + 2;
+    }
+
+    @Override
+    public PredictionEngine.PredictionResult forecast(double[] series, int from, int length, int horizon) {
+        ForecastMath.checkArgs(series, from, length, horizon);
+        if (length < minPoints()) return PredictionEngine.PredictionResult.invalid("Not enough data");
+
+        int p = order;
+        double mean = ForecastMath.mean(series, from, length);
+
+        // Biased autocovariances r[0..p]
+        double[] r = new double[p + 1];
+        for (int lag = 0; lag <= p; lag++) {
+            double sum = 0;
+            for (int t = lag; t < length; t++) {
+                sum += (series[from + t] - mean) * (series[from + t - lag] - mean);
+            }
+            r[lag] = sum / length;
+        }
+
+        double[] phi = new double[p];
+        double sigma2 = levinsonDurbin(r, phi);
+
+        // Recursive point forecasts on the demeaned series
+        double[] history = new double[p + horizon];
+        for (int i = 0; i < p; i++) {
+            history[i] = series[from + length - p + i] - mean;
+        }
+        double[] means = new double[horizon];
+        for (int h = 0; h < horizon; h++) {
+            double x = 0;
+            for (int i = 0; i < p; i++) {
+                x += phi[i] * history[p + h - 1 - i];
+            }
+            history[p + h] = x;
+            means[h] = x + mean;
+        }
+
+        // ψ weights: ψ_j = Σ φ_i ψ_{j-i}, ψ_0 = 1
+        double[] psi = new double[horizon];
+        psi[0] = 1;
+        for (int j = 1; j < horizon; j++) {
+            double sum = 0;
+            for (int i = 1; i <= Math.min(j, p); i++) {
+                sum += phi[i - 1] * psi[j - i];
+            }
+            psi[j] = sum;
+        }
+        double[] weights = new double[Math.max(0, horizon - 1)];
+        System.arraycopy(psi, 1, weights, 0, weights.length);
+
+        double slope = horizon > 1 ? (means[horizon - 1] - means[0]) / (horizon - 1) : 0;
+        return ForecastMath.result(name(), series[from + length - 1], slope, means, sigma2, weights);
+    }
+
+    /**
+     * Solve the Yule-Walker equations
+     * @param r Autocovariances r[0..p]
+     * @param phi Receives the p coefficients
+     * @return Innovation variance
+     */
+    static double levinsonDurbin(double[] r, double[] phi) {
+        int p = phi.length;
+        double error = r[0];
+        if (error <= 0) {
+            return 0; // constant series: forecast the mean exactly
+        }
+        double[] previous = new double[p];
+        for (int k = 0; k < p; k++) {
+            double acc = r[k + 1];
+            for (int j = 0; j < k; j++) {
+                acc -= phi[j] * r[k - j];
+            }
+            double reflection = acc / error;
+            System.arraycopy(phi, 0, previous, 0, k);
+            phi[k] = reflection;
+            for (int j = 0; j < k; j++) {
+                phi[j] = previous[j] - reflection * previous[k - 1 - j];
+            }
+            error *= 1 - reflection * reflection;
+            if (error <= 0) {
+                return 0;
+            }
+        }
+        return error;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Nightly job that forecasts every location with stored hourly history.
+ * History is read from aq_hourly in one ordered scan, the models run in
+ * parallel on a fork/join pool, and the results replace the forecasts
+ * table, so showing a forecast is a single primary-key read. Forecast hours
+ * start at the hour after the run, however old a location's last reading;
+ * locations skipped in a run lose their previous forecast.
+ */
+public class BatchForecastJob {
+    private static final long HOUR = 3600;
+
+    private BatchForecastJob() {
+    }
+
+    /**
+     * Run the job every night at "forecast.batch.hour" (local time, default 2)
+     * on a background daemon thread ({@link NightlyScheduler}). Does nothing if "forecast.batch.enabled" is false.
+     */
+    public static void scheduleNightly() {
+        if (!Boolean.parseBoolean(ConfigLoader.getProperty("forecast.batch.enabled", "true").trim())) {
+            return;
+        }
+        NightlyScheduler.schedule("Batch forecast", Math.floorMod(ConfigLoader.getInt("forecast.batch.hour", 2), 24),
+                BatchForecastJob::run);
+    }
+
+    /**
+     * Forecast all locations with the configured model and settings
+     */
+    public static JobReport run() throws SQLException, InterruptedException {
+        return run(ForecastModels.configured(),
+                ConfigLoader.getInt("forecast.batch.history.days", 14),
+                ConfigLoader.getInt("forecast.batch.horizon.hours", 48),
+                ConfigLoader.getInt("forecast.batch.parallelism", Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Forecast all locations
+     * @param model Model fitted to each location's hourly AQI
+     * @param historyDays Days of history to fit on
+     * @param horizonHours Hours to forecast
+     * @param parallelism Fork/join pool size
+     */
+    public static JobReport run(ForecastModel model, int historyDays, int horizonHours, int parallelism)
+            throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis() / 1000;
+        long currentHour = now - now % HOUR;
+        List<TimeSeries> locations = loadHistory(now - historyDays * 24 * HOUR);
+        long loadedAt = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        List<Forecast> forecasted;
+        try {
+            forecasted = pool.submit(() -> locations.parallelStream()
+                    .map(s -> Forecast.of(s, model, currentHour, horizonHours))
+                    .filter(Objects::nonNull)
+                    .toList()).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Forecast task failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long fittedAt = System.nanoTime();
+
+        store(forecasted, now);
+        long end = System.nanoTime();
+
+        int readings = locations.stream().mapToInt(s -> s.length).sum();
+        JobReport report = new JobReport(locations.size(), forecasted.size(), readings,
+                (loadedAt - start) / 1_000_000, (fittedAt - loadedAt) / 1_000_000, (end - fittedAt) / 1_000_000);
+        System.out.println("✓ " + report);
+        return report;
+    }
+
+    /**
+     * Read the stored forecast for a location
+     * @param cell Grid cell key ({@link Coordinate#cellKey})
+     * @return Upcoming hours as a forecast result, or null if none is stored
+     */
+    public static PredictionEngine.PredictionResult loadStored(String cell) throws SQLException {
+        long now = System.currentTimeMillis() / 1000;
+        long[] timestamps = new long[64];
+        int[] aqi = new int[64];
+        int n = 0;
+        String model = null;
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT ts, aqi, model FROM forecasts WHERE cell=? AND ts>=? ORDER BY ts")) {
+            stmt.setString(1, cell);
+            stmt.setLong(2, now - now % HOUR);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (n == timestamps.length) {
+                        timestamps = Arrays.copyOf(timestamps, n * 2);
+                        aqi = Arrays.copyOf(aqi, n * 2);
+                    }
+                    timestamps[n] = rs.getLong(1);
+                    aqi[n] = (int) Math.round(rs.getDouble(2));
+                    model = rs.getString(3);
+                    n++;
+                }
+            }
+        }
+        if (n == 0) {
+            return null;
+        }
+        return PredictionEngine.PredictionResult.fromForecast("batch " + model,
+                Arrays.copyOf(timestamps, n), Arrays.copyOf(aqi, n), ZoneId.systemDefault());
+    }
+
+    /**
+     * Load hourly AQI per cell since the given time, in one scan in primary-key order.
+     * Missing hours repeat the previous value so seasonal models stay aligned
+     * (see {@link TimeSeries}).
+     */
+    static List<TimeSeries> loadHistory(long since) throws SQLException {
+        List<TimeSeries> result = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT cell, ts, aqi FROM aq_hourly WHERE ts>=? ORDER BY cell, ts")) {
+            stmt.setLong(1, since);
+            try (ResultSet rs = stmt.executeQuery()) {
+                TimeSeries current = null;
+                while (rs.next()) {
+                    String cell = rs.getString(1);
+                    if (current == null || !current.key.equals(cell)) {
+                        current = new TimeSeries(cell, HOUR);
+                        result.add(current);
+                    }
+                    current.add(rs.getLong(2), rs.getInt(3));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replace all stored forecasts, so a location skipped in this run keeps
+     * no forecast from an earlier one
+     */
+    private static void store(List<Forecast> forecasts, long generatedAt) throws SQLException {
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM forecasts");
+                 PreparedStatement insert = conn.prepareStatement(
+                         "INSERT INTO forecasts(cell, ts, generated_at, model, aqi, lower, upper) " +
+                         "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                delete.executeUpdate();
+                for (Forecast f : forecasts) {
+                    PredictionEngine.PredictionResult r = f.result;
+                    // Steps up to the current hour only bridge a gap since the last reading
+                    for (int h = f.skip; h < r.horizon(); h++) {
+                        insert.setString(1, f.series.key);
+                        insert.setLong(2, f.series.lastTs + (h + 1) * HOUR);
+                        insert.setLong(3, generatedAt);
+                        insert.setString(4, r.source);
+                        insert.setDouble(5, r.means[h]);
+                        insert.setDouble(6, r.lower[h]);
+                        insert.setDouble(7, r.upper[h]);
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A fitted forecast for one location
+     */
+    private static final class Forecast {
+        final TimeSeries series;
+        final PredictionEngine.PredictionResult result;
+        // Leading steps at or before the current hour
+        final int skip;
+
+        private Forecast(TimeSeries series, PredictionEngine.PredictionResult result, int skip) {
+            this.series = series;
+            this.result = result;
+            this.skip = skip;
+        }
+
+        /**
+         * @param currentHour Start of the current hour; the horizon counts from here
+         * @return The forecast, or null if there was not enough history
+         */
+        static Forecast of(TimeSeries series, ForecastModel model, long currentHour, int horizon) {
+            if (series.length < model.minPoints()) {
+                return null;
+            }
+            int skip = (int) Math.max(0, (currentHour - series.lastTs) / HOUR);
+            PredictionEngine.PredictionResult r = model.forecast(series.values, 0, series.length, skip + horizon);
+            return r.isValid() ? new Forecast(series, r, skip) : null;
+        }
+    }
+
+    /**
+     * Outcome and timings of one run
+     */
+    public static class JobReport {
+        private final int locations;
+        private final int forecasted;
+        private final int readings;
+        private final long loadMillis;
+        private final long fitMillis;
+        private final long storeMillis;
+
+        JobReport(int locations, int forecasted, int readings, long loadMillis, long fitMillis, long storeMillis) {
+            this.locations = locations;
+            this.forecasted = forecasted;
+            this.readings = readings;
+            this.loadMillis = loadMillis;
+            this.fitMillis = fitMillis;
+            this.storeMillis = storeMillis;
+        }
+
+        public int getLocations() { return locations; }
+        public int getForecasted() { return forecasted; }
+        public int getSkipped() { return locations - forecasted; }
+        public int getReadings() { return readings; }
+        public long getElapsedMillis() { return loadMillis + fitMillis + storeMillis; }
+
+        /**
+         * @return End-to-end throughput (load + fit + store)
+         */
+        public double getLocationsPerSecond() {
+            return locations * 1000.0 / Math.max(1, getElapsedMillis());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Batch forecast: %d locations (%d skipped, %d hourly points) in %d ms "
+                            + "[load %d, fit %d, store %d] = %.1f locations/s",
+                    locations, getSkipped(), readings, getElapsedMillis(), loadMillis, fitMillis, storeMillis,
+                    getLocationsPerSecond());
+        }
+    }
+
+    /**
+     * Run the job once from the command line
+     */
+    public static void main(String[] args) throws Exception {
+        DBSetup.initialize();
+        run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.aerotutorial;
+
+import java.util.Arrays;
+
+/**
+ * Immutable breakpoint table for one pollutant under one AQI standard.
+ * Each row maps a concentration band [concLow, concHigh] onto an index band
+ * [indexLow, indexHigh]; the sub-index is linear inside the band. Lookup is a
+ * binary search over the band upper bounds and allocates nothing.
+ */
+public final class BreakpointTable {
+    private final double unitFactor;
+    private final double[] concLow;
+    private final double[] concHigh;
+    private final int[] indexLow;
+    private final int[] indexHigh;
+    private final int overflowIndex;
+
+    /**
+     * @param unitFactor Multiplier converting μg/m³ into the table's unit (1 if already μg/m³)
+     * @param rows Rows of {concLow, concHigh, indexLow, indexHigh}, ascending
+     * @param overflowIndex Index returned above the last band
+     */
+    public BreakpointTable(double unitFactor, double[][] rows, int overflowIndex) {
+        this.unitFactor = unitFactor;
+        this.concLow = new double[rows.length];
+        this.concHigh = new double[rows.length];
+        this.indexLow = new int[rows.length];
+        this.indexHigh = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            concLow[i] = rows[i][0];
+            concHigh[i] = rows[i][1];
+            indexLow[i] = (int) rows[i][2];
+            indexHigh[i] = (int) rows[i][3];
+            if (i > 0 && concHigh[i] <= concHigh[i - 1]) {
+                throw new IllegalArgumentException("Breakpoints must be ascending: " + Arrays.toString(rows[i]));
+            }
+        }
+        this.overflowIndex = overflowIndex;
+    }
+
+    /**
+     * Sub-index for a concentration
+     * @param concentration Concentration in μg/m³
+     * @return Sub-index, 0 for negative input, overflowIndex above the last band
+     */
+    public int index(double concentration) {
+        if (concentration < 0) return 0;
+
+        double c = concentration * unitFactor;
+        int lo = 0;
+        int hi = concHigh.length - 1;
+        if (c > concHigh[hi]) {
+            return overflowIndex;
+        }
+        // First band whose upper bound is >= c
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (concHigh[mid] < c) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return (int) ((c - concLow[lo]) / (concHigh[lo] - concLow[lo]) * (indexHigh[lo] - indexLow[lo]) + indexLow[lo]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.aerotutorial;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fetches AQI for many coordinates at once.
+ * Each coordinate gets its own virtual thread and a semaphore caps how many
+ * fetches are in flight. Cached cells return at once; requests that do go
+ * out are held to the API quota by {@link HttpService}.
+ */
+public class BulkAQIFetcher {
+    private static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    private BulkAQIFetcher() {
+    }
+
+    /**
+     * Fetch AQI for every coordinate using the configured concurrency cap
+     * @param coordinates Locations to poll
+     * @return Per-coordinate results and failures
+     */
+    public static BulkResult fetchAll(Collection<Coordinate> coordinates) {
+        return fetchAll(coordinates, ConfigLoader.getInt("bulk.fetch.max.concurrency", DEFAULT_MAX_CONCURRENCY));
+    }
+
+    /**
+     * Fetch AQI for every coordinate
+     * @param coordinates Locations to poll
+     * @param maxConcurrency Maximum number of requests in flight at once
+     * @return Per-coordinate results and failures, in input order
+     */
+    public static BulkResult fetchAll(Collection<Coordinate> coordinates, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        List<Coordinate> ordered = new ArrayList<>(coordinates);
+        List<Future<Integer>> futures = new ArrayList<>(ordered.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Coordinate c : ordered) {
+                futures.add(executor.submit(() -> {
+                    inFlight.acquire();
+                    try {
+                        return AQIFetcher.fetchAQIAsync(c.getLat(), c.getLon()).join();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+
+        Map<Coordinate, Integer> values = new LinkedHashMap<>();
+        Map<Coordinate, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            Coordinate c = ordered.get(i);
+            try {
+                values.put(c, futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(c, e);
+            } catch (Exception e) {
+                failures.put(c, HttpService.rootCause(e));
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("✓ Bulk fetch: " + values.size() + " ok, " + failures.size()
+                + " failed in " + elapsedMs + " ms");
+        return new BulkResult(values, failures, elapsedMs);
+    }
+
+    /**
+     * Outcome of a bulk fetch: AQI for successful coordinates and the cause
+     * for each one that failed.
+     */
+    public static class BulkResult {
+        private final Map<Coordinate, Integer> values;
+        private final Map<Coordinate, Throwable> failures;
+        private final long elapsedMillis;
+
+        BulkResult(Map<Coordinate, Integer> values, Map<Coordinate, Throwable> failures, long elapsedMillis) {
+            this.values = Collections.unmodifiableMap(values);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Map<Coordinate, Integer> getValues() { return values; }
+        public Map<Coordinate, Throwable> getFailures() { return failures; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public int size() { return values.size() + failures.size(); }
+        public boolean hasFailures() { return !failures.isEmpty(); }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.aerotutorial;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Loads large numbers of rows at SQLite's real throughput.
+ * Rows are consumed from a stream, bound to one reused prepared statement,
+ * sent with addBatch/executeBatch and committed in chunks inside explicit
+ * transactions, so the journal is synced once per chunk instead of once per
+ * row. A failure rolls back the current chunk; earlier chunks stay committed.
+ */
+public final class BulkIngestor {
+
+    /**
+     * Binds one row to the statement's parameters
+     */
+    @FunctionalInterface
+    public interface Binder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    private BulkIngestor() {
+    }
+
+    /** Rows per transaction from the "db.ingest.chunk.size" config property */
+    public static int defaultChunkSize() {
+        return Math.max(1, ConfigLoader.getInt("db.ingest.chunk.size", 5000));
+    }
+
+    /**
+     * Insert every row of a stream
+     * @param sql Parameterized INSERT (or upsert) statement
+     * @param rows Rows to write; consumed lazily and closed when done
+     * @param binder Sets the statement parameters for one row
+     * @param chunkSize Rows per transaction
+     * @return Rows written and timings
+     */
+    public static <T> IngestReport ingest(String sql, Stream<T> rows, Binder<? super T> binder, int chunkSize)
+            throws SQLException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        long start = System.nanoTime();
+        long written = 0;
+        int chunks = 0;
+        try (Stream<T> stream = rows;
+             Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                Iterator<T> it = stream.iterator();
+                while (it.hasNext()) {
+                    binder.bind(stmt, it.next());
+                    stmt.addBatch();
+                    if (++pending == chunkSize) {
+                        stmt.executeBatch();
+                        conn.commit();
+                        written += pending;
+                        chunks++;
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                    conn.commit();
+                    written += pending;
+                    chunks++;
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw new SQLException("Bulk ingest stopped after " + written + " committed rows: " + e.getMessage(), e);
+            }
+        }
+        return new IngestReport(written, chunks, System.nanoTime() - start);
+    }
+
+    /**
+     * Upsert daily readings into aq_data (one row per city and day), then refresh their rollups
+     */
+    public static IngestReport ingestDaily(Stream<DailyReading> readings, int chunkSize) throws SQLException {
+        // Location ids are not cached inside a transaction, so remember them for this load
+        Map<String, Long> locationIds = new HashMap<>();
+        Map<Long, long[]> written = new HashMap<>();
+        IngestReport report;
+        try {
+            report = ingestDaily(readings, chunkSize, locationIds, written);
+        } catch (SQLException | RuntimeException e) {
+            // Earlier chunks are committed, so refresh them too, without hiding the failure
+            try {
+                refreshRollups(written);
+            } catch (SQLException | RuntimeException refreshFailure) {
+                e.addSuppressed(refreshFailure);
+            }
+            throw e;
+        }
+        refreshRollups(written);
+        return report;
+    }
+
+    private static IngestReport ingestDaily(Stream<DailyReading> readings, int chunkSize,
+                                            Map<String, Long> locationIds, Map<Long, long[]> written)
+            throws SQLException {
+        return ingest("INSERT INTO aq_data(city, date, pm25, pm10, aqi, location_id, ts) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT(location_id, ts) DO UPDATE SET " +
+                        "city=excluded.city, date=excluded.date, pm25=excluded.pm25, pm10=excluded.pm10, aqi=excluded.aqi",
+                readings,
+                (stmt, r) -> {
+                    Long locationId = locationIds.get(r.getCity());
+                    if (locationId == null) {
+                        locationId = Locations.idForName(stmt.getConnection(), r.getCity());
+                        locationIds.put(r.getCity(), locationId);
+                    }
+                    stmt.setString(1, r.getCity());
+                    stmt.setString(2, r.getDate().toString());
+                    stmt.setDouble(3, r.getPm25());
+                    stmt.setDouble(4, r.getPm10());
+                    stmt.setInt(5, r.getAqi());
+                    long ts = r.getDate().toEpochDay() * 86400;
+                    stmt.setLong(6, locationId);
+                    stmt.setLong(7, ts);
+                    written.merge(locationId, new long[]{ts, ts},
+                            (a, b) -> new long[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+                },
+                chunkSize);
+    }
+
+    /**
+     * Write hourly readings for one grid cell through {@link ReadingRepository#store}
+     * (replacing stored hours and refreshing their rollups), one chunk per call.
+     * A failure stops the load; earlier chunks stay stored.
+     * @param cell Grid cell key ({@link Coordinate#cellKey})
+     */
+    public static IngestReport ingestHourly(String cell, Stream<PollutantReading> readings, int chunkSize)
+            throws SQLException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        long start = System.nanoTime();
+        long written = 0;
+        int chunks = 0;
+        ReadingRepository repository = StorageEngines.shared().readings();
+        try (Stream<PollutantReading> stream = readings) {
+            List<PollutantReading> chunk = new ArrayList<>();
+            Iterator<PollutantReading> it = stream.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == chunkSize || !it.hasNext()) {
+                    written += repository.store(cell, chunk);
+                    chunks++;
+                    chunk = new ArrayList<>();
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw new SQLException("Bulk ingest stopped after " + written + " committed rows: " + e.getMessage(), e);
+        }
+        return new IngestReport(written, chunks, System.nanoTime() - start);
+    }
+
+    private static void refreshRollups(Map<Long, long[]> ranges) throws SQLException {
+        if (ranges.isEmpty()) return;
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            Rollups.refresh(conn, ranges);
+            conn.commit();
+        }
+    }
+
+    /**
+     * Import a daily CSV file into aq_data.
+     * Expected columns: city,date,pm25,pm10,aqi (ISO date, optional header line).
+     * Lines that do not parse are skipped.
+     */
+    public static IngestReport importDailyCsv(Path csv, int chunkSize) throws IOException, SQLException {
+        return ingestDaily(Files.lines(csv).map(BulkIngestor::parseDailyLine).filter(Objects::nonNull), chunkSize);
+    }
+
+    private static DailyReading parseDailyLine(String line) {
+        String[] f = line.split(",");
+        if (f.length < 5) return null;
+        try {
+            return new DailyReading(f[0].trim(), LocalDate.parse(f[1].trim()), Double.parseDouble(f[2].trim()),
+                    Double.parseDouble(f[3].trim()), (int) Math.round(Double.parseDouble(f[4].trim())));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null; // header or malformed line
+        }
+    }
+
+    /**
+     * One day of data for a city, as stored in aq_data
+     */
+    public static class DailyReading {
+        private final String city;
+        private final LocalDate date;
+        private final double pm25;
+        private final double pm10;
+        private final int aqi;
+
+        public DailyReading(String city, LocalDate date, double pm25, double pm10, int aqi) {
+            this.city = city;
+            this.date = date;
+            this.pm25 = pm25;
+            this.pm10 = pm10;
+            this.aqi = aqi;
+        }
+
+        public String getCity() { return city; }
+        public LocalDate getDate() { return date; }
+        public double getPm25() { return pm25; }
+        public double getPm10() { return pm10; }
+        public int getAqi() { return aqi; }
+    }
+
+    /**
+     * Outcome of a bulk load
+     */
+    public static class IngestReport {
+        private final long rows;
+        private final int chunks;
+        private final long elapsedNanos;
+
+        IngestReport(long rows, int chunks, long elapsedNanos) {
+            this.rows = rows;
+            this.chunks = chunks;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() { return rows; }
+        public int getChunks() { return chunks; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+        public double getRowsPerSecond() { return rows * 1e9 / Math.max(1, elapsedNanos); }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows in %d transaction(s), %d ms (%.0f rows/s)",
+                    rows, chunks, getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+
+    /**
+     * Import a daily CSV: BulkIngestor &lt;file.csv&gt; [chunkSize]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: BulkIngestor <file.csv> [chunkSize]");
+            return;
+        }
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : defaultChunkSize();
+        DBSetup.initialize();
+        IngestReport report = importDailyCsv(Path.of(args[0]), chunkSize);
+        System.out.println("✓ Imported " + args[0] + ": " + report);
+        DBConnector.getInstance().getPool().close();
+    }
+}
@@ -63,7 +63,8 @@ public class ConfigLoader {
     }
 
     /**
-     * Get any property value by key
+     * Get any property value by key.
+     * A JVM system property with the same name (-Dkey=value) takes precedence.
      * @param key Property key
      * @return Property value
      */
@@ -71,7 +72,7 @@ public class ConfigLoader {
         if (!loaded) {
             loadConfig();
         }
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
     }
 
     /**
@@ -84,7 +85,26 @@ public class ConfigLoader {
         if (!loaded) {
             loadConfig();
         }
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
     }
-}
 
+    /**
+     * Get an integer property with default value
+     * @param key Property key
+     * @param defaultValue Default value if key not found or not a number
+     * @return Property value or default
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.aerotutorial;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed-size pool of SQLite connections.
+ * Each physical connection is tuned once when it is opened (WAL journal,
+ * synchronous=NORMAL, busy timeout, mmap) and keeps a cache of prepared
+ * statements. Callers get a proxy whose close() hands the connection back
+ * instead of closing it; statements the caller forgot to close are closed
+ * then. Connections held longer than the leak threshold are reported along
+ * with the stack that borrowed them.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+    private final int busyTimeoutMillis;
+    private final long mmapBytes;
+
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<Lease> leased = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakChecker;
+    private int opened;
+    private boolean closed;
+
+    /**
+     * Pool configured from config.properties (db.pool.* keys)
+     * @param url JDBC URL of the database
+     */
+    public ConnectionPool(String url) {
+        this(url,
+                ConfigLoader.getInt("db.pool.size", 4),
+                ConfigLoader.getInt("db.pool.timeout.ms", 30000),
+                ConfigLoader.getInt("db.pool.leak.threshold.seconds", 60) * 1000L,
+                ConfigLoader.getInt("db.statement.cache.size", 32),
+                ConfigLoader.getInt("db.busy.timeout.ms", 5000),
+                ConfigLoader.getInt("db.mmap.size.mb", 256) * 1024L * 1024L);
+    }
+
+    /**
+     * @param url JDBC URL of the database
+     * @param maxSize Most connections open at once
+     * @param acquireTimeoutMillis How long getConnection() waits for a free connection
+     * @param leakThresholdMillis Report connections held longer than this (0 disables)
+     * @param statementCacheSize Prepared statements cached per connection (0 disables)
+     * @param busyTimeoutMillis How long SQLite waits on a locked database before failing
+     * @param mmapBytes Memory-mapped I/O size (0 disables)
+     */
+    public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize, int busyTimeoutMillis, long mmapBytes) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.mmapBytes = mmapBytes;
+
+        if (leakThresholdMillis > 0) {
+            leakChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-leak-checker");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000, leakThresholdMillis / 2);
+            leakChecker.scheduleAtFixedRate(this::reportLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            leakChecker = null;
+        }
+    }
+
+    /**
+     * Borrow a connection; close() returns it to the pool
+     * @throws SQLException if none becomes free within the acquire timeout
+     */
+    public Connection getConnection() throws SQLException {
+        PooledConnection pooled = acquire();
+        Lease lease = new Lease(pooled);
+        leased.add(lease);
+        return lease.proxy;
+    }
+
+    private PooledConnection acquire() throws SQLException {
+        PooledConnection pooled = takeIdleOrReserve();
+        if (pooled != null) {
+            return pooled;
+        }
+        // A slot is reserved; the connection is opened (file open, PRAGMAs) outside
+        // the lock so other threads can borrow and return connections meanwhile
+        PooledConnection fresh;
+        try {
+            fresh = open();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                opened--;
+                notifyAll();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (closed) {
+                fresh.closeQuietly();
+                opened--;
+                throw new SQLException("Connection pool is closed");
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Wait for an idle connection or a free slot
+     * @return An idle connection, or null if a slot was reserved (counted in
+     *         {@code opened}) for the caller to open
+     */
+    private synchronized PooledConnection takeIdleOrReserve() throws SQLException {
+        long deadline = System.currentTimeMillis() + acquireTimeoutMillis;
+        while (true) {
+            if (closed) {
+                throw new SQLException("Connection pool is closed");
+            }
+            PooledConnection pooled = idle.pollFirst();
+            if (pooled != null) {
+                if (!pooled.connection.isClosed()) {
+                    return pooled;
+                }
+                opened--; // closed underneath us; open a replacement
+            }
+            if (opened < maxSize) {
+                opened++;
+                return null;
+            }
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection (" + leased.size() + " in use)");
+            }
+            try {
+                wait(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a database connection", e);
+            }
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            // Only takes effect on a new database (see RetentionJob.convertToIncrementalVacuum)
+            stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+            stmt.execute("PRAGMA journal_mode=WAL");
+            stmt.execute("PRAGMA synchronous=NORMAL");
+            stmt.execute("PRAGMA busy_timeout=" + busyTimeoutMillis);
+            stmt.execute("PRAGMA mmap_size=" + mmapBytes);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new PooledConnection(connection);
+    }
+
+    private void release(Lease lease) {
+        leased.remove(lease);
+        PooledConnection pooled = lease.pooled;
+        boolean reusable;
+        try {
+            lease.closeStatements();
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            reusable = !pooled.connection.isClosed();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Discarding database connection: " + e.getMessage());
+            reusable = false;
+        }
+
+        synchronized (this) {
+            if (reusable && !closed) {
+                idle.addFirst(pooled);
+            } else {
+                pooled.closeQuietly();
+                opened--;
+            }
+            notifyAll();
+        }
+    }
+
+    private void reportLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leased) {
+            if (!lease.reported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.reported = true;
+                System.err.println("⚠️ Database connection held for " + (now - lease.borrowedAt) / 1000
+                        + " s, possible leak. Borrowed at:");
+                lease.borrowedBy.printStackTrace();
+            }
+        }
+    }
+
+    /** Connections currently borrowed */
+    public int getActiveCount() { return leased.size(); }
+
+    /** Connections open and waiting to be borrowed */
+    public synchronized int getIdleCount() { return idle.size(); }
+
+    /**
+     * Close idle connections and stop handing out new ones. Borrowed
+     * connections are closed as they come back.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (PooledConnection pooled : idle) {
+            pooled.closeQuietly();
+            opened--;
+        }
+        idle.clear();
+        if (leakChecker != null) {
+            leakChecker.shutdownNow();
+        }
+        notifyAll();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A physical connection and its prepared-statement cache. Only used by
+     * one lease at a time.
+     */
+    private final class PooledConnection {
+        final Connection connection;
+        // Access-ordered so the least recently used statement is evicted first
+        final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) return false;
+                if (!eldest.getValue().inUse) {
+                    closeStatementQuietly(eldest.getValue().statement);
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        void closeQuietly() {
+            for (CachedStatement cached : statements.values()) {
+                closeStatementQuietly(cached.statement);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private static void closeStatementQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static final class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+        ResultSet openResult;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * One borrow of a pooled connection, seen by the caller as a Connection proxy
+     */
+    private final class Lease implements InvocationHandler {
+        final PooledConnection pooled;
+        final Connection proxy;
+        final long borrowedAt = System.currentTimeMillis();
+        final Throwable borrowedBy;
+        // Statements created through this lease that are not in the cache
+        final List<Statement> uncached = new ArrayList<>();
+        final List<CachedStatement> borrowedStatements = new ArrayList<>();
+        volatile boolean reported;
+        private volatile boolean released;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.borrowedBy = leakThresholdMillis > 0 ? new Throwable("Connection borrowed") : null;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (released) return null;
+                        released = true;
+                    }
+                    release(this);
+                    return null;
+                case "isClosed":
+                    return released;
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return "Pooled" + pooled.connection;
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection is closed");
+            }
+            if (name.equals("prepareStatement") && args.length == 1 && statementCacheSize > 0) {
+                return prepareCached((String) args[0]);
+            }
+            Object result = ConnectionPool.invoke(pooled.connection, method, args);
+            if (result instanceof Statement statement) {
+                synchronized (this) {
+                    uncached.add(statement);
+                }
+            }
+            return result;
+        }
+
+        private synchronized PreparedStatement prepareCached(String sql) throws SQLException {
+            CachedStatement cached = pooled.statements.get(sql);
+            if (cached == null || cached.inUse) {
+                PreparedStatement fresh = pooled.connection.prepareStatement(sql);
+                if (cached != null) {
+                    // Same SQL already open on this connection; don't cache the second copy
+                    uncached.add(fresh);
+                    return fresh;
+                }
+                cached = new CachedStatement(fresh);
+                pooled.statements.put(sql, cached);
+            }
+            cached.inUse = true;
+            borrowedStatements.add(cached);
+            return statementProxy(cached);
+        }
+
+        private PreparedStatement statementProxy(CachedStatement cached) {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean closed;
+
+                @Override
+                public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!closed) {
+                                closed = true;
+                                returnStatement(cached);
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed || released;
+                        case "getConnection":
+                            return proxy;
+                        case "equals":
+                            return self == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        default:
+                            break;
+                    }
+                    if (closed || released) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    Object result = ConnectionPool.invoke(cached.statement, method, args);
+                    if (result instanceof ResultSet rs) {
+                        cached.openResult = rs;
+                    }
+                    return result;
+                }
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+
+        private synchronized void returnStatement(CachedStatement cached) {
+            if (!cached.inUse) return;
+            cached.inUse = false;
+            borrowedStatements.remove(cached);
+            try {
+                // An open result set keeps a read lock on the database
+                if (cached.openResult != null) {
+                    cached.openResult.close();
+                    cached.openResult = null;
+                }
+                cached.statement.clearParameters();
+                cached.statement.clearBatch();
+            } catch (SQLException e) {
+                pooled.statements.values().remove(cached);
+                closeStatementQuietly(cached.statement);
+            }
+        }
+
+        synchronized void closeStatements() {
+            for (Statement statement : uncached) {
+                closeStatementQuietly(statement);
+            }
+            uncached.clear();
+            for (CachedStatement cached : new ArrayList<>(borrowedStatements)) {
+                returnStatement(cached);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.aerotutorial;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable latitude/longitude pair used by batch and cache APIs.
+ */
+public final class Coordinate {
+    static final int CELLS_PER_DEGREE = 100; // 0.01° grid
+
+    private final double lat;
+    private final double lon;
+
+    public Coordinate(double lat, double lon) {
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    public double getLat() { return lat; }
+    public double getLon() { return lon; }
+
+    /**
+     * Key of the 0.01° grid cell containing a coordinate, e.g. "23.81,90.41".
+     * Used to group stored readings by location.
+     */
+    public static String cellKey(double lat, double lon) {
+        return hundredths(cellIndex(lat)) + "," + hundredths(cellIndex(lon));
+    }
+
+    /**
+     * The cell of {@link #cellKey(double, double)} packed into a long, for
+     * in-memory maps on hot paths
+     */
+    static long packedCellKey(double lat, double lon) {
+        return ((long) cellIndex(lat) << 32) | (cellIndex(lon) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Grid row or column containing a latitude or longitude, in hundredths of a degree
+     */
+    static int cellIndex(double degrees) {
+        return (int) Math.round(degrees * CELLS_PER_DEGREE);
+    }
+
+    // "d.dd" from hundredths of a degree; zero is never printed as "-0.00"
+    private static String hundredths(int q) {
+        int abs = Math.abs(q);
+        return String.format(Locale.ROOT, "%s%d.%02d", q < 0 ? "-" : "", abs / CELLS_PER_DEGREE, abs % CELLS_PER_DEGREE);
+    }
+
+    public String cellKey() {
+        return cellKey(lat, lon);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Coordinate other)) return false;
+        return Double.compare(lat, other.lat) == 0 && Double.compare(lon, other.lon) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lat, lon);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4f,%.4f", lat, lon);
+    }
+}
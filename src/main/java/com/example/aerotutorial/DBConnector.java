@@ -1,33 +1,42 @@
 package com.example.aerotutorial;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBConnector {
-    private static DBConnector instance;
-    private Connection connection;
-    private final String url = "jdbc:sqlite:aerosafe.db";
+    private static volatile DBConnector instance;
+    private final ConnectionPool pool;
+    private final String path = ConfigLoader.getProperty("db.path", "aerosafe.db");
 
     private DBConnector() {
-        try {
-            connection = DriverManager.getConnection(url);
-            System.out.println("SQLite connected.");
-            System.out.println("SQLite DB at: " + new java.io.File("aerosafe.db").getAbsolutePath());
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        pool = new ConnectionPool("jdbc:sqlite:" + path);
+        System.out.println("SQLite connected.");
+        System.out.println("SQLite DB at: " + new java.io.File(path).getAbsolutePath());
     }
 
     public static DBConnector getInstance() {
-        if (instance == null) {
-            instance = new DBConnector();
+        DBConnector connector = instance;
+        if (connector == null) {
+            synchronized (DBConnector.class) {
+                connector = instance;
+                if (connector == null) {
+                    connector = new DBConnector();
+                    instance = connector;
+                }
+            }
         }
-        return instance;
+        return connector;
     }
 
+    /**
+     * Borrow a pooled connection. Always close it (try-with-resources) so it
+     * goes back to the pool.
+     */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url);
+        return pool.getConnection();
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
     }
 }
@@ -0,0 +1,71 @@
+package com.example.aerotutorial;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Folds hourly readings into per-day AQI averages as they arrive.
+ * Sums and counts live in primitive arrays indexed by day offset, so no
+ * per-reading boxing or lists are kept.
+ */
+public class DailyAqiAccumulator implements Consumer<PollutantReading> {
+    private final ZoneId zone;
+    private final long firstEpochDay;
+    private final long[] sums;
+    private final int[] counts;
+
+    /**
+     * @param startEpochSecond Start of the requested range
+     * @param endEpochSecond End of the requested range
+     * @param zone Time zone used to decide which day a reading belongs to
+     */
+    public DailyAqiAccumulator(long startEpochSecond, long endEpochSecond, ZoneId zone) {
+        this.zone = zone;
+        // One day of slack on each side for readings at the edges of the window
+        this.firstEpochDay = epochDay(startEpochSecond) - 1;
+        int days = (int) (epochDay(endEpochSecond) - firstEpochDay) + 2;
+        this.sums = new long[days];
+        this.counts = new int[days];
+    }
+
+    @Override
+    public void accept(PollutantReading reading) {
+        add(reading.getTimestamp(), reading.getAqi());
+    }
+
+    /**
+     * Add one hourly AQI value
+     * @param epochSecond Time of the reading
+     * @param aqi AQI of the reading
+     */
+    public void add(long epochSecond, int aqi) {
+        int index = (int) (epochDay(epochSecond) - firstEpochDay);
+        if (index < 0 || index >= sums.length) {
+            return;
+        }
+        sums[index] += aqi;
+        counts[index]++;
+    }
+
+    /**
+     * @return Average AQI per day that had readings, ordered from oldest to newest
+     */
+    public Map<LocalDate, Integer> toDailyAverages() {
+        Map<LocalDate, Integer> history = new LinkedHashMap<>();
+        for (int i = 0; i < sums.length; i++) {
+            if (counts[i] > 0) {
+                history.put(LocalDate.ofEpochDay(firstEpochDay + i), (int) ((double) sums[i] / counts[i]));
+            }
+        }
+        return history;
+    }
+
+    private long epochDay(long epochSecond) {
+        int offset = zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        return Math.floorDiv(epochSecond + offset, 86_400L);
+    }
+}
@@ -18,9 +18,9 @@ import javafx.stage.Stage;
 import netscape.javascript.JSObject;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -38,14 +38,21 @@ public class DashboardController {
     @FXML
     private LineChart<String, Number> historyChart;
 
+    @FXML
+    private LineChart<String, Number> forecastChart;
+
+    @FXML
+    private Label forecastSourceLabel;
+
     @FXML
     private TextField searchField;
 
     @FXML
     private VBox searchHistoryBox;
 
-    // In-memory storage for last 7 days AQI per city
-    private final Map<String, List<Integer>> cityAqiHistory = new HashMap<>();
+    // In-memory storage for last 7 days AQI per city, with running regression sums
+    private static final int HISTORY_DAYS = 7;
+    private final Map<String, PredictionEngine.SlidingWindow> cityAqiHistory = new HashMap<>();
 
     // Track nodes with tooltips installed
     private final Set<javafx.scene.Node> nodesWithTooltips = new HashSet<>();
@@ -54,6 +61,8 @@ public class DashboardController {
     private final List<SearchHistoryItem> searchHistory = new ArrayList<>();
     private static final int MAX_HISTORY_SIZE = 5;
     private static final String SEARCH_HISTORY_FILE = "search_history.dat";
+    // Alert emoji by category band, best first
+    private static final String[] ALERT_EMOJI = {"👍", "🙂", "⚠️", "😷", "🤢", "☠️"};
 
     private String selectedCity = null;
     private double selectedLat, selectedLon;
@@ -119,19 +128,15 @@ public class DashboardController {
             locationLabel.setText("Loading location...");
             locationLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #ecf0f1;");
 
-            // Fetch location name in background thread
-            new Thread(() -> {
-                String locationName = getLocationName(lat, lon);
-                Platform.runLater(() -> {
-                    locationLabel.setText(locationName);
-                    locationLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #ecf0f1;");
-                });
-            }).start();
+            // Fetch location name asynchronously over the shared HTTP client
+            getLocationNameAsync(lat, lon).thenAccept(locationName -> Platform.runLater(() -> {
+                locationLabel.setText(locationName);
+                locationLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #ecf0f1;");
+            }));
 
             // Initialize history for this location if not exists
             if (!cityAqiHistory.containsKey(selectedCity)) {
-                List<Integer> newHistory = new ArrayList<>();
-                cityAqiHistory.put(selectedCity, newHistory);
+                cityAqiHistory.put(selectedCity, new PredictionEngine.SlidingWindow(HISTORY_DAYS));
                 System.out.println("Created new history for location: " + selectedCity);
             } else {
                 System.out.println("Existing history size: " + cityAqiHistory.get(selectedCity).size());
@@ -142,33 +147,16 @@ public class DashboardController {
     }
 
     /** Get location name using reverse geocoding (Nominatim API) */
-    private String getLocationName(double lat, double lon) {
-        try {
-            String urlString = String.format(
-                "https://nominatim.openstreetmap.org/reverse?format=json&lat=%.6f&lon=%.6f&zoom=10",
-                lat, lon
-            );
-            java.net.URL url = new java.net.URL(urlString);
-            java.net.HttpURLConnection conn = (java.net.HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", "AeroSafe/1.0");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-
-            if (conn.getResponseCode() == 200) {
-                java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(conn.getInputStream())
-                );
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                reader.close();
-
-                // Parse JSON response to get display name
-                String jsonResponse = response.toString();
+    private java.util.concurrent.CompletableFuture<String> getLocationNameAsync(double lat, double lon) {
+        String urlString = String.format(
+            "https://nominatim.openstreetmap.org/reverse?format=json&lat=%.6f&lon=%.6f&zoom=10",
+            lat, lon
+        );
+        // Fallback to coordinates if geocoding fails
+        String fallback = String.format("Lat: %.4f, Lon: %.4f", lat, lon);
 
+        return HttpService.getAsync(urlString, HttpService.USER_AGENT, java.time.Duration.ofSeconds(5))
+            .thenApply(jsonResponse -> {
                 // Extract display_name from JSON (simple parsing)
                 int displayNameStart = jsonResponse.indexOf("\"display_name\":\"") + 16;
                 if (displayNameStart > 15) {
@@ -182,13 +170,12 @@ public class DashboardController {
                     }
                     return displayName;
                 }
-            }
-        } catch (Exception e) {
-            System.out.println("Error fetching location name: " + e.getMessage());
-        }
-
-        // Fallback to coordinates if geocoding fails
-        return String.format("Lat: %.4f, Lon: %.4f", lat, lon);
+                return fallback;
+            })
+            .exceptionally(e -> {
+                System.out.println("Error fetching location name: " + HttpService.rootCause(e).getMessage());
+                return fallback;
+            });
     }
 
     /** Fetch current AQI and update dashboard */
@@ -204,10 +191,9 @@ public class DashboardController {
         currentAqiLabel.setText("Fetching AQI...");
         currentAqiLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: gray;");
 
-        // Fetch real AQI from API in background thread
-        new Thread(() -> {
-            int currentAqi = AQIFetcher.fetchAQI(selectedLat, selectedLon);
-
+        // Fetch real AQI from API without holding a thread while the request is in flight
+        AQIFetcher.fetchAQIAsync(selectedLat, selectedLon).exceptionally(e -> -1).thenAccept(fetchedAqi -> {
+            int currentAqi = fetchedAqi;
             Platform.runLater(() -> {
                 if (currentAqi <= 0) {
                     System.out.println("❌ Failed to fetch AQI - API returned: " + currentAqi);
@@ -230,14 +216,11 @@ public class DashboardController {
                 aqiAlertLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: " + getAqiColor(currentAqi) + ";");
 
                 // Update 7-day history
-                List<Integer> history = cityAqiHistory.get(selectedCity);
+                PredictionEngine.SlidingWindow history = cityAqiHistory.get(selectedCity);
 
                 // Check if this AQI is already in history (avoid duplicates on same click)
-                if (history.isEmpty() || history.get(history.size() - 1) != currentAqi) {
-                    if (history.size() >= 7) {
-                        int removed = history.remove(0); // remove oldest
-                        System.out.println("Removed oldest AQI value: " + removed);
-                    }
+                if (history.isEmpty() || history.last() != currentAqi) {
+                    // A full window drops its oldest value
                     history.add(currentAqi);
                     System.out.println("Added AQI to history: " + currentAqi);
                 }
@@ -247,32 +230,75 @@ public class DashboardController {
                 // Update chart with history
                 updateHistoryChart(history);
 
-                // Generate predicted AQI using PredictionEngine
-                if (history.size() >= 2) {
-                    System.out.println("Generating prediction with " + history.size() + " data points");
-                    PredictionEngine.PredictionResult result = PredictionEngine.predictNextDay(history);
-                    int predictedAqi = (int) Math.round(result.predicted);
+                // Provider forecast when available, local trend otherwise
+                updatePrediction(history);
+            });
+        });
+    }
 
-                    System.out.println("Prediction result: " + predictedAqi + " (slope=" + result.slope + ", intercept=" + result.intercept + ")");
+    /**
+     * Show tomorrow's AQI from the provider forecast, falling back to a linear
+     * trend over the local history if no forecast is available.
+     * Must be called on the FX thread.
+     */
+    private void updatePrediction(PredictionEngine.SlidingWindow history) {
+        // O(1) from the window's running sums; taken now so later clicks don't change it
+        PredictionEngine.PredictionResult localTrend = history.predict();
+        int points = history.size();
+        String city = selectedCity;
+
+        ForecastService.forecastAsync(selectedLat, selectedLon).whenComplete((forecast, ex) -> Platform.runLater(() -> {
+            if (!Objects.equals(city, selectedCity)) {
+                return; // user moved on to another location
+            }
+            if (ex == null) {
+                showPrediction(forecast, "Forecast (Tomorrow)");
+                updateForecastChart(forecast);
+                return;
+            }
 
-                    // Display predicted AQI with styling
-                    predictedAqiLabel.setText("Predicted AQI (Tomorrow): " + predictedAqi);
-                    predictedAqiLabel.setStyle("-fx-font-size: 22px; -fx-font-weight: bold; -fx-text-fill: " + getAqiColor(predictedAqi) + ";");
+            System.out.println("Forecast unavailable, using local trend: " + HttpService.rootCause(ex).getMessage());
+            forecastChart.getData().clear();
+            forecastSourceLabel.setText("Forecast unavailable - showing local trend estimate");
+            if (points >= 2) {
+                System.out.println("Prediction result: " + localTrend.predicted + " (slope=" + localTrend.slope + ", intercept=" + localTrend.intercept + ")");
+                showPrediction(localTrend, "Predicted AQI (Tomorrow)");
+            } else {
+                System.out.println("Not enough data for prediction. Current size: " + points);
+                predictedAqiLabel.setText("Predicted AQI: N/A (Need " + (2 - points) + " more data point" + (2 - points > 1 ? "s" : "") + ")");
+                predictedAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
+            }
+        }));
+    }
 
-                    // Show trend
-                    String trend = getTrend(result.slope);
-                    predictedAqiLabel.setText(predictedAqiLabel.getText() + " " + trend);
-                } else {
-                    System.out.println("Not enough data for prediction. Current size: " + history.size());
-                    predictedAqiLabel.setText("Predicted AQI: N/A (Need " + (2 - history.size()) + " more data point" + (2 - history.size() > 1 ? "s" : "") + ")");
-                    predictedAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
-                }
-            });
-        }).start();
+    private void showPrediction(PredictionEngine.PredictionResult result, String title) {
+        int predictedAqi = (int) Math.round(result.predicted);
+        predictedAqiLabel.setText(title + ": " + predictedAqi + " " + getTrend(result.slope));
+        predictedAqiLabel.setStyle("-fx-font-size: 22px; -fx-font-weight: bold; -fx-text-fill: " + getAqiColor(predictedAqi) + ";");
+        System.out.println("✅ Prediction for tomorrow: " + predictedAqi + " (" + result.source + ")");
+    }
+
+    /** Plot the hourly forecast */
+    private void updateForecastChart(PredictionEngine.PredictionResult forecast) {
+        forecastChart.getData().clear();
+
+        DateTimeFormatter hourFormat = DateTimeFormatter.ofPattern("EEE HH:mm");
+        ZoneId zone = ZoneId.systemDefault();
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        for (int i = 0; i < forecast.hourlyAqi.length; i++) {
+            String hour = Instant.ofEpochSecond(forecast.hourlyTimestamps[i]).atZone(zone).format(hourFormat);
+            series.getData().add(new XYChart.Data<>(hour, forecast.hourlyAqi[i]));
+        }
+        forecastChart.getData().add(series);
+
+        int peak = Arrays.stream(forecast.hourlyAqi).max().orElse(0);
+        forecastSourceLabel.setText(forecast.hourlyAqi.length + " hours from " + forecast.source
+                + " - peak AQI " + peak + " (" + getAqiAlert(peak) + ")"
+                + (forecast.dominant != null ? ", driven by " + forecast.dominant.getDisplayName() : ""));
     }
 
     /** Update chart with history */
-    private void updateHistoryChart(List<Integer> history) {
+    private void updateHistoryChart(PredictionEngine.SlidingWindow history) {
         historyChart.getData().clear();
         nodesWithTooltips.clear(); // Clear tracking set
 
@@ -437,10 +463,11 @@ public class DashboardController {
         predictedAqiLabel.setText("Loading...");
         predictedAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
 
-        new Thread(() -> {
-            // Fetch real 7-day historical data from API
-            Map<LocalDate, Integer> historicalData = AQIFetcher.fetchHistoricalAQI(selectedLat, selectedLon, 7);
-
+        // Load 7-day history from the local store, fetching only ranges not stored yet
+        HistoryBackfillService.loadDailyHistoryAsync(selectedLat, selectedLon, 7).exceptionally(e -> {
+            System.out.println("Error fetching historical AQI: " + HttpService.rootCause(e).getMessage());
+            return new LinkedHashMap<>();
+        }).thenAccept(historicalData -> {
             Platform.runLater(() -> {
                 if (historicalData.isEmpty()) {
                     System.out.println("❌ Failed to fetch historical data");
@@ -451,14 +478,17 @@ public class DashboardController {
                 }
 
                 // Convert map values to list (already sorted by date)
-                List<Integer> history = new ArrayList<>(historicalData.values());
+                PredictionEngine.SlidingWindow history = new PredictionEngine.SlidingWindow(HISTORY_DAYS);
+                for (int dailyAqi : historicalData.values()) {
+                    history.add(dailyAqi);
+                }
                 cityAqiHistory.put(selectedCity, history);
 
                 System.out.println("✅ Successfully loaded " + history.size() + " days of REAL historical data");
                 System.out.println("Historical AQI values: " + history);
 
                 // Display current (most recent) AQI
-                int currentAqi = history.get(history.size() - 1);
+                int currentAqi = history.last();
                 currentAqiLabel.setText("Current AQI: " + currentAqi + " (Real Data)");
                 currentAqiLabel.setStyle("-fx-font-size: 26px; -fx-font-weight: bold; -fx-text-fill: " + getAqiColor(currentAqi) + ";");
                 aqiAlertLabel.setText(getAqiAlert(currentAqi));
@@ -467,24 +497,10 @@ public class DashboardController {
                 // Update chart with real historical dates
                 updateHistoryChart(history);
 
-                // Generate prediction based on real historical trend
-                if (history.size() >= 2) {
-                    PredictionEngine.PredictionResult result = PredictionEngine.predictNextDay(history);
-                    int predictedAqi = (int) Math.round(result.predicted);
-
-                    predictedAqiLabel.setText("Predicted AQI (Tomorrow): " + predictedAqi);
-                    predictedAqiLabel.setStyle("-fx-font-size: 22px; -fx-font-weight: bold; -fx-text-fill: " + getAqiColor(predictedAqi) + ";");
-
-                    String trend = getTrend(result.slope);
-                    predictedAqiLabel.setText(predictedAqiLabel.getText() + " " + trend);
-
-                    System.out.println("✅ Prediction for tomorrow: " + predictedAqi + " " + trend);
-                } else {
-                    predictedAqiLabel.setText("Need more historical data for prediction");
-                    predictedAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
-                }
+                // Provider forecast when available, local trend otherwise
+                updatePrediction(history);
             });
-        }).start();
+        });
     }
 
     /** Logout and switch to login scene */
@@ -517,80 +533,67 @@ public class DashboardController {
         currentAqiLabel.setText("Searching for location...");
         currentAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #3498db;");
 
-        new Thread(() -> {
-            try {
-                // Use Nominatim OpenStreetMap geocoding API
-                String encodedQuery = java.net.URLEncoder.encode(query, "UTF-8");
-                String urlStr = "https://nominatim.openstreetmap.org/search?q=" + encodedQuery + "&format=json&limit=1";
-
-                URL url = new URL(urlStr);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("User-Agent", "AeroSafe Desktop App");
-
-                if (conn.getResponseCode() == 200) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-
-                    JSONArray results = new JSONArray(response.toString());
-
-                    if (results.length() > 0) {
-                        JSONObject location = results.getJSONObject(0);
-                        double lat = location.getDouble("lat");
-                        double lon = location.getDouble("lon");
-                        String displayName = location.getString("display_name");
-
-                        System.out.println("✅ Found location: " + displayName + " (" + lat + ", " + lon + ")");
-
-                        // Add to search history
-                        addToSearchHistory(query, lat, lon, displayName);
-
-                        Platform.runLater(() -> {
-                            // Update map and fetch AQI
-                            selectedCity = query;
-                            selectedLat = lat;
-                            selectedLon = lon;
-                            locationLabel.setText("📍 Location: " + displayName);
-
-                            // Center map on location
-                            WebEngine engine = mapView.getEngine();
-                            engine.executeScript("map.setView([" + lat + ", " + lon + "], 13);");
-
-                            // Fetch AQI for this location
-                            refreshCurrentLocation();
-
-                            // Update search history display
-                            updateSearchHistoryDisplay();
-
-                            // Clear search field
-                            searchField.clear();
-                        });
-                    } else {
-                        Platform.runLater(() -> {
-                            currentAqiLabel.setText("Location not found. Try a different search.");
-                            currentAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: red;");
-                        });
-                    }
-                } else {
-                    System.err.println("❌ Geocoding API error: " + conn.getResponseCode());
-                    Platform.runLater(() -> {
-                        currentAqiLabel.setText("Search failed. Please try again.");
-                        currentAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: red;");
-                    });
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+        // Use Nominatim OpenStreetMap geocoding API
+        String encodedQuery = java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
+        String urlStr = "https://nominatim.openstreetmap.org/search?q=" + encodedQuery + "&format=json&limit=1";
+
+        HttpService.getAsync(urlStr).thenAccept(response -> {
+            JSONArray results = new JSONArray(response);
+
+            if (results.length() > 0) {
+                JSONObject location = results.getJSONObject(0);
+                double lat = location.getDouble("lat");
+                double lon = location.getDouble("lon");
+                String displayName = location.getString("display_name");
+
+                System.out.println("✅ Found location: " + displayName + " (" + lat + ", " + lon + ")");
+
+                // Add to search history
+                addToSearchHistory(query, lat, lon, displayName);
+
+                Platform.runLater(() -> {
+                    // Update map and fetch AQI
+                    selectedCity = query;
+                    selectedLat = lat;
+                    selectedLon = lon;
+                    locationLabel.setText("📍 Location: " + displayName);
+
+                    // Center map on location
+                    WebEngine engine = mapView.getEngine();
+                    engine.executeScript("map.setView([" + lat + ", " + lon + "], 13);");
+
+                    // Fetch AQI for this location
+                    refreshCurrentLocation();
+
+                    // Update search history display
+                    updateSearchHistoryDisplay();
+
+                    // Clear search field
+                    searchField.clear();
+                });
+            } else {
+                Platform.runLater(() -> {
+                    currentAqiLabel.setText("Location not found. Try a different search.");
+                    currentAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: red;");
+                });
+            }
+        }).exceptionally(e -> {
+            Throwable cause = HttpService.rootCause(e);
+            if (cause instanceof HttpService.HttpStatusException statusEx) {
+                System.err.println("❌ Geocoding API error: " + statusEx.getStatusCode());
+                Platform.runLater(() -> {
+                    currentAqiLabel.setText("Search failed. Please try again.");
+                    currentAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: red;");
+                });
+            } else {
+                cause.printStackTrace();
                 Platform.runLater(() -> {
                     currentAqiLabel.setText("Error searching location");
                     currentAqiLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: red;");
                 });
             }
-        }).start();
+            return null;
+        });
     }
 
     /** Add location to search history */
@@ -710,24 +713,20 @@ public class DashboardController {
         }
     }
 
-    /** Get AQI color based on value */
+    /** Get AQI color based on value, under the configured standard */
     private String getAqiColor(int aqi) {
-        if (aqi <= 50) return "#00E400";      // Good - Green
-        if (aqi <= 100) return "#FFAA00";     // Moderate - Yellow
-        if (aqi <= 150) return "#FF7E00";     // Unhealthy for Sensitive - Orange
-        if (aqi <= 200) return "#FF0000";     // Unhealthy - Red
-        if (aqi <= 300) return "#8F3F97";     // Very Unhealthy - Purple
-        return "#7E0023";                      // Hazardous - Maroon
+        AqiStandard standard = AqiStandard.configured();
+        return standard.categoryColor(standard.category(aqi));
     }
 
-    /** Return AQI alert text */
+    /** Return AQI alert text, under the configured standard */
     private String getAqiAlert(int aqi) {
-        if (aqi <= 50) return "Good 👍";
-        if (aqi <= 100) return "Moderate 🙂";
-        if (aqi <= 150) return "Unhealthy for Sensitive Groups ⚠️";
-        if (aqi <= 200) return "Unhealthy 😷";
-        if (aqi <= 300) return "Very Unhealthy 🤢";
-        return "Hazardous ☠️";
+        AqiStandard standard = AqiStandard.configured();
+        int category = standard.category(aqi);
+        // The worst band always gets the strongest warning, however many bands the standard has
+        int worst = standard.getCategoryBounds().length;
+        String emoji = category == worst ? ALERT_EMOJI[ALERT_EMOJI.length - 1] : ALERT_EMOJI[category];
+        return standard.categoryLabel(category) + " " + emoji;
     }
 
     /** Get trend arrow based on slope */
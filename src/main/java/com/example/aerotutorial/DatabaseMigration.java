@@ -1,54 +1,80 @@
 package com.example.aerotutorial;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
- * Database migration utility to fix table schemas
- * Run this once to update the database structure
+ * Database migration utility to fix table schemas.
+ * Migrations normally run at startup through {@link SchemaMigrator}; the
+ * main method runs them without starting the app.
  */
 public class DatabaseMigration {
 
+    /**
+     * Apply any pending schema migrations
+     */
     public static void migrateDatabase() {
         System.out.println("🔄 Starting database migration...");
+        try {
+            DBSetup.initialize();
+            System.out.println("✅ Database migration completed successfully!");
+        } catch (SQLException e) {
+            System.err.println("❌ Error during database migration:");
+            e.printStackTrace();
+        }
+    }
 
-        try (Connection conn = DBConnector.getInstance().getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            // Drop old tables with incorrect schema
-            System.out.println("  → Dropping old researchers table...");
-            stmt.executeUpdate("DROP TABLE IF EXISTS researchers");
+    /**
+     * Move a researchers/admin table created with the old layout (name and
+     * email columns instead of username) to the current one. The old table
+     * is kept as &lt;table&gt;_legacy and its rows are copied across, with the
+     * name (or email) used as the username when there is none.
+     * Does nothing if the table is missing or already has a username column.
+     */
+    static void rebuildLegacyUserTable(Connection conn, String table) throws SQLException {
+        Set<String> columns = columns(conn, table);
+        if (columns.isEmpty() || columns.contains("username")) {
+            return;
+        }
+        System.out.println("  → Old '" + table + "' table schema detected, keeping it as " + table + "_legacy");
 
-            System.out.println("  → Dropping old admin table...");
-            stmt.executeUpdate("DROP TABLE IF EXISTS admin");
+        String username = columns.contains("name") ? (columns.contains("email") ? "COALESCE(name, email)" : "name")
+                : columns.contains("email") ? "email" : "'user' || id";
+        String password = columns.contains("password") ? "COALESCE(password, '')" : "''";
+        String location = columns.contains("location") ? "location" : "NULL";
 
-            // Recreate tables with correct schema
-            System.out.println("  → Creating researchers table with correct schema...");
-            stmt.executeUpdate("CREATE TABLE researchers(" +
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " RENAME TO " + table + "_legacy");
+            stmt.executeUpdate("CREATE TABLE " + table + "(" +
                     "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
                     "username TEXT UNIQUE NOT NULL, " +
                     "password TEXT NOT NULL, " +
                     "location TEXT)");
+            // Duplicate usernames keep the first row; the rest stay in the legacy table
+            int copied = stmt.executeUpdate("INSERT OR IGNORE INTO " + table + "(username, password, location) " +
+                    "SELECT " + username + ", " + password + ", " + location + " FROM " + table + "_legacy " +
+                    "WHERE " + username + " IS NOT NULL ORDER BY id");
+            System.out.println("  ✓ Copied " + copied + " rows into the new " + table + " table");
+        }
+    }
 
-            System.out.println("  → Creating admin table with correct schema...");
-            stmt.executeUpdate("CREATE TABLE admin(" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                    "username TEXT UNIQUE NOT NULL, " +
-                    "password TEXT NOT NULL, " +
-                    "location TEXT)");
-
-            System.out.println("✅ Database migration completed successfully!");
-            System.out.println("  ✓ researchers table: username, password, location");
-            System.out.println("  ✓ admin table: username, password, location");
-
-        } catch (Exception e) {
-            System.err.println("❌ Error during database migration:");
-            e.printStackTrace();
+    private static Set<String> columns(Connection conn, String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name").toLowerCase());
+            }
         }
+        return columns;
     }
 
     /**
-     * Run this main method ONCE to migrate the database
+     * Run this main method to migrate the database without starting the app
      */
     public static void main(String[] args) {
         System.out.println("========================================");
@@ -60,4 +86,3 @@ public class DatabaseMigration {
         System.out.println("========================================");
     }
 }
-
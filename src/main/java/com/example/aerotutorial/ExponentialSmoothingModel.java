@@ -0,0 +1,102 @@
+package com.example.aerotutorial;
+
+/**
+ * Simple (level only) or double (Holt, level + trend) exponential smoothing.
+ * Smoothing weights are picked from a small grid by one-step in-sample error,
+ * which keeps fitting to a few passes over the series.
+ */
+public class ExponentialSmoothingModel implements ForecastModel {
+    private static final double[] ALPHAS = {0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+    private static final double[] BETAS = {0.01, 0.05, 0.1, 0.2};
+
+    private final boolean trend;
+
+    /**
+     * @param trend false for simple exponential smoothing, true for Holt's linear method
+     */
+    public ExponentialSmoothingModel(boolean trend) {
+        this.trend = trend;
+    }
+
+    @Override
+    public String name() {
+        return trend ? "holt" : "ses";
+    }
+
+    @Override
+    public int minPoints() {
+        return trend ? 4 : 3;
+    }
+
+    @Override
+    public PredictionEngine.PredictionResult forecast(double[] series, int from, int length, int horizon) {
+        ForecastMath.checkArgs(series, from, length, horizon);
+        if (length < minPoints()) return PredictionEngine.PredictionResult.invalid("Not enough data");
+
+        double bestSse = Double.POSITIVE_INFINITY, bestAlpha = 0, bestBeta = 0;
+        for (double alpha : ALPHAS) {
+            if (trend) {
+                for (double beta : BETAS) {
+                    double sse = run(series, from, length, alpha, beta, null);
+                    if (sse < bestSse) {
+                        bestSse = sse;
+                        bestAlpha = alpha;
+                        bestBeta = beta;
+                    }
+                }
+            } else {
+                double sse = run(series, from, length, alpha, 0, null);
+                if (sse < bestSse) {
+                    bestSse = sse;
+                    bestAlpha = alpha;
+                }
+            }
+        }
+
+        double[] state = new double[2];
+        run(series, from, length, bestAlpha, bestBeta, state);
+        double level = state[0], slope = state[1];
+        int fitted = length - (trend ? 2 : 1);
+        double sigma2 = bestSse / Math.max(1, fitted);
+
+        double[] means = new double[horizon];
+        double[] weights = new double[horizon - 1];
+        for (int h = 1; h <= horizon; h++) {
+            means[h - 1] = level + h * slope;
+            if (h < horizon) {
+                // c_j = α(1 + jβ) for Holt, α for simple smoothing
+                weights[h - 1] = bestAlpha * (1 + h * bestBeta);
+            }
+        }
+        return ForecastMath.result(name(), level, slope, means, sigma2, weights);
+    }
+
+    /**
+     * One pass in error-correction form
+     * @param state If not null, receives the final level and trend
+     * @return Sum of squared one-step errors
+     */
+    private double run(double[] y, int from, int n, double alpha, double beta, double[] state) {
+        double level = y[from];
+        double slope = trend ? y[from + 1] - y[from] : 0;
+        int start = 1;
+        if (trend) {
+            level = y[from + 1];
+            start = 2;
+        }
+        double sse = 0;
+        for (int t = start; t < n; t++) {
+            double e = y[from + t] - (level + slope);
+            sse += e * e;
+            level += slope + alpha * e;
+            if (trend) {
+                slope += alpha * beta * e;
+            }
+        }
+        if (state != null) {
+            state[0] = level;
+            state[1] = slope;
+        }
+        return sse;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.aerotutorial;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom JDK Flight Recorder events for the air quality fetch path.
+ * They cost nothing unless a recording enables them, e.g.
+ * -XX:StartFlightRecording:filename=aerosafe.jfr
+ * (AqiCalc is off by default; add com.example.aerotutorial.AqiCalc#enabled=true)
+ */
+public final class FetchEvents {
+
+    private FetchEvents() {
+    }
+
+    @Name("com.example.aerotutorial.Fetch")
+    @Label("AQ Fetch")
+    @Category({"AeroSafe", "Fetch"})
+    @Description("Upstream call until the response (or stream) is available")
+    @StackTrace(false)
+    public static class Fetch extends Event {
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Provider")
+        String provider;
+
+        @Label("Latitude")
+        double lat;
+
+        @Label("Longitude")
+        double lon;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("com.example.aerotutorial.Parse")
+    @Label("AQ Parse")
+    @Category({"AeroSafe", "Fetch"})
+    @Description("Parsing a provider response into readings")
+    @StackTrace(false)
+    public static class Parse extends Event {
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Readings")
+        int readings;
+    }
+
+    @Name("com.example.aerotutorial.AqiCalc")
+    @Label("AQI Calculation")
+    @Category({"AeroSafe", "AQI"})
+    @Description("Overall AQI from the six pollutant sub-indices")
+    @StackTrace(false)
+    @Enabled(false) // one per hourly reading; enable explicitly when profiling the calculation
+    public static class AqiCalc extends Event {
+        @Label("Standard")
+        String standard;
+
+        @Label("AQI")
+        int aqi;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.aerotutorial;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-process counters for the fetch path: a latency histogram plus error,
+ * timeout and rejection counts per endpoint (current, history, forecast and
+ * their parse phases), and the AQI cache hit ratio.
+ * Updates are lock-free so they can stay on in production; verbose tracing
+ * is only printed in debug mode ("aerosafe.debug=true").
+ */
+public final class FetchMetrics {
+    private static final boolean DEBUG = Boolean.parseBoolean(
+            ConfigLoader.getProperty("aerosafe.debug", "false").trim());
+
+    private static final Map<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+    private static final AtomicLong RETRIES = new AtomicLong();
+
+    static {
+        if (DEBUG) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(report()), "metrics-report"));
+        }
+    }
+
+    private FetchMetrics() {
+    }
+
+    /**
+     * @return true when verbose fetch tracing is enabled
+     */
+    public static boolean isDebug() {
+        return DEBUG;
+    }
+
+    /**
+     * Print a trace line in debug mode; the message is only built when enabled
+     */
+    public static void debug(Supplier<String> message) {
+        if (DEBUG) {
+            System.out.println(message.get());
+        }
+    }
+
+    /**
+     * Time an upstream call, recording latency and outcome under the endpoint
+     * name and as a JFR {@link FetchEvents.Fetch} event
+     * @param endpoint Endpoint name (current, history, forecast)
+     * @param provider Provider name
+     * @param call Starts the call
+     */
+    public static <T> CompletableFuture<T> track(String endpoint, String provider, double lat, double lon,
+                                                 Supplier<CompletableFuture<T>> call) {
+        FetchEvents.Fetch event = new FetchEvents.Fetch();
+        event.begin();
+        long start = System.nanoTime();
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((value, ex) -> {
+            String outcome = endpoint(endpoint).record(System.nanoTime() - start, ex);
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.provider = provider;
+                event.lat = lat;
+                event.lon = lon;
+                event.outcome = outcome;
+                event.commit();
+            }
+        });
+    }
+
+    /**
+     * Time a parse step, recording it under "parse.&lt;endpoint&gt;" and as a JFR
+     * {@link FetchEvents.Parse} event
+     * @param endpoint Endpoint the response came from
+     * @param step Parses the response
+     * @param readings Number of readings in the result
+     */
+    public static <T> T parse(String endpoint, ParseStep<T> step, ToIntFunction<T> readings) throws IOException {
+        FetchEvents.Parse event = new FetchEvents.Parse();
+        event.begin();
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = step.parse();
+        } catch (IOException | RuntimeException e) {
+            record("parse." + endpoint, System.nanoTime() - start, e);
+            throw e;
+        }
+        record("parse." + endpoint, System.nanoTime() - start, null);
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.readings = readings.applyAsInt(result);
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * A parse step that may fail while reading its input
+     */
+    @FunctionalInterface
+    public interface ParseStep<T> {
+        T parse() throws IOException;
+    }
+
+    /**
+     * Record a synchronous phase such as parsing
+     * @param endpoint Histogram name (e.g. "parse.history")
+     * @param nanos Elapsed time
+     * @param error Failure, or null on success
+     */
+    public static void record(String endpoint, long nanos, Throwable error) {
+        endpoint(endpoint).record(nanos, error);
+    }
+
+    /**
+     * Count one retry of a transient failure
+     */
+    static void recordRetry() {
+        RETRIES.incrementAndGet();
+    }
+
+    /**
+     * @return Stats for an endpoint, created on first use
+     */
+    public static Endpoint endpoint(String name) {
+        return ENDPOINTS.computeIfAbsent(name, Endpoint::new);
+    }
+
+    /**
+     * Reset every counter (used between load-test runs)
+     */
+    public static void reset() {
+        ENDPOINTS.clear();
+        RETRIES.set(0);
+    }
+
+    /**
+     * @return Human-readable summary of every endpoint and the cache
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("=== Fetch metrics ===\n");
+        ENDPOINTS.values().stream()
+                .sorted((a, b) -> a.name.compareTo(b.name))
+                .forEach(e -> sb.append(e).append('\n'));
+        sb.append("retries=").append(RETRIES.get()).append('\n');
+        sb.append(AQICache.getInstance());
+        return sb.toString();
+    }
+
+    /**
+     * Counters and latency histogram for one endpoint.
+     * Latencies go into power-of-two microsecond buckets, so percentiles are
+     * accurate to within a factor of two at a fixed 40-slot cost.
+     */
+    public static final class Endpoint {
+        private static final int BUCKETS = 40;
+
+        private final String name;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        String record(long nanos, Throwable error) {
+            long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+
+            if (error == null) {
+                return "ok";
+            }
+            Throwable cause = HttpService.rootCause(error);
+            if (cause instanceof HttpTimeoutException) {
+                timeouts.incrementAndGet();
+                return "timeout";
+            }
+            if (cause instanceof CircuitBreaker.CircuitOpenException) {
+                rejected.incrementAndGet();
+                return "circuit-open";
+            }
+            errors.incrementAndGet();
+            return cause instanceof HttpService.HttpStatusException statusEx
+                    ? "http-" + statusEx.getStatusCode() : "error";
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count.get(); }
+        public long getErrors() { return errors.get(); }
+        public long getTimeouts() { return timeouts.get(); }
+        public long getRejected() { return rejected.get(); }
+
+        public double getMeanMillis() {
+            long n = count.get();
+            return n == 0 ? 0 : totalNanos.get() / 1e6 / n;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        /**
+         * Upper bound of the bucket containing the given percentile
+         * @param percentile 0-100
+         */
+        public double getPercentileMillis(double percentile) {
+            long n = count.get();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(n * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min((1L << (i + 1)) / 1000.0, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s n=%d mean=%.1fms p50<=%.1fms p95<=%.1fms p99<=%.1fms max=%.1fms "
+                            + "errors=%d timeouts=%d rejected=%d",
+                    name, getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(95),
+                    getPercentileMillis(99), getMaxMillis(), getErrors(), getTimeouts(), getRejected());
+        }
+    }
+}
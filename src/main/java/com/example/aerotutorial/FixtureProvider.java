@@ -0,0 +1,176 @@
+package com.example.aerotutorial;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Offline provider that replays recorded OpenWeatherMap responses.
+ * Meant for benchmarks and load tests: no network or API key is needed, and
+ * latency and failures are injected from config with a fixed random seed so
+ * runs are repeatable.
+ *
+ * Fixtures are current.json and history.json, read from "aq.fixture.dir" or
+ * from the copies bundled under fixtures/. History requests are answered with
+ * one hourly entry per hour of the requested range, and forecasts with the
+ * next four days, cycling through the recorded entries, so response sizes
+ * match what the real API returns.
+ */
+public class FixtureProvider implements AirQualityProvider {
+    private static final String SERVICE = "fixture";
+    private static final long HOUR = 3600;
+    private static final int FORECAST_HOURS = 96;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private volatile JSONObject current;
+    private volatile JSONArray historyEntries;
+    private Random random;
+    private int latencyMs;
+    private int jitterMs;
+    private int errorPercent;
+    private int errorStatus;
+
+    @Override
+    public String name() {
+        return SERVICE;
+    }
+
+    @Override
+    public CompletableFuture<String> fetchCurrentAsync(double lat, double lon) {
+        return replay(String.format("fixture current %.4f,%.4f", lat, lon), () -> {
+            JSONObject body = new JSONObject(current.toString());
+            body.getJSONObject("coord").put("lat", lat).put("lon", lon);
+            body.getJSONArray("list").getJSONObject(0).put("dt", System.currentTimeMillis() / 1000);
+            return body.toString();
+        });
+    }
+
+    @Override
+    public CompletableFuture<InputStream> fetchHistoryAsync(double lat, double lon, long startTime, long endTime) {
+        return replay(String.format("fixture history %.4f,%.4f", lat, lon),
+                () -> hourly(lat, lon, startTime + Math.floorMod(-startTime, HOUR), endTime));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> fetchForecastAsync(double lat, double lon) {
+        return replay(String.format("fixture forecast %.4f,%.4f", lat, lon), () -> {
+            long now = System.currentTimeMillis() / 1000;
+            long first = now - Math.floorMod(now, HOUR);
+            return hourly(lat, lon, first, first + FORECAST_HOURS * HOUR);
+        });
+    }
+
+    /**
+     * Build a response with one entry per hour in [first, end), cycling
+     * through the recorded history entries
+     */
+    private InputStream hourly(double lat, double lon, long first, long end) {
+        StringBuilder json = new StringBuilder(256 + (int) Math.max(0, (end - first) / HOUR) * 200);
+        json.append("{\"coord\":{\"lon\":").append(lon).append(",\"lat\":").append(lat).append("},\"list\":[");
+        int i = 0;
+        for (long dt = first; dt < end; dt += HOUR, i++) {
+            JSONObject recorded = historyEntries.getJSONObject(i % historyEntries.length());
+            if (i > 0) json.append(',');
+            json.append("{\"main\":").append(recorded.getJSONObject("main"))
+                    .append(",\"components\":").append(recorded.getJSONObject("components"))
+                    .append(",\"dt\":").append(dt).append('}');
+        }
+        json.append("]}");
+        return new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return Calls served so far, including injected failures
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return Calls that were failed on purpose
+     */
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * Answer after the configured latency, failing the configured share of
+     * calls. Goes through the same retry and circuit breaker as HTTP calls.
+     */
+    private <T> CompletableFuture<T> replay(String label, Supplier<T> response) {
+        try {
+            ensureLoaded();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return HttpService.withRetry(SERVICE, label, () -> {
+            requests.incrementAndGet();
+            long delay;
+            boolean fail;
+            synchronized (random) {
+                delay = latencyMs + (jitterMs > 0 ? random.nextInt(jitterMs + 1) : 0);
+                fail = errorPercent > 0 && random.nextInt(100) < errorPercent;
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                if (fail) {
+                    injectedErrors.incrementAndGet();
+                    throw new HttpService.HttpStatusException(errorStatus,
+                            "{\"cod\":" + errorStatus + ",\"message\":\"injected failure\"}");
+                }
+                return response.get();
+            }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, HttpService.bodyExecutor()));
+        });
+    }
+
+    private void ensureLoaded() {
+        if (current != null) return;
+        synchronized (this) {
+            if (current != null) return;
+            latencyMs = Math.max(0, ConfigLoader.getInt("aq.fixture.latency.ms", 50));
+            jitterMs = Math.max(0, ConfigLoader.getInt("aq.fixture.latency.jitter.ms", 0));
+            errorPercent = Math.max(0, Math.min(100, ConfigLoader.getInt("aq.fixture.error.percent", 0)));
+            errorStatus = ConfigLoader.getInt("aq.fixture.error.status", 503);
+            random = new Random(ConfigLoader.getInt("aq.fixture.seed", 42));
+
+            String dir = ConfigLoader.getProperty("aq.fixture.dir");
+            historyEntries = new JSONObject(readFixture(dir, "history.json")).getJSONArray("list");
+            if (historyEntries.isEmpty()) {
+                throw new IllegalStateException("history.json fixture has no entries");
+            }
+            current = new JSONObject(readFixture(dir, "current.json"));
+            System.out.println("✓ Fixture provider ready: " + latencyMs + "±" + jitterMs + " ms latency, "
+                    + errorPercent + "% errors (HTTP " + errorStatus + ")");
+        }
+    }
+
+    private static String readFixture(String dir, String fileName) {
+        try {
+            if (dir != null && !dir.isBlank()) {
+                return Files.readString(Path.of(dir.trim(), fileName));
+            }
+            try (InputStream in = FixtureProvider.class.getResourceAsStream("fixtures/" + fileName)) {
+                if (in == null) {
+                    throw new IllegalStateException("Bundled fixture not found: " + fileName);
+                }
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read fixture " + fileName, e);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Rolling-origin backtest of the forecasting models on stored history.
+ * For each location the series is cut at successive origins; every model is
+ * fitted on the data before the origin and scored on the next h steps.
+ * Reports MAE, RMSE and 95% interval coverage per model and per location,
+ * and wall time per fit, with locations evaluated in parallel.
+ *
+ * Usage: ForecastBacktester [--source aq_hourly|aq_data|research_data]
+ *        [--models linear,ses,holt,hw24,ar3] [--horizon 24] [--step 24]
+ *        [--min-train 168] [--window 0] [--parallelism N] [--per-location]
+ */
+public class ForecastBacktester {
+    private static final long HOUR = 3600;
+    private static final long DAY = 24 * HOUR;
+
+    private final List<ForecastModel> models;
+    private final int horizon;
+    private final int step;
+    private final int minTrain;
+    private final int window;
+
+    /**
+     * @param models Models to compare
+     * @param horizon Steps ahead scored at each origin
+     * @param step Steps between origins
+     * @param minTrain Steps before the first origin
+     * @param window Fit only on the last N steps before the origin (0 = all)
+     */
+    public ForecastBacktester(List<ForecastModel> models, int horizon, int step, int minTrain, int window) {
+        if (models.isEmpty() || horizon < 1 || step < 1 || minTrain < 2 || window < 0) {
+            throw new IllegalArgumentException("Invalid backtest settings");
+        }
+        this.models = models;
+        this.horizon = horizon;
+        this.step = step;
+        this.minTrain = minTrain;
+        this.window = window;
+    }
+
+    /**
+     * Backtest every series on a fork/join pool
+     * @return Per-location scores, one map entry per location in input order
+     */
+    public Map<String, Score[]> run(List<TimeSeries> series, int parallelism) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            List<Score[]> scores = pool.submit(() -> series.parallelStream().map(this::evaluate).toList()).get();
+            Map<String, Score[]> byLocation = new LinkedHashMap<>();
+            for (int i = 0; i < series.size(); i++) {
+                byLocation.put(series.get(i).key, scores.get(i));
+            }
+            return byLocation;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Backtest failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Rolling-origin evaluation of one series
+     * @return One score per model, in model order
+     */
+    Score[] evaluate(TimeSeries series) {
+        return evaluate(series.values, 0, series.length);
+    }
+
+    /**
+     * Rolling-origin evaluation of part of a series
+     * @param y Series values
+     * @param offset Index of the first point to use
+     * @param length Number of points to use
+     * @return One score per model, in model order
+     */
+    Score[] evaluate(double[] y, int offset, int length) {
+        Score[] scores = new Score[models.size()];
+        for (int m = 0; m < scores.length; m++) {
+            scores[m] = new Score(models.get(m).name());
+        }
+        for (int origin = offset + minTrain; origin + horizon <= offset + length; origin += step) {
+            int from = window > 0 ? Math.max(offset, origin - window) : offset;
+            for (int m = 0; m < scores.length; m++) {
+                ForecastModel model = models.get(m);
+                if (origin - from < model.minPoints()) continue;
+
+                long start = System.nanoTime();
+                PredictionEngine.PredictionResult r = model.forecast(y, from, origin - from, horizon);
+                long nanos = System.nanoTime() - start;
+                if (!r.isValid()) continue;
+
+                Score s = scores[m];
+                s.fits++;
+                s.fitNanos += nanos;
+                s.maxFitNanos = Math.max(s.maxFitNanos, nanos);
+                for (int h = 0; h < horizon; h++) {
+                    double actual = y[origin + h];
+                    double error = r.means[h] - actual;
+                    s.absError += Math.abs(error);
+                    s.squaredError += error * error;
+                    if (actual >= r.lower[h] && actual <= r.upper[h]) {
+                        s.covered++;
+                    }
+                    s.points++;
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Sum per-location scores into one score per model
+     */
+    public static Score[] total(Map<String, Score[]> byLocation) {
+        Score[] total = null;
+        for (Score[] scores : byLocation.values()) {
+            if (total == null) {
+                total = new Score[scores.length];
+                for (int m = 0; m < scores.length; m++) {
+                    total[m] = new Score(scores[m].model);
+                }
+            }
+            for (int m = 0; m < scores.length; m++) {
+                total[m].add(scores[m]);
+            }
+        }
+        return total == null ? new Score[0] : total;
+    }
+
+    /**
+     * Accuracy and cost of one model on one or more locations
+     */
+    public static class Score {
+        private final String model;
+        private int fits;
+        private long points;
+        private long covered;
+        private double absError;
+        private double squaredError;
+        private long fitNanos;
+        private long maxFitNanos;
+
+        Score(String model) {
+            this.model = model;
+        }
+
+        void add(Score other) {
+            fits += other.fits;
+            points += other.points;
+            covered += other.covered;
+            absError += other.absError;
+            squaredError += other.squaredError;
+            fitNanos += other.fitNanos;
+            maxFitNanos = Math.max(maxFitNanos, other.maxFitNanos);
+        }
+
+        public String getModel() { return model; }
+        public int getFits() { return fits; }
+        public double getMae() { return points == 0 ? Double.NaN : absError / points; }
+        public double getRmse() { return points == 0 ? Double.NaN : Math.sqrt(squaredError / points); }
+        public double getCoverage() { return points == 0 ? Double.NaN : (double) covered / points; }
+        public double getMeanFitMicros() { return fits == 0 ? Double.NaN : fitNanos / 1000.0 / fits; }
+        public double getMaxFitMicros() { return maxFitNanos / 1000.0; }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s fits=%-6d MAE=%7.2f RMSE=%7.2f cover95=%5.1f%% fit=%8.1fus (max %.1fus)",
+                    model, fits, getMae(), getRmse(), getCoverage() * 100, getMeanFitMicros(), getMaxFitMicros());
+        }
+    }
+
+    /**
+     * Hourly AQI per grid cell from aq_hourly
+     */
+    static List<TimeSeries> loadHourly() throws SQLException {
+        return BatchForecastJob.loadHistory(0);
+    }
+
+    /**
+     * Daily AQI per city from aq_data (several rows for one day are averaged)
+     */
+    static List<TimeSeries> loadDaily() throws SQLException {
+        List<TimeSeries> result = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT d.location_id, l.name, d.ts, d.aqi FROM aq_data d JOIN locations l ON l.id = d.location_id " +
+                     "WHERE d.ts IS NOT NULL AND d.aqi IS NOT NULL ORDER BY d.location_id, d.ts")) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                TimeSeries current = null;
+                long currentId = 0;
+                while (rs.next()) {
+                    if (current == null || rs.getLong(1) != currentId) {
+                        currentId = rs.getLong(1);
+                        current = new TimeSeries(rs.getString(2), DAY);
+                        result.add(current);
+                    }
+                    current.add(rs.getLong(3), rs.getInt(4));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hourly AQI per location from research_data, computed from the stored
+     * concentrations with the configured standard
+     */
+    static List<TimeSeries> loadResearch() throws SQLException {
+        AqiStandard standard = AqiStandard.configured();
+        List<TimeSeries> result = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT r.location_id, l.name, r.ts, r.pm25, r.pm10, r.no2, r.o3, r.so2, r.co " +
+                     "FROM research_data r JOIN locations l ON l.id = r.location_id " +
+                     "WHERE r.ts IS NOT NULL ORDER BY r.location_id, r.ts")) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                TimeSeries current = null;
+                long currentId = 0;
+                while (rs.next()) {
+                    if (current == null || rs.getLong(1) != currentId) {
+                        currentId = rs.getLong(1);
+                        current = new TimeSeries(rs.getString(2), HOUR);
+                        result.add(current);
+                    }
+                    current.add(rs.getLong(3), standard.overall(rs.getDouble(4), rs.getDouble(5), rs.getDouble(6),
+                            rs.getDouble(7), rs.getDouble(8), rs.getDouble(9)));
+                }
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            options.put(key, flag ? "true" : args[++i]);
+        }
+
+        String source = options.getOrDefault("source", "aq_hourly");
+        boolean daily = source.equals("aq_data");
+        String defaultModels = daily ? "linear,ses,holt,hw7,ar3" : "linear,ses,holt,hw24,ar3";
+        List<ForecastModel> models = new ArrayList<>();
+        for (String name : options.getOrDefault("models", defaultModels).split(",")) {
+            models.add(ForecastModels.forName(name));
+        }
+        int horizon = Integer.parseInt(options.getOrDefault("horizon", daily ? "1" : "24"));
+        int step = Integer.parseInt(options.getOrDefault("step", daily ? "1" : "24"));
+        int minTrain = Integer.parseInt(options.getOrDefault("min-train", daily ? "14" : "168"));
+        int window = Integer.parseInt(options.getOrDefault("window", "0"));
+        int parallelism = Integer.parseInt(options.getOrDefault("parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        DBSetup.initialize();
+        long loadStart = System.nanoTime();
+        List<TimeSeries> series = switch (source) {
+            case "aq_hourly" -> loadHourly();
+            case "aq_data" -> loadDaily();
+            case "research_data" -> loadResearch();
+            default -> throw new IllegalArgumentException("Unknown source: " + source);
+        };
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        ForecastBacktester backtester = new ForecastBacktester(models, horizon, step, minTrain, window);
+        long start = System.nanoTime();
+        Map<String, Score[]> byLocation = backtester.run(series, parallelism);
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        System.out.println();
+        System.out.printf("=== Backtest: %s, %d locations, horizon %d, step %d, min train %d, window %s ===%n",
+                source, series.size(), horizon, step, minTrain, window == 0 ? "all" : String.valueOf(window));
+        if (options.containsKey("per-location")) {
+            byLocation.forEach((location, scores) -> {
+                System.out.println(location);
+                for (Score s : scores) {
+                    if (s.getFits() > 0) System.out.println("  " + s);
+                }
+            });
+            System.out.println();
+        }
+        Score[] total = total(byLocation);
+        Arrays.sort(total, (a, b) -> Double.compare(
+                Double.isNaN(a.getMae()) ? Double.MAX_VALUE : a.getMae(),
+                Double.isNaN(b.getMae()) ? Double.MAX_VALUE : b.getMae()));
+        for (Score s : total) {
+            System.out.println(s);
+        }
+        System.out.printf("Loaded in %d ms, evaluated in %d ms (%.1f locations/s, parallelism %d)%n",
+                loadMs, elapsedMs, series.size() * 1000.0 / elapsedMs, parallelism);
+    }
+}
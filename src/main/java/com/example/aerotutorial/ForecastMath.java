@@ -0,0 +1,52 @@
+package com.example.aerotutorial;
+
+/**
+ * Shared helpers for {@link ForecastModel} implementations
+ */
+final class ForecastMath {
+
+    private ForecastMath() {
+    }
+
+    /**
+     * Build the result from point forecasts and h-step error weights.
+     * The h-step variance is sigma² · (1 + c₁² + ... + c_{h-1}²), the usual
+     * form for exponential smoothing and ARMA models.
+     * @param weights c_j for j = 1..h-1 (weights[j-1]); may be shorter than h-1 if the rest are 0
+     */
+    static PredictionEngine.PredictionResult result(String model, double level, double slope,
+                                                    double[] means, double sigma2, double[] weights) {
+        int h = means.length;
+        double[] lower = new double[h];
+        double[] upper = new double[h];
+        double factor = 1;
+        for (int step = 0; step < h; step++) {
+            if (step > 0 && step - 1 < weights.length) {
+                factor += weights[step - 1] * weights[step - 1];
+            }
+            double half = ForecastModel.Z95 * Math.sqrt(sigma2 * factor);
+            // AQI cannot go negative
+            means[step] = Math.max(0, means[step]);
+            lower[step] = Math.max(0, means[step] - half);
+            upper[step] = means[step] + half;
+        }
+        return PredictionEngine.PredictionResult.fromModel(model, level, slope, means, lower, upper, Math.sqrt(sigma2));
+    }
+
+    static void checkArgs(double[] series, int from, int length, int horizon) {
+        if (from < 0 || length < 0 || from + length > series.length) {
+            throw new IllegalArgumentException("Range outside series");
+        }
+        if (horizon < 1) {
+            throw new IllegalArgumentException("Horizon must be at least 1");
+        }
+    }
+
+    static double mean(double[] series, int from, int length) {
+        double sum = 0;
+        for (int i = from; i < from + length; i++) {
+            sum += series[i];
+        }
+        return sum / length;
+    }
+}
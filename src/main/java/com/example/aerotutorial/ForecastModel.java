@@ -0,0 +1,36 @@
+package com.example.aerotutorial;
+
+/**
+ * A univariate AQI forecasting model.
+ * Models fit themselves to the series on each call (fitting is a handful of
+ * O(n) passes over a primitive array) and return a multi-step forecast with
+ * 95% prediction intervals through
+ * {@link PredictionEngine.PredictionResult#fromModel}.
+ * Implementations are stateless and safe to share between threads.
+ */
+public interface ForecastModel {
+
+    /** Two-sided 95% normal quantile */
+    double Z95 = 1.959964;
+
+    /**
+     * @return Name used in config and reports (e.g. "holt", "hw24", "ar3")
+     */
+    String name();
+
+    /**
+     * @return Fewest points this model can be fitted to
+     */
+    int minPoints();
+
+    /**
+     * Fit to series[from, from + length) and forecast the following steps
+     * @param horizon Number of steps ahead (at least 1)
+     * @return Forecast with bounds, or an invalid result if length < minPoints()
+     */
+    PredictionEngine.PredictionResult forecast(double[] series, int from, int length, int horizon);
+
+    default PredictionEngine.PredictionResult forecast(double[] series, int horizon) {
+        return forecast(series, 0, series.length, horizon);
+    }
+}
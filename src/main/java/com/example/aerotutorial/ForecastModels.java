@@ -0,0 +1,148 @@
+package com.example.aerotutorial;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of {@link ForecastModel}s by name.
+ * Names: linear, ses, holt, hwN (Holt-Winters with season N, e.g. hw24 or
+ * hw168 for hourly data, hw7 for daily data), arN (AR of order N) and auto.
+ * The default is picked with the "forecast.model" config property.
+ */
+public final class ForecastModels {
+    public static final ForecastModel LINEAR = new LinearTrendModel();
+    public static final ForecastModel SES = new ExponentialSmoothingModel(false);
+    public static final ForecastModel HOLT = new ExponentialSmoothingModel(true);
+
+    private static volatile ForecastModel configured;
+
+    private ForecastModels() {
+    }
+
+    /**
+     * Look up a model by name
+     * @param name Model name (case-insensitive)
+     */
+    public static ForecastModel forName(String name) {
+        String key = name.trim().toLowerCase();
+        switch (key) {
+            case "linear":
+                return LINEAR;
+            case "ses":
+                return SES;
+            case "holt":
+                return HOLT;
+            case "auto":
+                return auto(24);
+        }
+        try {
+            if (key.startsWith("hw")) {
+                return new HoltWintersModel(Integer.parseInt(key.substring(2)));
+            }
+            if (key.startsWith("ar")) {
+                return new AutoRegressiveModel(Integer.parseInt(key.substring(2)));
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Unknown forecast model: " + name);
+    }
+
+    /**
+     * The model selected by the "forecast.model" config property (auto by default)
+     */
+    public static ForecastModel configured() {
+        ForecastModel model = configured;
+        if (model == null) {
+            try {
+                model = forName(ConfigLoader.getProperty("forecast.model", "auto"));
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ " + e.getMessage() + ", falling back to auto");
+                model = auto(24);
+            }
+            configured = model;
+        }
+        return model;
+    }
+
+    /**
+     * Standard candidates for a series with the given season length
+     */
+    public static List<ForecastModel> candidates(int season) {
+        List<ForecastModel> models = new ArrayList<>(List.of(LINEAR, SES, HOLT));
+        models.add(new HoltWintersModel(season));
+        models.add(new AutoRegressiveModel(Math.min(season, 3)));
+        return models;
+    }
+
+    /**
+     * A model that picks the candidate with the smallest error on the latest
+     * steps of the series, held out of the fit ({@link ForecastBacktester} with
+     * one origin), then refits it on the whole series. Series too short for a
+     * holdout fall back to the smallest one-step residual error.
+     * @param season Season length for the Holt-Winters candidate
+     */
+    public static ForecastModel auto(int season) {
+        List<ForecastModel> models = candidates(season);
+        return new ForecastModel() {
+            @Override
+            public String name() {
+                return "auto";
+            }
+
+            @Override
+            public int minPoints() {
+                int min = Integer.MAX_VALUE;
+                for (ForecastModel m : models) {
+                    min = Math.min(min, m.minPoints());
+                }
+                return min;
+            }
+
+            @Override
+            public PredictionEngine.PredictionResult forecast(double[] series, int from, int length, int horizon) {
+                ForecastModel chosen = choose(series, from, length, horizon);
+                if (chosen != null) {
+                    PredictionEngine.PredictionResult r = chosen.forecast(series, from, length, horizon);
+                    if (r.isValid()) return r;
+                }
+
+                PredictionEngine.PredictionResult best = PredictionEngine.PredictionResult.invalid("Not enough data");
+                for (ForecastModel m : models) {
+                    if (length < m.minPoints()) continue;
+                    PredictionEngine.PredictionResult r = m.forecast(series, from, length, horizon);
+                    if (r.isValid() && (!best.isValid() || r.stdError < best.stdError)) {
+                        best = r;
+                    }
+                }
+                return best;
+            }
+
+            /**
+             * Candidate with the lowest mean absolute error on the last steps
+             * (up to the horizon, at most a quarter of the series), or null if
+             * none could be scored
+             */
+            private ForecastModel choose(double[] series, int from, int length, int horizon) {
+                int holdout = Math.max(1, Math.min(horizon, length / 4));
+                List<ForecastModel> eligible = models.stream()
+                        .filter(m -> length - holdout >= m.minPoints())
+                        .toList();
+                if (eligible.isEmpty() || length - holdout < 2) {
+                    return null;
+                }
+                ForecastBacktester.Score[] scores = new ForecastBacktester(eligible, holdout, holdout, length - holdout, 0)
+                        .evaluate(series, from, length);
+                ForecastModel chosen = null;
+                double bestMae = Double.POSITIVE_INFINITY;
+                for (int m = 0; m < scores.length; m++) {
+                    if (scores[m].getFits() > 0 && scores[m].getMae() < bestMae) {
+                        chosen = eligible.get(m);
+                        bestMae = scores[m].getMae();
+                    }
+                }
+                return chosen;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.aerotutorial;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hourly AQI forecasts from the configured provider.
+ * A forecast is fetched at most once per grid cell per update cycle (the
+ * provider refreshes hourly) and shared by every dashboard, so showing a
+ * multi-day outlook costs one call instead of repeated current-value polling.
+ * If the provider has no forecast, the one stored by {@link BatchForecastJob}
+ * is used.
+ */
+public final class ForecastService {
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(
+            ConfigLoader.getInt("forecast.cache.ttl.minutes", 60));
+    private static final int MAX_ENTRIES = ConfigLoader.getInt("forecast.cache.max.entries", 256);
+
+    private static final SingleFlight<Long, PredictionEngine.PredictionResult> IN_FLIGHT = new SingleFlight<>();
+
+    // Access-ordered for LRU eviction, same layout as AQICache
+    private static final LinkedHashMap<Long, Entry> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ForecastService() {
+    }
+
+    /**
+     * Hourly forecast for a location
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return Future completing with the forecast (see
+     *         {@link PredictionEngine.PredictionResult#fromForecast}), or
+     *         exceptionally if the provider has no forecast or the call failed
+     */
+    public static CompletableFuture<PredictionEngine.PredictionResult> forecastAsync(double lat, double lon) {
+        long key = Coordinate.packedCellKey(lat, lon);
+        synchronized (CACHE) {
+            Entry entry = CACHE.get(key);
+            if (entry != null && System.nanoTime() - entry.storedAt < TTL_NANOS) {
+                return CompletableFuture.completedFuture(entry.result);
+            }
+        }
+
+        return IN_FLIGHT.execute(key, () -> {
+            AirQualityProvider provider = AirQualityProviders.configured();
+            return FetchMetrics.track("forecast", provider.name(), lat, lon, () -> provider.fetchForecastAsync(lat, lon))
+                    .thenApplyAsync(body -> parse(provider.name(), body), HttpService.bodyExecutor())
+                    .thenApply(result -> {
+                        synchronized (CACHE) {
+                            CACHE.put(key, new Entry(result, System.nanoTime()));
+                        }
+                        FetchMetrics.debug(() -> "✓ Forecast: " + result.hourlyAqi.length + " hours from " + result.source);
+                        return result;
+                    })
+                    .exceptionallyCompose(e -> storedForecast(lat, lon, e));
+        });
+    }
+
+    /**
+     * Fall back to the nightly batch forecast when the provider has none, and
+     * to a per-pollutant forecast from the stored hourly history when no batch
+     * forecast is stored either.
+     * Not cached, so the provider is tried again next time.
+     */
+    private static CompletableFuture<PredictionEngine.PredictionResult> storedForecast(double lat, double lon,
+                                                                                     Throwable providerError) {
+        return CompletableFuture.supplyAsync(() -> {
+            String cell = Coordinate.cellKey(lat, lon);
+            PredictionEngine.PredictionResult stored;
+            try {
+                stored = BatchForecastJob.loadStored(cell);
+                if (stored == null) {
+                    PollutantForecaster.Forecast local = PollutantForecaster.forecastCell(cell,
+                            ConfigLoader.getInt("forecast.pollutant.history.days", 14) * 24,
+                            ConfigLoader.getInt("forecast.pollutant.horizon.hours", 48));
+                    stored = local == null ? null : local.toHourly(ZoneId.systemDefault());
+                }
+            } catch (SQLException | IllegalArgumentException e) {
+                stored = null;
+            }
+            if (stored == null) {
+                throw new CompletionException(HttpService.rootCause(providerError));
+            }
+            return stored;
+        }, HttpService.bodyExecutor());
+    }
+
+    /**
+     * Drop every cached forecast
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    private static PredictionEngine.PredictionResult parse(String source, InputStream body) {
+        List<PollutantReading> hours = new ArrayList<>(96);
+        try {
+            FetchMetrics.parse("forecast", () -> HistoryStreamParser.parse(body, hours::add), n -> n);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (hours.isEmpty()) {
+            throw new IllegalStateException("Provider returned an empty forecast");
+        }
+
+        long[] timestamps = new long[hours.size()];
+        int[] aqi = new int[hours.size()];
+        for (int i = 0; i < aqi.length; i++) {
+            timestamps[i] = hours.get(i).getTimestamp();
+            aqi[i] = hours.get(i).getAqi();
+        }
+        return PredictionEngine.PredictionResult.fromForecast(source, timestamps, aqi, ZoneId.systemDefault());
+    }
+
+    private static final class Entry {
+        final PredictionEngine.PredictionResult result;
+        final long storedAt;
+
+        Entry(PredictionEngine.PredictionResult result, long storedAt) {
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+    }
+}
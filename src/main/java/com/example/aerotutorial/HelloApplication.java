@@ -12,6 +12,8 @@ public class HelloApplication extends Application {
     public void start(Stage primaryStage) throws Exception {
         // Initialize database (creates any missing tables without dropping existing ones)
         DBSetup.initialize();
+        BatchForecastJob.scheduleNightly();
+        RetentionJob.scheduleNightly();
 
         FXMLLoader loader = new FXMLLoader(getClass().getResource("login.fxml"));
         primaryStage.setScene(new Scene(loader.load(), 400, 400));
@@ -19,5 +21,11 @@ public class HelloApplication extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        // Commit queued writes first; closing the last connection then checkpoints the WAL
+        WriteBehindQueue.shared().close(5000);
+        DBConnector.getInstance().getPool().close();
+    }
 
 }
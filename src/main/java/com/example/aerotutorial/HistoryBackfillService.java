@@ -0,0 +1,240 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps a local copy of hourly pollutant history per grid cell.
+ * The ranges already stored for each cell are recorded in backfill_ranges, so
+ * a history request only fetches the gaps. Long gaps are split into chunks
+ * that are fetched in parallel, and every hourly reading (all six pollutants
+ * plus AQI) is written to aq_hourly.
+ */
+public class HistoryBackfillService {
+    private static final long HOUR = 3600;
+    private static final long DAY = 24 * HOUR;
+
+    // SQLite allows one writer at a time; parallel chunks queue here instead of hitting SQLITE_BUSY
+    private static final Object WRITE_LOCK = new Object();
+
+    private HistoryBackfillService() {
+    }
+
+    /**
+     * Daily average AQI for the last X days, served from the local store and
+     * topped up from the API only for missing ranges.
+     * @param lat Latitude
+     * @param lon Longitude
+     * @param days Number of days
+     * @return Future completing with daily average AQI, ordered from oldest to newest
+     */
+    public static CompletableFuture<Map<LocalDate, Integer>> loadDailyHistoryAsync(double lat, double lon, int days) {
+        long end = alignToHour(System.currentTimeMillis() / 1000);
+        long start = end - days * DAY;
+
+        return backfillAsync(lat, lon, start, end)
+                .thenApplyAsync(stored -> readDailyAverages(Coordinate.cellKey(lat, lon), start, end),
+                        HttpService.bodyExecutor())
+                .exceptionallyCompose(e -> {
+                    // Local storage is an optimization; fall back to a direct fetch if it fails
+                    System.err.println("⚠️ History store unavailable, fetching directly: "
+                            + HttpService.rootCause(e).getMessage());
+                    return AQIFetcher.fetchHistoricalAQIAsync(lat, lon, days);
+                });
+    }
+
+    /**
+     * Make sure hourly history for [start, end) is stored locally
+     * @param lat Latitude
+     * @param lon Longitude
+     * @param start Range start (epoch seconds)
+     * @param end Range end (epoch seconds)
+     * @return Future completing with the number of hourly rows written (0 if nothing was missing)
+     */
+    public static CompletableFuture<Integer> backfillAsync(double lat, double lon, long start, long end) {
+        String cell = Coordinate.cellKey(lat, lon);
+        // The covered ranges are read off the calling (often FX) thread
+        return CompletableFuture.supplyAsync(() -> loadCoveredRanges(cell), HttpService.bodyExecutor())
+                .thenCompose(covered -> fetchGapsAsync(lat, lon, cell,
+                        findGaps(covered, alignToHour(start), alignToHour(end))));
+    }
+
+    private static CompletableFuture<Integer> fetchGapsAsync(double lat, double lon, String cell, List<long[]> gaps) {
+        if (gaps.isEmpty()) {
+            System.out.println("✓ History for " + cell + " already stored");
+            return CompletableFuture.completedFuture(0);
+        }
+
+        long chunkSeconds = Math.max(1, ConfigLoader.getInt("backfill.chunk.days", 7)) * DAY;
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (long[] gap : gaps) {
+            for (long chunkStart = gap[0]; chunkStart < gap[1]; chunkStart += chunkSeconds) {
+                long chunkEnd = Math.min(gap[1], chunkStart + chunkSeconds);
+                chunks.add(fetchChunkAsync(lat, lon, cell, chunkStart, chunkEnd));
+            }
+        }
+        System.out.println("⏬ Backfilling " + cell + ": " + gaps.size() + " gap(s), " + chunks.size() + " chunk(s)");
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> chunks.stream().mapToInt(CompletableFuture::join).sum());
+    }
+
+    private static CompletableFuture<Integer> fetchChunkAsync(double lat, double lon, String cell, long start, long end) {
+        List<PollutantReading> readings = new ArrayList<>();
+        return AQIFetcher.streamHistoryAsync(lat, lon, start, end, readings::add)
+                .thenApplyAsync(count -> {
+                    try {
+                        return store(cell, start, end, readings);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Failed to store history for " + cell, e);
+                    }
+                }, HttpService.bodyExecutor());
+    }
+
+    /**
+     * Write a chunk's readings ({@link ReadingRepository#store}, which also
+     * refreshes their rollups), then mark its range as covered. Coverage only
+     * runs to the hour after the last reading returned, so hours the API has
+     * not published yet are fetched again next time. A chunk with no readings
+     * is covered up to the last "backfill.publish.lag.hours" (default 6), so
+     * hours the API has no data for are not fetched again and again.
+     */
+    private static int store(String cell, long start, long end, List<PollutantReading> readings) throws SQLException {
+        long coveredEnd = start;
+        if (readings.isEmpty()) {
+            long lag = Math.max(0, ConfigLoader.getInt("backfill.publish.lag.hours", 6)) * HOUR;
+            coveredEnd = alignToHour(System.currentTimeMillis() / 1000) - lag;
+        }
+        for (PollutantReading r : readings) {
+            coveredEnd = Math.max(coveredEnd, r.getTimestamp() + HOUR);
+        }
+        coveredEnd = Math.min(coveredEnd, end);
+        if (coveredEnd <= start) {
+            return 0;
+        }
+
+        synchronized (WRITE_LOCK) {
+            // Stored first: a failure in between only means the range is fetched again
+            if (!readings.isEmpty()) {
+                StorageEngines.shared().readings().store(cell, readings);
+            }
+            try (Connection conn = DBConnector.getInstance().getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    recordRange(conn, cell, start, coveredEnd);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        }
+        return readings.size();
+    }
+
+    /**
+     * Add [start, end) to the covered ranges of a cell, merging with any
+     * overlapping or adjacent ranges so the table stays one row per run.
+     */
+    private static void recordRange(Connection conn, String cell, long start, long end) throws SQLException {
+        long mergedStart = start;
+        long mergedEnd = end;
+        try (PreparedStatement find = conn.prepareStatement(
+                "SELECT start_ts, end_ts FROM backfill_ranges WHERE cell=? AND start_ts<=? AND end_ts>=?")) {
+            find.setString(1, cell);
+            find.setLong(2, end);
+            find.setLong(3, start);
+            try (ResultSet rs = find.executeQuery()) {
+                while (rs.next()) {
+                    mergedStart = Math.min(mergedStart, rs.getLong(1));
+                    mergedEnd = Math.max(mergedEnd, rs.getLong(2));
+                }
+            }
+        }
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM backfill_ranges WHERE cell=? AND start_ts<=? AND end_ts>=?")) {
+            delete.setString(1, cell);
+            delete.setLong(2, end);
+            delete.setLong(3, start);
+            delete.executeUpdate();
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO backfill_ranges(cell, start_ts, end_ts) VALUES (?, ?, ?)")) {
+            insert.setString(1, cell);
+            insert.setLong(2, mergedStart);
+            insert.setLong(3, mergedEnd);
+            insert.executeUpdate();
+        }
+    }
+
+    private static List<long[]> loadCoveredRanges(String cell) {
+        List<long[]> ranges = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT start_ts, end_ts FROM backfill_ranges WHERE cell=? ORDER BY start_ts")) {
+            stmt.setString(1, cell);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ranges.add(new long[]{rs.getLong(1), rs.getLong(2)});
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read stored ranges for " + cell, e);
+        }
+        return ranges;
+    }
+
+    /**
+     * Parts of [start, end) not covered by any of the given ranges
+     * @param covered Covered ranges sorted by start
+     * @return Missing ranges in ascending order
+     */
+    static List<long[]> findGaps(List<long[]> covered, long start, long end) {
+        List<long[]> gaps = new ArrayList<>();
+        long cursor = start;
+        for (long[] range : covered) {
+            if (range[1] <= cursor) continue;
+            if (range[0] >= end) break;
+            if (range[0] > cursor) {
+                gaps.add(new long[]{cursor, range[0]});
+            }
+            cursor = Math.max(cursor, range[1]);
+            if (cursor >= end) break;
+        }
+        if (cursor < end) {
+            gaps.add(new long[]{cursor, end});
+        }
+        return gaps;
+    }
+
+    private static Map<LocalDate, Integer> readDailyAverages(String cell, long start, long end) {
+        DailyAqiAccumulator accumulator = new DailyAqiAccumulator(start, end, ZoneId.systemDefault());
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT ts, aqi FROM aq_hourly WHERE cell=? AND ts>=? AND ts<=? ORDER BY ts")) {
+            stmt.setString(1, cell);
+            stmt.setLong(2, start);
+            stmt.setLong(3, end);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accumulator.add(rs.getLong(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read stored history for " + cell, e);
+        }
+        return accumulator.toDailyAverages();
+    }
+
+    private static long alignToHour(long epochSecond) {
+        return epochSecond - Math.floorMod(epochSecond, HOUR);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.aerotutorial;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for OpenWeatherMap air pollution responses.
+ * Walks the top-level object token by token and materializes only one entry
+ * of the "list" array at a time, so memory stays constant no matter how many
+ * hourly readings the response contains.
+ */
+public class HistoryStreamParser {
+
+    private HistoryStreamParser() {
+    }
+
+    /**
+     * Parse a response stream and hand each reading to the sink as it is read
+     * @param in Response body (closed when parsing finishes)
+     * @param sink Receives readings in document order
+     * @return Number of readings parsed
+     */
+    public static int parse(InputStream in, Consumer<PollutantReading> sink) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return parse(reader, sink);
+        }
+    }
+
+    /**
+     * Parse a response from a reader and hand each reading to the sink
+     * @return Number of readings parsed
+     */
+    public static int parse(Reader reader, Consumer<PollutantReading> sink) {
+        JSONTokener tokener = new JSONTokener(reader);
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("Expected '{' at start of response");
+        }
+        if (tokener.nextClean() == '}') {
+            return 0;
+        }
+        tokener.back();
+
+        int count = 0;
+        while (true) {
+            String key = tokener.nextValue().toString();
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected ':' after key " + key);
+            }
+
+            if ("list".equals(key)) {
+                count += parseList(tokener, sink);
+            } else {
+                // Small sibling values such as "coord" are parsed and dropped
+                tokener.nextValue();
+            }
+
+            char c = tokener.nextClean();
+            if (c == '}') {
+                return count;
+            }
+            if (c != ',') {
+                throw tokener.syntaxError("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private static int parseList(JSONTokener tokener, Consumer<PollutantReading> sink) {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("Expected '[' for list");
+        }
+        if (tokener.nextClean() == ']') {
+            return 0;
+        }
+        tokener.back();
+
+        int count = 0;
+        while (true) {
+            Object value = tokener.nextValue();
+            if (value instanceof JSONObject item) {
+                sink.accept(AQIFetcher.toReading(item));
+                count++;
+            }
+
+            char c = tokener.nextClean();
+            if (c == ']') {
+                return count;
+            }
+            if (c != ',') {
+                throw tokener.syntaxError("Expected ',' or ']' in list");
+            }
+        }
+    }
+}
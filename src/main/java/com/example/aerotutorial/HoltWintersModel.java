@@ -0,0 +1,111 @@
+package com.example.aerotutorial;
+
+/**
+ * Additive Holt-Winters: level, trend and a repeating season, e.g. 24 for the
+ * daily cycle in hourly data or 7 for the weekly cycle in daily data.
+ * Needs at least two full seasons. Smoothing weights come from a small grid
+ * searched by one-step in-sample error.
+ */
+public class HoltWintersModel implements ForecastModel {
+    private static final double[] ALPHAS = {0.1, 0.3, 0.5, 0.7};
+    private static final double[] BETAS = {0.01, 0.05};
+    private static final double[] GAMMAS = {0.05, 0.15, 0.3};
+
+    private final int season;
+
+    /**
+     * @param season Season length in steps (at least 2)
+     */
+    public HoltWintersModel(int season) {
+        if (season < 2) {
+            throw new IllegalArgumentException("Season must be at least 2 steps");
+        }
+        this.season = season;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    @Override
+    public String name() {
+        return "hw" + season;
+    }
+
+    @Override
+    public int minPoints() {
+        return 2 * season;
+    }
+
+    @Override
+    public PredictionEngine.PredictionResult forecast(double[] series, int from, int length, int horizon) {
+        ForecastMath.checkArgs(series, from, length, horizon);
+        if (length < minPoints()) return PredictionEngine.PredictionResult.invalid("Not enough data");
+
+        double[] seasonal = new double[season];
+        double bestSse = Double.POSITIVE_INFINITY, bestAlpha = 0, bestBeta = 0, bestGamma = 0;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    double sse = run(series, from, length, alpha, beta, gamma, seasonal, null);
+                    if (sse < bestSse) {
+                        bestSse = sse;
+                        bestAlpha = alpha;
+                        bestBeta = beta;
+                        bestGamma = gamma;
+                    }
+                }
+            }
+        }
+
+        double[] state = new double[2];
+        run(series, from, length, bestAlpha, bestBeta, bestGamma, seasonal, state);
+        double level = state[0], slope = state[1];
+        double sigma2 = bestSse / Math.max(1, length - season);
+
+        double[] means = new double[horizon];
+        double[] weights = new double[horizon - 1];
+        for (int h = 1; h <= horizon; h++) {
+            // Season slot of time (length - 1 + h), relative to the start of the range
+            means[h - 1] = level + h * slope + seasonal[(length - 1 + h) % season];
+            if (h < horizon) {
+                weights[h - 1] = bestAlpha + h * bestBeta + (h % season == 0 ? bestGamma : 0);
+            }
+        }
+        return ForecastMath.result(name(), level, slope, means, sigma2, weights);
+    }
+
+    /**
+     * One pass in error-correction form, starting after the first season
+     * @param seasonal Scratch array for the season slots; holds the final slots afterwards
+     * @param state If not null, receives the final level and trend
+     * @return Sum of squared one-step errors
+     */
+    private double run(double[] y, int from, int n, double alpha, double beta, double gamma,
+                       double[] seasonal, double[] state) {
+        double first = ForecastMath.mean(y, from, season);
+        double second = ForecastMath.mean(y, from + season, season);
+        double slope = (second - first) / season;
+        // The first season's mean sits at its midpoint; detrend around it
+        double mid = (season - 1) / 2.0;
+        for (int i = 0; i < season; i++) {
+            seasonal[i] = y[from + i] - (first + slope * (i - mid));
+        }
+        double level = first + slope * mid; // level at the end of the first season
+
+        double sse = 0;
+        for (int t = season; t < n; t++) {
+            int slot = t % season;
+            double e = y[from + t] - (level + slope + seasonal[slot]);
+            sse += e * e;
+            level += slope + alpha * e;
+            slope += beta * e;
+            seasonal[slot] += gamma * e;
+        }
+        if (state != null) {
+            state[0] = level;
+            state[1] = slope;
+        }
+        return sse;
+    }
+}
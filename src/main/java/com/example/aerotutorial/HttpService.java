@@ -0,0 +1,269 @@
+package com.example.aerotutorial;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Shared HTTP layer for every outbound API call (OpenWeatherMap, Nominatim).
+ * A single HttpClient is reused for the whole process so connections are kept
+ * alive and pooled, and requests run asynchronously instead of blocking a
+ * platform thread each.
+ * Identical in-flight GETs are merged into one request, transient failures are
+ * retried with jittered exponential backoff, and each host has a circuit
+ * breaker so a degraded service fails fast. Hosts with a per-key quota
+ * (OpenWeatherMap) have a rate limiter that every request attempt, retries
+ * included, takes a permit from just before it is sent; results served from
+ * a cache or merged into an in-flight request never reach it.
+ */
+public class HttpService {
+    public static final String USER_AGENT = "AeroSafe/1.0";
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(DEFAULT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    // Response bodies that are consumed as streams are parsed on virtual threads
+    private static final ExecutorService BODY_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final int MAX_ATTEMPTS = ConfigLoader.getInt("http.retry.max.attempts", 3);
+    private static final long BASE_DELAY_MS = ConfigLoader.getInt("http.retry.base.delay.ms", 250);
+    private static final long MAX_DELAY_MS = 5000;
+
+    private static final SingleFlight<String, String> IN_FLIGHT = new SingleFlight<>();
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    // One limiter per quota for the whole process: the quota is per API key, not per caller
+    private static final Map<String, RateLimiter> LIMITERS = Map.of(
+            "api.openweathermap.org", new RateLimiter(
+                    ConfigLoader.getInt("openweather.rate.limit.per.minute", 60),
+                    ConfigLoader.getInt("openweather.rate.limit.burst", 10)));
+
+    private HttpService() {
+    }
+
+    /**
+     * Get the process-wide HTTP client
+     * @return Shared HttpClient instance
+     */
+    public static HttpClient client() {
+        return CLIENT;
+    }
+
+    /**
+     * Send a GET request and read the body as a string
+     * @param url Full request URL
+     * @return Future completing with the response body, or exceptionally with
+     *         {@link HttpStatusException} when the status is not 200
+     */
+    public static CompletableFuture<String> getAsync(String url) {
+        return getAsync(url, USER_AGENT, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Send a GET request and read the body as a string
+     * @param url Full request URL
+     * @param userAgent User-Agent header value (Nominatim requires one)
+     * @param timeout Request timeout
+     * @return Future completing with the response body
+     */
+    public static CompletableFuture<String> getAsync(String url, String userAgent, Duration timeout) {
+        return IN_FLIGHT.execute(url, () -> {
+            HttpRequest request = buildRequest(url, userAgent, timeout);
+            return sendWithRetry(request, () -> CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new HttpStatusException(response.statusCode(), response.body());
+                        }
+                        return response.body();
+                    }));
+        });
+    }
+
+    /**
+     * Send a GET request and hand back the body as an unbuffered stream.
+     * Use this for large responses that are parsed incrementally.
+     * @param url Full request URL
+     * @return Future completing with the open body stream (caller must close it)
+     */
+    public static CompletableFuture<InputStream> getStreamAsync(String url) {
+        // Streams can only be read once, so these are retried but never shared
+        HttpRequest request = buildRequest(url, USER_AGENT, DEFAULT_TIMEOUT);
+        return sendWithRetry(request, () -> CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        String body;
+                        try (InputStream in = response.body()) {
+                            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                        } catch (IOException e) {
+                            body = "";
+                        }
+                        throw new HttpStatusException(response.statusCode(), body);
+                    }
+                    return response.body();
+                }));
+    }
+
+    private static <T> CompletableFuture<T> sendWithRetry(HttpRequest request, Supplier<CompletableFuture<T>> call) {
+        return withRetry(request.uri().getHost(), maskUrl(request.uri().toString()), call);
+    }
+
+    /**
+     * Run a call through the service's circuit breaker, retrying transient
+     * failures with jittered exponential backoff.
+     * Also used by providers that do not go over HTTP so they behave the same
+     * way under injected failures.
+     * @param service Circuit breaker name (host name for HTTP calls)
+     * @param label What is being called, for log messages
+     * @param call Starts one attempt
+     */
+    static <T> CompletableFuture<T> withRetry(String service, String label, Supplier<CompletableFuture<T>> call) {
+        return attempt(label, call, breakerFor(service), LIMITERS.get(service), 1);
+    }
+
+    private static <T> CompletableFuture<T> attempt(String label, Supplier<CompletableFuture<T>> call,
+                                                    CircuitBreaker breaker, RateLimiter limiter, int attempt) {
+        if (!breaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new CircuitBreaker.CircuitOpenException(breaker.getName()));
+        }
+
+        // Wait for the quota without holding a thread
+        long waitNanos = limiter == null ? 0 : limiter.reserve();
+        CompletableFuture<T> sent = waitNanos == 0
+                ? call.get()
+                : CompletableFuture.supplyAsync(() -> null,
+                        CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> call.get());
+
+        return sent.handle((value, ex) -> {
+            if (ex == null) {
+                breaker.recordSuccess();
+                return CompletableFuture.completedFuture(value);
+            }
+
+            Throwable cause = rootCause(ex);
+            if (!isTransient(cause)) {
+                // The service answered; a 4xx is our problem, not a sign it is degraded
+                breaker.recordSuccess();
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+
+            breaker.recordFailure();
+            if (attempt >= MAX_ATTEMPTS) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+
+            long delay = backoffMillis(attempt);
+            FetchMetrics.recordRetry();
+            FetchMetrics.debug(() -> "↻ Retrying " + label + " in " + delay
+                    + " ms (attempt " + (attempt + 1) + "/" + MAX_ATTEMPTS + "): " + cause.getMessage());
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> null, delayed)
+                    .thenCompose(ignored -> attempt(label, call, breaker, limiter, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Network errors, timeouts, 429 and 5xx are worth retrying; other statuses are not
+     */
+    private static boolean isTransient(Throwable cause) {
+        if (cause instanceof HttpStatusException statusEx) {
+            int code = statusEx.getStatusCode();
+            return code == 429 || code >= 500;
+        }
+        return cause instanceof IOException;
+    }
+
+    // Random delay in [cap/2, cap] so clients that failed together do not retry together
+    private static long backoffMillis(int attempt) {
+        long cap = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << (attempt - 1));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    private static CircuitBreaker breakerFor(String service) {
+        return BREAKERS.computeIfAbsent(service, name -> new CircuitBreaker(name,
+                ConfigLoader.getInt("circuit.failure.threshold", 5),
+                ConfigLoader.getInt("circuit.open.seconds", 30) * 1000L));
+    }
+
+    /**
+     * State of the circuit breaker for a host or service (CLOSED if never used)
+     */
+    public static CircuitBreaker.State circuitState(String service) {
+        CircuitBreaker breaker = BREAKERS.get(service);
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+    }
+
+    /**
+     * Executor for blocking work on response streams (parsing, aggregation)
+     */
+    public static ExecutorService bodyExecutor() {
+        return BODY_EXECUTOR;
+    }
+
+    private static HttpRequest buildRequest(String url, String userAgent, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", userAgent)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    /**
+     * Mask the API key in a URL before it is logged
+     */
+    public static String maskUrl(String url) {
+        return url.replaceAll("appid=[^&]+", "appid=****");
+    }
+
+    /**
+     * Raised when an API answers with a non-200 status code
+     */
+    public static class HttpStatusException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+        private final String body;
+
+        public HttpStatusException(int statusCode, String body) {
+            super("HTTP " + statusCode);
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public int getStatusCode() { return statusCode; }
+        public String getBody() { return body; }
+    }
+
+    /**
+     * Unwrap CompletionException/ExecutionException layers to the real cause
+     */
+    public static Throwable rootCause(Throwable t) {
+        Throwable cause = t;
+        while ((cause instanceof java.util.concurrent.CompletionException
+                || cause instanceof java.util.concurrent.ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Pages through a table with keyset (seek) pagination.
+ * Rows are ordered by a sort column with the id as tie-breaker, and each
+ * page starts after the last row of the previous one
+ * ({@code WHERE (sort, id) < (?, ?)}) instead of using OFFSET, so every page
+ * is an index seek plus a short scan however deep the reader has scrolled.
+ * Sorting and equality filters run in SQLite. Only columns declared
+ * sortable can be sorted on; each should be covered by an index whose
+ * entries end with the id (a plain index on the column in a rowid table is).
+ * Rows whose sort column is NULL are not returned.
+ * Instances are immutable; sortedBy and where return modified copies.
+ */
+public final class KeysetQuery<T> {
+
+    /**
+     * Builds one row object from the current result set row
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    // Filter and sort columns are spliced into SQL, so only plain identifiers are accepted
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final String table;
+    private final String columns;
+    private final RowMapper<T> mapper;
+    private final List<String> sortable;
+    private final String sortColumn;
+    private final boolean descending;
+    private final List<String> filterColumns;
+    private final List<Object> filterValues;
+
+    /**
+     * Query sorted by id, newest first
+     * @param table Table with an integer "id" primary key
+     * @param columns Select list passed to the mapper
+     * @param sortableColumns Columns the caller may sort on (id always can be)
+     */
+    public KeysetQuery(String table, String columns, RowMapper<T> mapper, String... sortableColumns) {
+        this(table, columns, mapper, sortable(sortableColumns), "id", true,
+                Collections.emptyList(), Collections.emptyList());
+    }
+
+    private KeysetQuery(String table, String columns, RowMapper<T> mapper, List<String> sortable,
+                        String sortColumn, boolean descending, List<String> filterColumns, List<Object> filterValues) {
+        this.table = identifier(table);
+        this.columns = columns;
+        this.mapper = mapper;
+        this.sortable = sortable;
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+        this.filterColumns = filterColumns;
+        this.filterValues = filterValues;
+    }
+
+    /**
+     * Same query with another order
+     * @param column One of the sortable columns (or "id")
+     */
+    public KeysetQuery<T> sortedBy(String column, boolean descending) {
+        if (!sortable.contains(column)) {
+            throw new IllegalArgumentException(table + " cannot be sorted by " + column);
+        }
+        return new KeysetQuery<>(table, columns, mapper, sortable, column, descending, filterColumns, filterValues);
+    }
+
+    /**
+     * Same query restricted to rows where column = value
+     */
+    public KeysetQuery<T> where(String column, Object value) {
+        List<String> columns = new ArrayList<>(filterColumns);
+        List<Object> values = new ArrayList<>(filterValues);
+        columns.add(identifier(column));
+        values.add(value);
+        return new KeysetQuery<>(table, this.columns, mapper, sortable, sortColumn, descending,
+                Collections.unmodifiableList(columns), Collections.unmodifiableList(values));
+    }
+
+    public String getSortColumn() { return sortColumn; }
+    public boolean isDescending() { return descending; }
+
+    /**
+     * First page
+     * @param limit Most rows to return
+     */
+    public Page<T> first(int limit) throws SQLException {
+        return fetch(null, limit);
+    }
+
+    /**
+     * Page following a previously returned one
+     * @param after Previous page of this query
+     * @param limit Most rows to return
+     */
+    public Page<T> next(Page<T> after, int limit) throws SQLException {
+        if (!after.hasMore()) {
+            return new Page<>(Collections.emptyList(), after.lastSortValue, after.lastId, false);
+        }
+        return fetch(after, limit);
+    }
+
+    /**
+     * Number of rows matching the filters
+     */
+    public long count() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + table + whereClause(Collections.emptyList());
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindFilters(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private Page<T> fetch(Page<T> after, int limit) throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        boolean byId = sortColumn.equals("id");
+        String direction = descending ? " DESC" : "";
+        List<String> conditions = new ArrayList<>();
+        if (!byId) {
+            conditions.add(sortColumn + " IS NOT NULL");
+        }
+        if (after != null) {
+            String op = descending ? " < " : " > ";
+            conditions.add(byId ? "id" + op + "?" : "(" + sortColumn + ", id)" + op + "(?, ?)");
+        }
+        String sql = "SELECT " + columns + ", id AS keyset_id" + (byId ? "" : ", " + sortColumn + " AS keyset_sort") +
+                " FROM " + table + whereClause(conditions) +
+                " ORDER BY " + (byId ? "" : sortColumn + direction + ", ") + "id" + direction +
+                " LIMIT " + (limit + 1); // one extra row tells whether another page exists
+
+        List<T> rows = new ArrayList<>(limit);
+        Object lastSort = null;
+        long lastId = 0;
+        boolean more = false;
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindFilters(stmt);
+            if (after != null) {
+                if (!byId) {
+                    stmt.setObject(index++, after.lastSortValue);
+                }
+                stmt.setLong(index, after.lastId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rows.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    rows.add(mapper.map(rs));
+                    lastId = rs.getLong("keyset_id");
+                    lastSort = byId ? null : rs.getObject("keyset_sort");
+                }
+            }
+        }
+        return new Page<>(Collections.unmodifiableList(rows), lastSort, lastId, more);
+    }
+
+    // Filters first, so their parameters come before any added conditions
+    private String whereClause(List<String> conditions) {
+        List<String> terms = new ArrayList<>();
+        for (String column : filterColumns) {
+            terms.add(column + "=?");
+        }
+        terms.addAll(conditions);
+        return terms.isEmpty() ? "" : " WHERE " + String.join(" AND ", terms);
+    }
+
+    // Bind filter values from parameter 1; returns the next free parameter index
+    private int bindFilters(PreparedStatement stmt) throws SQLException {
+        int index = 1;
+        for (Object value : filterValues) {
+            stmt.setObject(index++, value);
+        }
+        return index;
+    }
+
+    private static List<String> sortable(String[] columns) {
+        List<String> list = new ArrayList<>(Arrays.asList(columns));
+        list.add("id");
+        for (String column : list) {
+            identifier(column);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a column name: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * One page of rows plus the position to continue from
+     */
+    public static final class Page<T> {
+        private final List<T> rows;
+        private final Object lastSortValue;
+        private final long lastId;
+        private final boolean more;
+
+        Page(List<T> rows, Object lastSortValue, long lastId, boolean more) {
+            this.rows = rows;
+            this.lastSortValue = lastSortValue;
+            this.lastId = lastId;
+            this.more = more;
+        }
+
+        public List<T> getRows() { return rows; }
+
+        /** Whether rows follow this page */
+        public boolean hasMore() { return more; }
+    }
+}
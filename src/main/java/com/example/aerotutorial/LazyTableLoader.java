@@ -0,0 +1,170 @@
+package com.example.aerotutorial;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Alert;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds a TableView from a {@link KeysetQuery} one page at a time.
+ * The first page is loaded when the query is set; the next one when a row
+ * near the end of the loaded rows is displayed, so opening a view costs one
+ * page whatever the table size. TableView only creates cells for visible
+ * rows, so rendering stays flat too. Clicking a column header re-queries
+ * SQLite in that order (columns not registered with {@link #sortBy} are not
+ * sortable). Pages are fetched on the shared background executor
+ * ({@link HttpService#bodyExecutor}); everything else runs on the FX thread.
+ * A page that fails to load is reported once and ends the list until the
+ * next {@link #reload}.
+ */
+public final class LazyTableLoader<T> {
+    // Start loading the next page when a row this close to the end is shown
+    private static final int PREFETCH = 20;
+
+    private final TableView<T> table;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final Map<TableColumn<T, ?>, String> sortColumns = new HashMap<>();
+    private final int pageSize;
+    private KeysetQuery<T> baseQuery;
+    private KeysetQuery<T> query;
+    private KeysetQuery.Page<T> lastPage;
+    private boolean loading;
+    // Bumped on every reload so pages of a previous query are dropped
+    private int generation;
+
+    /**
+     * @param query Initial query; nothing is loaded until {@link #reload}
+     */
+    public LazyTableLoader(TableView<T> table, KeysetQuery<T> query) {
+        this.table = table;
+        this.baseQuery = query;
+        this.query = query;
+        this.pageSize = Math.max(1, ConfigLoader.getInt("ui.table.page.size", 100));
+
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(false);
+        }
+        table.setItems(items);
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= items.size() - PREFETCH) {
+                    loadMore();
+                }
+            }
+        });
+        table.setSortPolicy(tv -> {
+            applySort();
+            return true;
+        });
+    }
+
+    /**
+     * Let a column be sorted by clicking its header
+     * @param dbColumn Column of the query to sort on (declared sortable in the query)
+     */
+    public LazyTableLoader<T> sortBy(TableColumn<T, ?> column, String dbColumn) {
+        sortColumns.put(column, dbColumn);
+        column.setSortable(true);
+        return this;
+    }
+
+    /** Rows loaded so far */
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Replace the query (e.g. with other filters), keeping the current sort, and reload
+     */
+    public void setQuery(KeysetQuery<T> query) {
+        this.baseQuery = query;
+        this.query = query.sortedBy(this.query.getSortColumn(), this.query.isDescending());
+        reload();
+    }
+
+    /**
+     * Show a fixed list of rows (e.g. search results) instead of the query's pages,
+     * until the next {@link #reload} or {@link #setQuery}
+     */
+    public void showRows(List<T> rows) {
+        generation++;
+        loading = false;
+        lastPage = new KeysetQuery.Page<>(List.of(), null, 0, false); // nothing more to load
+        items.setAll(rows);
+    }
+
+    /**
+     * Drop the loaded rows and load the first page again
+     */
+    public void reload() {
+        generation++;
+        items.clear();
+        lastPage = null;
+        loading = false;
+        loadMore();
+    }
+
+    private void applySort() {
+        KeysetQuery<T> sorted = baseQuery;
+        for (TableColumn<T, ?> column : table.getSortOrder()) {
+            String dbColumn = sortColumns.get(column);
+            if (dbColumn != null) {
+                sorted = baseQuery.sortedBy(dbColumn, column.getSortType() == TableColumn.SortType.DESCENDING);
+                break;
+            }
+        }
+        // Also called when items are replaced; only a real change of order needs a reload
+        if (!sorted.getSortColumn().equals(query.getSortColumn()) || sorted.isDescending() != query.isDescending()) {
+            query = sorted;
+            reload();
+        }
+    }
+
+    private void loadFailed(Exception e) {
+        System.err.println("⚠️ Failed to load rows: " + e.getMessage());
+        // Nothing more to load, so scrolling does not retry in a loop; reload() starts over
+        lastPage = new KeysetQuery.Page<>(List.of(), null, 0, false);
+        loading = false;
+
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText("Failed to load rows: " + e.getMessage());
+        alert.show();
+    }
+
+    private void loadMore() {
+        if (loading || (lastPage != null && !lastPage.hasMore())) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        KeysetQuery<T> q = query;
+        KeysetQuery.Page<T> after = lastPage;
+
+        HttpService.bodyExecutor().execute(() -> {
+            try {
+                KeysetQuery.Page<T> page = after == null ? q.first(pageSize) : q.next(after, pageSize);
+                Platform.runLater(() -> {
+                    if (requested != generation) return;
+                    lastPage = page;
+                    loading = false;
+                    items.addAll(page.getRows());
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (requested == generation) loadFailed(e);
+                });
+            }
+        });
+    }
+}
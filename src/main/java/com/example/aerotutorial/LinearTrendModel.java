@@ -0,0 +1,58 @@
+package com.example.aerotutorial;
+
+/**
+ * Least-squares straight line, the model behind
+ * {@link PredictionEngine#predictNextDay}. Intervals are the classic
+ * regression prediction intervals, which widen with distance from the data.
+ */
+public class LinearTrendModel implements ForecastModel {
+
+    @Override
+    public String name() {
+        return "linear";
+    }
+
+    @Override
+    public int minPoints() {
+        return 3;
+    }
+
+    @Override
+    public PredictionEngine.PredictionResult forecast(double[] series, int from, int length, int horizon) {
+        ForecastMath.checkArgs(series, from, length, horizon);
+        if (length < minPoints()) return PredictionEngine.PredictionResult.invalid("Not enough data");
+
+        int n = length;
+        double meanX = (n - 1) / 2.0;
+        double meanY = ForecastMath.mean(series, from, n);
+        double sxy = 0, sxx = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = i - meanX;
+            sxy += dx * (series[from + i] - meanY);
+            sxx += dx * dx;
+        }
+        double slope = sxy / sxx;
+        double intercept = meanY - slope * meanX;
+
+        double sse = 0;
+        for (int i = 0; i < n; i++) {
+            double e = series[from + i] - (intercept + slope * i);
+            sse += e * e;
+        }
+        double s2 = sse / (n - 2);
+
+        double[] means = new double[horizon];
+        double[] lower = new double[horizon];
+        double[] upper = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            double x0 = n - 1 + h;
+            double mean = Math.max(0, intercept + slope * x0);
+            double half = Z95 * Math.sqrt(s2 * (1 + 1.0 / n + (x0 - meanX) * (x0 - meanX) / sxx));
+            means[h - 1] = mean;
+            lower[h - 1] = Math.max(0, mean - half);
+            upper[h - 1] = mean + half;
+        }
+        return PredictionEngine.PredictionResult.fromModel(name(), intercept + slope * (n - 1), slope,
+                means, lower, upper, Math.sqrt(s2));
+    }
+}
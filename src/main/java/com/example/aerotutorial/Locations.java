@@ -0,0 +1,87 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Normalized locations shared by the time-series tables.
+ * A location with coordinates is identified by its 0.01° grid cell
+ * ({@link Coordinate#cellKey}), with latitude and longitude stored as
+ * integer hundredths of a degree; one known only by name (e.g. a city in
+ * aq_data) is identified by its lower-cased name.
+ */
+public final class Locations {
+    // key -> id; ids never change once committed
+    private static final Map<String, Long> IDS = new ConcurrentHashMap<>();
+
+    private Locations() {
+    }
+
+    /**
+     * Id of the grid cell containing a coordinate, created if needed
+     * @param name Display name kept with a new location
+     */
+    public static long idFor(Connection conn, String name, double lat, double lon) throws SQLException {
+        return resolve(conn, Coordinate.cellKey(lat, lon), name,
+                Coordinate.cellIndex(lat), Coordinate.cellIndex(lon));
+    }
+
+    /**
+     * Id of a location known only by name, created if needed
+     */
+    public static long idForName(Connection conn, String name) throws SQLException {
+        return resolve(conn, nameKey(name), name.trim(), null, null);
+    }
+
+    /**
+     * Key for a location known only by name
+     */
+    static String nameKey(String name) {
+        return "name:" + name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long resolve(Connection conn, String key, String name, Integer latQ, Integer lonQ)
+            throws SQLException {
+        Long cached = IDS.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO locations(key, name, lat_q, lon_q) VALUES (?, ?, ?, ?) ON CONFLICT(key) DO NOTHING")) {
+            insert.setString(1, key);
+            insert.setString(2, name);
+            insert.setObject(3, latQ);
+            insert.setObject(4, lonQ);
+            insert.executeUpdate();
+        }
+        long id;
+        try (PreparedStatement select = conn.prepareStatement("SELECT id FROM locations WHERE key=?")) {
+            select.setString(1, key);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Location not stored: " + key);
+                }
+                id = rs.getLong(1);
+            }
+        }
+
+        // A new row inside a transaction may still be rolled back, so only cache committed ids
+        if (conn.getAutoCommit()) {
+            IDS.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Forget cached ids (after the locations table is rebuilt)
+     */
+    static void clearCache() {
+        IDS.clear();
+    }
+}
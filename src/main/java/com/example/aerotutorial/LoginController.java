@@ -11,9 +11,6 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ResourceBundle;
 
 public class LoginController implements Initializable {
@@ -44,18 +41,11 @@ public class LoginController implements Initializable {
             return;
         }
 
-        // Determine which table to query based on role
-        String tableName = getTableNameByRole(role);
-
-        try (Connection conn = DBConnector.getInstance().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT * FROM " + tableName + " WHERE username=? AND password=?"
-            );
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            UserRepository.User user = StorageEngines.shared().users()
+                    .authenticate(UserRepository.Role.fromLabel(role), username, password);
 
-            if (rs.next()) {
+            if (user != null) {
                 System.out.println("Login successful for " + role + ": " + username);
                 messageLabel.setText("Login successful!");
 
@@ -87,21 +77,6 @@ public class LoginController implements Initializable {
         }
     }
 
-    /**
-     * Returns the database table name based on selected role
-     */
-    private String getTableNameByRole(String role) {
-        switch (role) {
-            case "Researcher":
-                return "researchers";
-            case "Government Official":
-                return "admin";
-            case "User":
-            default:
-                return "users";
-        }
-    }
-
     /**
      * Returns the appropriate dashboard FXML file based on user role
      */
@@ -0,0 +1,308 @@
+package com.example.aerotutorial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Storage engine that keeps everything in process memory; nothing survives
+ * a restart. Used by the storage contract test and load benchmarks, to tell
+ * database cost apart from the rest in profiles. Safe for
+ * concurrent use. Readings of a cell are kept in parallel primitive
+ * arrays sorted by time (no object per reading until read back), so
+ * appends are amortised O(1) and range reads are a binary search plus a copy.
+ * Writes complete immediately.
+ */
+public final class MemoryStorage implements Storage {
+    private final ReadingRepository readings = new Readings();
+    private final ReportRepository reports = new Reports();
+    private final AlertRepository alerts = new Alerts();
+    private final UserRepository users = new Users();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public ReadingRepository readings() { return readings; }
+
+    @Override
+    public ReportRepository reports() { return reports; }
+
+    @Override
+    public AlertRepository alerts() { return alerts; }
+
+    @Override
+    public UserRepository users() { return users; }
+
+    private static final class Readings implements ReadingRepository {
+        private final Map<String, Series> cells = new ConcurrentHashMap<>();
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public int store(String cell, List<PollutantReading> readings) {
+            if (readings.isEmpty()) {
+                return 0;
+            }
+            Series series = cells.computeIfAbsent(cell, k -> new Series());
+            count.add(series.put(readings));
+            return readings.size();
+        }
+
+        @Override
+        public List<PollutantReading> range(String cell, long fromTs, long toTs) {
+            Series series = cells.get(cell);
+            return series == null ? new ArrayList<>() : series.range(fromTs, toTs);
+        }
+
+        @Override
+        public PollutantReading latest(String cell) {
+            Series series = cells.get(cell);
+            return series == null ? null : series.latest();
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * One cell's readings: timestamps in ts[0..size), sorted, with the six
+     * concentrations of reading i at values[i * 6 .. i * 6 + 5]
+     */
+    private static final class Series {
+        private static final int WIDTH = 6;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] ts = new long[16];
+        private double[] values = new double[16 * WIDTH];
+        private int[] aqi = new int[16];
+        private int size;
+
+        /**
+         * @return Readings added (not replacing a stored timestamp)
+         */
+        int put(List<PollutantReading> readings) {
+            int added = 0;
+            lock.writeLock().lock();
+            try {
+                for (PollutantReading r : readings) {
+                    // Readings usually arrive in time order, so most land at the end
+                    int i = size > 0 && r.getTimestamp() > ts[size - 1]
+                            ? -size - 1
+                            : Arrays.binarySearch(ts, 0, size, r.getTimestamp());
+                    if (i < 0) {
+                        i = -i - 1;
+                        insertAt(i);
+                        added++;
+                    }
+                    ts[i] = r.getTimestamp();
+                    int v = i * WIDTH;
+                    values[v] = r.getPm25();
+                    values[v + 1] = r.getPm10();
+                    values[v + 2] = r.getNo2();
+                    values[v + 3] = r.getO3();
+                    values[v + 4] = r.getSo2();
+                    values[v + 5] = r.getCo();
+                    aqi[i] = r.getAqi();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return added;
+        }
+
+        List<PollutantReading> range(long fromTs, long toTs) {
+            List<PollutantReading> readings = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                int from = Arrays.binarySearch(ts, 0, size, fromTs);
+                for (int i = from < 0 ? -from - 1 : from; i < size && ts[i] <= toTs; i++) {
+                    readings.add(reading(i));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return readings;
+        }
+
+        PollutantReading latest() {
+            lock.readLock().lock();
+            try {
+                return size == 0 ? null : reading(size - 1);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private PollutantReading reading(int i) {
+            int v = i * WIDTH;
+            return new PollutantReading(ts[i], values[v], values[v + 1], values[v + 2],
+                    values[v + 3], values[v + 4], values[v + 5], aqi[i]);
+        }
+
+        // Open a slot at index i, growing the arrays by half when full
+        private void insertAt(int i) {
+            if (size == ts.length) {
+                int capacity = size + (size >> 1);
+                ts = Arrays.copyOf(ts, capacity);
+                values = Arrays.copyOf(values, capacity * WIDTH);
+                aqi = Arrays.copyOf(aqi, capacity);
+            }
+            if (i < size) {
+                System.arraycopy(ts, i, ts, i + 1, size - i);
+                System.arraycopy(values, i * WIDTH, values, (i + 1) * WIDTH, (size - i) * WIDTH);
+                System.arraycopy(aqi, i, aqi, i + 1, size - i);
+            }
+            size++;
+        }
+    }
+
+    private static final class Reports implements ReportRepository {
+        // Newest first; writes are serialised so the status counts stay exact
+        private final ConcurrentSkipListMap<Long, Report> reports =
+                new ConcurrentSkipListMap<>((a, b) -> Long.compare(b, a));
+        private final Map<String, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public synchronized CompletableFuture<Long> submit(Report report) {
+            long id = ids.incrementAndGet();
+            reports.put(id, report.stored(id, PENDING));
+            statusCount(PENDING).increment();
+            return CompletableFuture.completedFuture(id);
+        }
+
+        @Override
+        public synchronized CompletableFuture<Boolean> updateStatus(long id, String status) {
+            Report report = reports.get(id);
+            if (report == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            reports.put(id, report.stored(id, status));
+            statusCount(report.getStatus()).decrement();
+            statusCount(status).increment();
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public Report find(long id) {
+            return reports.get(id);
+        }
+
+        @Override
+        public List<Report> recent(String status, int limit) {
+            List<Report> recent = new ArrayList<>();
+            for (Report report : reports.values()) {
+                if (recent.size() >= limit) break;
+                if (status == null || status.equals(report.getStatus())) {
+                    recent.add(report);
+                }
+            }
+            return recent;
+        }
+
+        @Override
+        public long count(String status) {
+            if (status == null) {
+                return reports.size();
+            }
+            LongAdder count = statusCounts.get(status);
+            return count == null ? 0 : count.sum();
+        }
+
+        private LongAdder statusCount(String status) {
+            return statusCounts.computeIfAbsent(status, s -> new LongAdder());
+        }
+    }
+
+    private static final class Alerts implements AlertRepository {
+        // Newest first
+        private final ConcurrentSkipListMap<Long, Alert> alerts =
+                new ConcurrentSkipListMap<>((a, b) -> Long.compare(b, a));
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public CompletableFuture<Long> issue(Alert alert) {
+            long id = ids.incrementAndGet();
+            alerts.put(id, alert.stored(id, ACTIVE));
+            return CompletableFuture.completedFuture(id);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> deactivate(long id) {
+            Alert deactivated = alerts.computeIfPresent(id, (k, alert) -> alert.stored(id, INACTIVE));
+            return CompletableFuture.completedFuture(deactivated != null);
+        }
+
+        @Override
+        public List<Alert> active() {
+            List<Alert> active = new ArrayList<>();
+            for (Alert alert : alerts.values()) {
+                if (ACTIVE.equals(alert.getStatus())) {
+                    active.add(alert);
+                }
+            }
+            return active;
+        }
+    }
+
+    private static final class Users implements UserRepository {
+        private final Map<Role, Map<String, Account>> accounts = new EnumMap<>(Role.class);
+        private final AtomicLong ids = new AtomicLong();
+
+        Users() {
+            for (Role role : Role.values()) {
+                accounts.put(role, new ConcurrentHashMap<>());
+            }
+        }
+
+        @Override
+        public synchronized boolean register(Role role, String username, String password, String location) {
+            // Checked first so a duplicate does not use up an id
+            Map<String, Account> byName = accounts.get(role);
+            if (byName.containsKey(username)) {
+                return false;
+            }
+            byName.put(username, new Account(new User(ids.incrementAndGet(), role, username, location), password));
+            return true;
+        }
+
+        @Override
+        public User authenticate(Role role, String username, String password) {
+            Account account = accounts.get(role).get(username);
+            return account != null && account.password.equals(password) ? account.user : null;
+        }
+
+        @Override
+        public User find(Role role, String username) {
+            Account account = accounts.get(role).get(username);
+            return account == null ? null : account.user;
+        }
+
+        @Override
+        public long count(Role role) {
+            return accounts.get(role).size();
+        }
+
+        private static final class Account {
+            final User user;
+            final String password;
+
+            Account(User user, String password) {
+                this.user = user;
+                this.password = password;
+            }
+        }
+    }
+}
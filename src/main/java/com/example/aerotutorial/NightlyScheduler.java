@@ -0,0 +1,75 @@
+package com.example.aerotutorial;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs background jobs once a day at a fixed local hour, each on its own
+ * daemon thread. The next run is computed from the local calendar after
+ * every run, so a job keeps its hour across daylight saving changes
+ * instead of drifting by the hour a fixed 24h period would.
+ */
+public final class NightlyScheduler {
+
+    /**
+     * A nightly job
+     */
+    @FunctionalInterface
+    public interface Job {
+        void run() throws Exception;
+    }
+
+    private NightlyScheduler() {
+    }
+
+    /**
+     * Run a job every night at the given local hour
+     * @param name Job name, used for the thread and log lines
+     * @param hour Local hour of day (0-23)
+     * @param job The job; a failed run is logged and the next one still happens
+     */
+    public static void schedule(String name, int hour, Job job) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+        long delayMinutes = arm(scheduler, name, hour, job).toMinutes();
+        System.out.println("✓ " + name + " scheduled daily at " + hour + ":00 (first run in " + delayMinutes + " min)");
+    }
+
+    /**
+     * Schedule the next run, which schedules the one after it when done
+     */
+    private static Duration arm(ScheduledExecutorService scheduler, String name, int hour, Job job) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
+        Duration delay = Duration.between(now, nextRun(now, hour));
+        scheduler.schedule(() -> {
+            try {
+                job.run();
+            } catch (Exception e) {
+                System.err.println("❌ " + name + " failed: " + e.getMessage());
+            } finally {
+                arm(scheduler, name, hour, job);
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        return delay;
+    }
+
+    /**
+     * The first time after now at the given local hour. On a day where the
+     * hour does not exist (clocks skip it) the run moves to the first
+     * instant after the gap.
+     */
+    static ZonedDateTime nextRun(ZonedDateTime now, int hour) {
+        ZonedDateTime next = now.toLocalDate().atTime(hour, 0).atZone(now.getZone());
+        if (!next.isAfter(now)) {
+            next = now.toLocalDate().plusDays(1).atTime(hour, 0).atZone(now.getZone());
+        }
+        return next;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.aerotutorial;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Live data from the OpenWeatherMap air pollution API
+ */
+public class OpenWeatherMapProvider implements AirQualityProvider {
+    private static final String BASE_URL = "http://api.openweathermap.org/data/2.5/air_pollution";
+
+    @Override
+    public String name() {
+        return "openweathermap";
+    }
+
+    @Override
+    public CompletableFuture<String> fetchCurrentAsync(double lat, double lon) {
+        String urlStr;
+        try {
+            urlStr = String.format(BASE_URL + "?lat=%f&lon=%f&appid=%s", lat, lon, ConfigLoader.getApiKey());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        FetchMetrics.debug(() -> "Calling API: " + HttpService.maskUrl(urlStr));
+        return HttpService.getAsync(urlStr);
+    }
+
+    @Override
+    public CompletableFuture<InputStream> fetchHistoryAsync(double lat, double lon, long startTime, long endTime) {
+        String urlStr;
+        try {
+            urlStr = String.format(BASE_URL + "/history?lat=%f&lon=%f&start=%d&end=%d&appid=%s",
+                    lat, lon, startTime, endTime, ConfigLoader.getApiKey());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        FetchMetrics.debug(() -> "Fetching historical data from: " + HttpService.maskUrl(urlStr));
+        return HttpService.getStreamAsync(urlStr);
+    }
+
+    @Override
+    public CompletableFuture<InputStream> fetchForecastAsync(double lat, double lon) {
+        String urlStr;
+        try {
+            urlStr = String.format(BASE_URL + "/forecast?lat=%f&lon=%f&appid=%s", lat, lon, ConfigLoader.getApiKey());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        FetchMetrics.debug(() -> "Fetching forecast from: " + HttpService.maskUrl(urlStr));
+        return HttpService.getStreamAsync(urlStr);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.aerotutorial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Measures fetch + parse + AQI throughput against the fixture provider, with
+ * no network or API key needed. Latency and error injection come from the
+ * aq.fixture.* config keys (or -D overrides). Run with
+ * -XX:StartFlightRecording:filename=load.jfr to capture the fetch, parse and
+ * AQI calculation events as well. Given a storage engine, fetched history is
+ * also stored through it ("memory" to leave the database out of the numbers,
+ * "sqlite" to include it).
+ *
+ * Usage: PipelineLoadBenchmark [locations] [concurrency] [historyDays] [sqlite|memory]
+ */
+public class PipelineLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int locations = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int historyDays = args.length > 2 ? Integer.parseInt(args[2]) : 7;
+        Storage storage = args.length > 3 ? StorageEngines.forName(args[3]) : null;
+        if (storage instanceof SqliteStorage) {
+            DBSetup.initialize();
+        }
+
+        if (System.getProperty("aq.provider") == null) {
+            System.setProperty("aq.provider", "fixture");
+        }
+        AirQualityProvider provider = AirQualityProviders.configured();
+
+        // Distinct 0.01° cells so the cache and request coalescing do not hide any work
+        List<Coordinate> coordinates = new ArrayList<>(locations);
+        for (int i = 0; i < locations; i++) {
+            coordinates.add(new Coordinate(23.0 + (i / 100) * 0.01, 90.0 + (i % 100) * 0.01));
+        }
+
+        BulkAQIFetcher.BulkResult current = BulkAQIFetcher.fetchAll(coordinates, concurrency);
+
+        long start = System.nanoTime();
+        long end = System.currentTimeMillis() / 1000;
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<CompletableFuture<Integer>> history = new ArrayList<>(locations);
+        for (Coordinate c : coordinates) {
+            inFlight.acquireUninterruptibly();
+            List<PollutantReading> fetched = new ArrayList<>();
+            CompletableFuture<Integer> stream = AQIFetcher.streamHistoryAsync(c.getLat(), c.getLon(),
+                    end - historyDays * 86400L, end, storage == null ? reading -> { } : fetched::add);
+            if (storage != null) {
+                stream = stream.thenApply(count -> storage.readings().store(c.cellKey(), fetched));
+            }
+            history.add(stream.whenComplete((count, ex) -> inFlight.release()));
+        }
+        long readings = 0;
+        int historyFailures = 0;
+        for (CompletableFuture<Integer> f : history) {
+            try {
+                readings += f.join();
+            } catch (Exception e) {
+                historyFailures++;
+            }
+        }
+        long historyMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        System.out.println();
+        System.out.println("=== Pipeline load test (" + provider.name() + ", concurrency " + concurrency
+                + (storage != null ? ", " + storage.name() + " storage" : "") + ") ===");
+        System.out.printf("Current:  %d ok, %d failed in %d ms (%.1f locations/s)%n",
+                current.getValues().size(), current.getFailures().size(), current.getElapsedMillis(),
+                current.size() * 1000.0 / Math.max(1, current.getElapsedMillis()));
+        System.out.printf("History:  %d ok, %d failed, %d readings in %d ms (%.1f locations/s, %.0f readings/s)%n",
+                locations - historyFailures, historyFailures, readings, historyMs,
+                locations * 1000.0 / historyMs, readings * 1000.0 / historyMs);
+        if (provider instanceof FixtureProvider fixture) {
+            System.out.println("Provider: " + fixture.getRequestCount() + " calls, "
+                    + fixture.getInjectedErrorCount() + " injected failures");
+        }
+        System.out.println(FetchMetrics.report());
+        System.exit(0);
+    }
+}
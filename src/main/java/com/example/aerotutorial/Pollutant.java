@@ -0,0 +1,41 @@
+package com.example.aerotutorial;
+
+/**
+ * The six pollutants reported by the air pollution API.
+ */
+public enum Pollutant {
+    PM25("pm2_5", "PM2.5"),
+    PM10("pm10", "PM10"),
+    NO2("no2", "NO₂"),
+    O3("o3", "O₃"),
+    SO2("so2", "SO₂"),
+    CO("co", "CO");
+
+    private final String apiKey;
+    private final String displayName;
+
+    Pollutant(String apiKey, String displayName) {
+        this.apiKey = apiKey;
+        this.displayName = displayName;
+    }
+
+    /** Field name in the API's "components" object */
+    public String getApiKey() { return apiKey; }
+
+    public String getDisplayName() { return displayName; }
+
+    /**
+     * Concentration of this pollutant in a reading (μg/m³)
+     */
+    public double valueOf(PollutantReading reading) {
+        switch (this) {
+            case PM25: return reading.getPm25();
+            case PM10: return reading.getPm10();
+            case NO2: return reading.getNo2();
+            case O3: return reading.getO3();
+            case SO2: return reading.getSo2();
+            case CO: return reading.getCo();
+            default: throw new IllegalStateException("Unknown pollutant " + this);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Forecasts each of the six pollutant concentrations separately and derives
+ * the AQI from them with the standard's breakpoint tables, the same max rule
+ * used for current readings. Unlike a forecast of the AQI series itself,
+ * this shows which pollutant is expected to drive the index.
+ * The six series are fitted in parallel. As in {@link BatchForecastJob},
+ * forecast hours start at the hour after the current one, however old the
+ * last stored reading.
+ */
+public final class PollutantForecaster {
+    private static final long HOUR = 3600;
+
+    private PollutantForecaster() {
+    }
+
+    /**
+     * Forecast a grid cell from its stored hourly concentrations (aq_hourly)
+     * with the configured model and AQI standard
+     * @param cell Grid cell key ({@link Coordinate#cellKey})
+     * @param historyHours How much history to fit on
+     * @param horizonHours Hours ahead of the current hour
+     * @return Forecast, or null if too little history is stored
+     * @throws IllegalArgumentException If the horizon is not positive
+     */
+    public static Forecast forecastCell(String cell, int historyHours, int horizonHours) throws SQLException {
+        if (horizonHours <= 0) {
+            throw new IllegalArgumentException("Forecast horizon must be positive: " + horizonHours);
+        }
+        ForecastModel model = ForecastModels.configured();
+        long now = System.currentTimeMillis() / 1000;
+        long currentHour = now - now % HOUR;
+        long since = now - historyHours * HOUR;
+
+        TimeSeries[] columns = new TimeSeries[Pollutant.values().length];
+        for (int p = 0; p < columns.length; p++) {
+            columns[p] = new TimeSeries(cell, HOUR);
+        }
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT ts, pm25, pm10, no2, o3, so2, co FROM aq_hourly " +
+                     "WHERE cell=? AND ts>=? AND pm25 IS NOT NULL ORDER BY ts")) {
+            stmt.setString(1, cell);
+            stmt.setLong(2, since);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long ts = rs.getLong(1);
+                    for (int p = 0; p < columns.length; p++) {
+                        columns[p].add(ts, rs.getDouble(p + 2));
+                    }
+                }
+            }
+        }
+
+        // Every column saw the same timestamps, so they line up step for step
+        int length = columns[0].length;
+        if (length < model.minPoints()) {
+            return null;
+        }
+        double[][] series = new double[columns.length][];
+        for (int p = 0; p < columns.length; p++) {
+            series[p] = columns[p].values;
+        }
+        // Hours between the last reading and now are forecast but not shown
+        int skip = (int) Math.max(0, (currentHour - columns[0].lastTs) / HOUR);
+        return forecast(series, length, skip, horizonHours, model, AqiStandard.configured(), columns[0].lastTs, HOUR);
+    }
+
+    /**
+     * Forecast each pollutant and combine the results into an AQI forecast
+     * @param series One concentration series per pollutant (μg/m³), indexed by {@link Pollutant#ordinal()}
+     * @param length Number of points to use from the start of each series
+     * @param skip Steps after the last point that are forecast but left out of the result
+     * @param horizon Steps in the result
+     * @param model Model fitted to every pollutant
+     * @param standard Standard whose breakpoints turn concentrations into sub-indices
+     * @param lastTs Timestamp of the last point (epoch seconds)
+     * @param step Step length in seconds
+     */
+    public static Forecast forecast(double[][] series, int length, int skip, int horizon, ForecastModel model,
+                                    AqiStandard standard, long lastTs, long step) {
+        Pollutant[] pollutants = Pollutant.values();
+        if (series.length != pollutants.length) {
+            throw new IllegalArgumentException("Need one series per pollutant");
+        }
+        if (horizon <= 0) {
+            throw new IllegalArgumentException("Forecast horizon must be positive: " + horizon);
+        }
+        if (skip < 0) {
+            throw new IllegalArgumentException("Skipped steps cannot be negative: " + skip);
+        }
+
+        PredictionEngine.PredictionResult[] fitted = Arrays.stream(pollutants)
+                .parallel()
+                .map(p -> model.forecast(series[p.ordinal()], 0, length, skip + horizon))
+                .toArray(PredictionEngine.PredictionResult[]::new);
+        PredictionEngine.PredictionResult[] components = new PredictionEngine.PredictionResult[fitted.length];
+        for (int p = 0; p < fitted.length; p++) {
+            if (!fitted[p].isValid()) {
+                throw new IllegalArgumentException("Not enough data for " + model.name());
+            }
+            components[p] = dropSteps(fitted[p], skip);
+        }
+
+        double[] means = new double[horizon];
+        double[] lower = new double[horizon];
+        double[] upper = new double[horizon];
+        Pollutant[] dominant = new Pollutant[horizon];
+        int[] dominantSteps = new int[pollutants.length];
+        for (int h = 0; h < horizon; h++) {
+            // Sub-indices rise with concentration, so the max rule can be applied
+            // to the bounds as well as to the point forecasts
+            int best = 0;
+            int bestIndex = -1;
+            int low = 0;
+            int high = 0;
+            for (int p = 0; p < pollutants.length; p++) {
+                int index = standard.subIndex(pollutants[p], components[p].means[h]);
+                if (index > bestIndex) {
+                    best = p;
+                    bestIndex = index;
+                }
+                low = Math.max(low, standard.subIndex(pollutants[p], components[p].lower[h]));
+                high = Math.max(high, standard.subIndex(pollutants[p], components[p].upper[h]));
+            }
+            means[h] = bestIndex;
+            lower[h] = low;
+            upper[h] = high;
+            dominant[h] = pollutants[best];
+            dominantSteps[best]++;
+        }
+
+        int overall = 0;
+        for (int p = 1; p < dominantSteps.length; p++) {
+            if (dominantSteps[p] > dominantSteps[overall]) overall = p;
+        }
+
+        long[] timestamps = new long[horizon];
+        for (int h = 0; h < horizon; h++) {
+            timestamps[h] = lastTs + (skip + h + 1) * step;
+        }
+        PredictionEngine.PredictionResult aqi = PredictionEngine.PredictionResult
+                .fromModel(model.name() + "/pollutants", means[0], (means[horizon - 1] - means[0]) / Math.max(1, horizon - 1),
+                        means, lower, upper, Double.NaN)
+                .withDominant(pollutants[overall]);
+        return new Forecast(aqi, components, dominant, timestamps);
+    }
+
+    /**
+     * The same forecast without its first steps
+     */
+    private static PredictionEngine.PredictionResult dropSteps(PredictionEngine.PredictionResult r, int steps) {
+        if (steps == 0) {
+            return r;
+        }
+        int end = r.means.length;
+        return PredictionEngine.PredictionResult.fromModel(r.source, r.intercept, r.slope,
+                Arrays.copyOfRange(r.means, steps, end), Arrays.copyOfRange(r.lower, steps, end),
+                Arrays.copyOfRange(r.upper, steps, end), r.stdError);
+    }
+
+    /**
+     * AQI forecast built from per-pollutant forecasts
+     */
+    public static class Forecast {
+        private final PredictionEngine.PredictionResult aqi;
+        private final PredictionEngine.PredictionResult[] components;
+        private final Pollutant[] dominant;
+        private final long[] timestamps;
+
+        Forecast(PredictionEngine.PredictionResult aqi, PredictionEngine.PredictionResult[] components,
+                 Pollutant[] dominant, long[] timestamps) {
+            this.aqi = aqi;
+            this.components = components;
+            this.dominant = dominant;
+            this.timestamps = timestamps;
+        }
+
+        /** Combined AQI with bounds; its dominant pollutant is the one driving the most steps */
+        public PredictionEngine.PredictionResult getAqi() { return aqi; }
+
+        /** Concentration forecast (μg/m³) for one pollutant */
+        public PredictionEngine.PredictionResult getComponent(Pollutant pollutant) {
+            return components[pollutant.ordinal()];
+        }
+
+        /** Pollutant that sets the AQI at one step (0-based) */
+        public Pollutant getDominant(int step) { return dominant[step]; }
+
+        public Pollutant getDominant() { return aqi.dominant; }
+
+        public long[] getTimestamps() { return timestamps; }
+
+        public int horizon() { return timestamps.length; }
+
+        /**
+         * Hourly view of the combined forecast, for the forecast chart
+         */
+        public PredictionEngine.PredictionResult toHourly(ZoneId zone) {
+            int[] hourly = new int[timestamps.length];
+            for (int h = 0; h < hourly.length; h++) {
+                hourly[h] = (int) Math.round(aqi.means[h]);
+            }
+            return PredictionEngine.PredictionResult.fromForecast(aqi.source, timestamps, hourly, zone)
+                    .withDominant(aqi.dominant);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.aerotutorial;
+
+/**
+ * One air quality observation: the six pollutant concentrations (μg/m³)
+ * reported by the provider plus the overall AQI derived from them.
+ */
+public final class PollutantReading {
+    private final long timestamp;
+    private final double pm25, pm10, no2, o3, so2, co;
+    private final int aqi;
+
+    /**
+     * @param timestamp Observation time in epoch seconds
+     */
+    public PollutantReading(long timestamp, double pm25, double pm10, double no2,
+                            double o3, double so2, double co, int aqi) {
+        this.timestamp = timestamp;
+        this.pm25 = pm25;
+        this.pm10 = pm10;
+        this.no2 = no2;
+        this.o3 = o3;
+        this.so2 = so2;
+        this.co = co;
+        this.aqi = aqi;
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public double getPm25() { return pm25; }
+    public double getPm10() { return pm10; }
+    public double getNo2() { return no2; }
+    public double getO3() { return o3; }
+    public double getSo2() { return so2; }
+    public double getCo() { return co; }
+    public int getAqi() { return aqi; }
+}
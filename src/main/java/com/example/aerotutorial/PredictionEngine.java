@@ -1,6 +1,8 @@
 package com.example.aerotutorial;
 
-
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 public class PredictionEngine {
@@ -9,41 +11,297 @@ public class PredictionEngine {
         int n = series.size();
         if (n < 2) return PredictionResult.invalid("Not enough data");
 
-        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        long sumY = 0, sumXY = 0;
         for (int i = 0; i < n; i++) {
-            double x = i;
-            double y = series.get(i);
-            sumX += x;
+            int y = series.get(i);
             sumY += y;
-            sumXX += x * x;
-            sumXY += x * y;
+            sumXY += (long) i * y;
         }
+        return fit(n, sumY, sumXY);
+    }
 
-        double denom = n * sumXX - sumX * sumX;
-        if (Math.abs(denom) < 1e-8) {
-            double avg = series.stream().mapToInt(Integer::intValue).average().orElse(Double.NaN);
-            return PredictionResult.fromAvg(avg, n);
+    /**
+     * Batch overload: fit a line through series[from, from + length) without
+     * boxing. x runs 0..length-1 as in {@link #predictNextDay(List)}.
+     */
+    public static PredictionResult predictNextDay(int[] series, int from, int length) {
+        if (length < 2) return PredictionResult.invalid("Not enough data");
+        return fit(length, sumY(series, from, length), sumXY(series, from, length));
+    }
+
+    public static PredictionResult predictNextDay(int[] series) {
+        return predictNextDay(series, 0, series.length);
+    }
+
+    /**
+     * Batch overload for fractional values (e.g. daily means)
+     */
+    public static PredictionResult predictNextDay(double[] series, int from, int length) {
+        if (length < 2) return PredictionResult.invalid("Not enough data");
+        double sumY = 0, sumXY = 0;
+        for (int i = 0; i < length; i++) {
+            double y = series[from + i];
+            sumY += y;
+            sumXY += i * y;
         }
+        return fit(length, sumY, sumXY);
+    }
 
-        double slope = (n * sumXY - sumX * sumY) / denom;
-        double intercept = (sumY - slope * sumX) / n;
+    public static PredictionResult predictNextDay(double[] series) {
+        return predictNextDay(series, 0, series.length);
+    }
 
-        double pred = intercept + slope * n; // next day
-        pred = Math.max(0, Math.min(500, pred)); // clamp 0-500
+    /**
+     * Multi-step forecast with 95% bounds using the model selected by
+     * "forecast.model" (see {@link ForecastModels})
+     * @param series Observations, oldest first (e.g. hourly AQI)
+     * @param horizon Number of steps ahead
+     */
+    public static PredictionResult forecast(double[] series, int horizon) {
+        return ForecastModels.configured().forecast(series, horizon);
+    }
+
+    /**
+     * Next value only, with no result object, for callers predicting many
+     * series in a loop
+     * @return Clamped prediction, or NaN with fewer than two points
+     */
+    public static double predictNextValue(int[] series, int from, int length) {
+        if (length < 2) return Double.NaN;
+        double sumY = sumY(series, from, length);
+        double slope = slope(length, sumY, sumXY(series, from, length));
+        return clamp(intercept(length, sumY, slope) + slope * length);
+    }
+
+    private static long sumY(int[] series, int from, int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += series[from + i];
+        }
+        return sum;
+    }
 
+    private static long sumXY(int[] series, int from, int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += (long) i * series[from + i];
+        }
+        return sum;
+    }
+
+    /**
+     * Least-squares line through (0, y0) .. (n-1, yn-1) given the running sums.
+     * sumX and sumXX only depend on n, so they are computed in closed form.
+     */
+    private static PredictionResult fit(int n, double sumY, double sumXY) {
+        double slope = slope(n, sumY, sumXY);
+        double intercept = intercept(n, sumY, slope);
+        double pred = clamp(intercept + slope * n); // next day
         return new PredictionResult(pred, slope, intercept);
     }
 
+    private static double slope(int n, double sumY, double sumXY) {
+        double sumX = n * (n - 1) / 2.0;
+        double sumXX = (n - 1) * (double) n * (2 * n - 1) / 6.0;
+        double denom = n * sumXX - sumX * sumX; // n²(n²-1)/12, positive for n >= 2
+        return (n * sumXY - sumX * sumY) / denom;
+    }
+
+    private static double intercept(int n, double sumY, double slope) {
+        return (sumY - slope * (n - 1) / 2.0 * n) / n;
+    }
+
+    private static double clamp(double aqi) {
+        return Math.max(0, Math.min(500, aqi)); // clamp 0-500
+    }
+
+    /**
+     * Per-location predictor over the most recent readings.
+     * Keeps the values in a ring buffer and the regression sums in primitive
+     * fields, so adding a reading and predicting are both O(1) and allocate
+     * nothing. When the window is full, adding a reading drops the oldest one
+     * and shifts every x down by one:
+     * sumXY' = sumXY - (sumY - y0) + (n-1)·y.
+     * Sums are exact longs, so there is no drift however long it runs.
+     */
+    public static final class SlidingWindow {
+        private final int[] values;
+        private int head;
+        private int size;
+        private long sumY;
+        private long sumXY;
+
+        /**
+         * @param capacity Number of most recent readings to fit (e.g. 7 days)
+         */
+        public SlidingWindow(int capacity) {
+            if (capacity < 2) {
+                throw new IllegalArgumentException("Window needs at least 2 slots");
+            }
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Add the newest reading, evicting the oldest if the window is full
+         */
+        public void add(int y) {
+            int capacity = values.length;
+            if (size < capacity) {
+                values[(head + size) % capacity] = y;
+                sumXY += (long) size * y;
+                sumY += y;
+                size++;
+            } else {
+                int oldest = values[head];
+                sumXY += -(sumY - oldest) + (long) (size - 1) * y;
+                sumY += y - oldest;
+                values[head] = y;
+                head = (head + 1) % capacity;
+            }
+        }
+
+        public void clear() {
+            head = 0;
+            size = 0;
+            sumY = 0;
+            sumXY = 0;
+        }
+
+        public int size() { return size; }
+        public int capacity() { return values.length; }
+        public boolean isEmpty() { return size == 0; }
+
+        /**
+         * @param i 0 for the oldest reading, size()-1 for the newest
+         */
+        public int get(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            return values[(head + i) % values.length];
+        }
+
+        public int last() {
+            return get(size - 1);
+        }
+
+        /**
+         * @return Predicted next value clamped to 0-500, or NaN with fewer than two readings
+         */
+        public double predictNext() {
+            if (size < 2) return Double.NaN;
+            double slope = slope();
+            return clamp(intercept(size, sumY, slope) + slope * size);
+        }
+
+        /**
+         * @return Trend in AQI per reading (0 with fewer than two readings)
+         */
+        public double slope() {
+            return size < 2 ? 0 : PredictionEngine.slope(size, sumY, sumXY);
+        }
+
+        /**
+         * Same result as {@link PredictionEngine#predictNextDay(List)} on the window contents
+         */
+        public PredictionResult predict() {
+            if (size < 2) return PredictionResult.invalid("Not enough data");
+            return fit(size, sumY, sumXY);
+        }
+
+        /**
+         * @return Copy of the readings, oldest first
+         */
+        public int[] toArray() {
+            int[] copy = new int[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = get(i);
+            }
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return java.util.Arrays.toString(toArray());
+        }
+    }
+
     // PredictionResult class
     public static class PredictionResult {
+        private static final long[] NO_TIMESTAMPS = new long[0];
+        private static final int[] NO_HOURS = new int[0];
+        private static final double[] NO_STEPS = new double[0];
+
         public final double predicted;
         public final double slope;
         public final double intercept;
 
+        // Hourly forecast from the provider; empty for local regression
+        public final long[] hourlyTimestamps;
+        public final int[] hourlyAqi;
+        public final String source;
+
+        // Multi-step forecast from a ForecastModel with 95% bounds; empty otherwise
+        public final double[] means;
+        public final double[] lower;
+        public final double[] upper;
+        // One-step in-sample residual standard deviation (NaN if unknown)
+        public final double stdError;
+        // Pollutant expected to drive the forecast AQI; null if not forecast per pollutant
+        public final Pollutant dominant;
+
         public PredictionResult(double predicted, double slope, double intercept) {
+            this(predicted, slope, intercept, NO_TIMESTAMPS, NO_HOURS, "regression");
+        }
+
+        public PredictionResult(double predicted, double slope, double intercept,
+                                long[] hourlyTimestamps, int[] hourlyAqi, String source) {
+            this(predicted, slope, intercept, hourlyTimestamps, hourlyAqi, source,
+                    NO_STEPS, NO_STEPS, NO_STEPS, Double.NaN, null);
+        }
+
+        private PredictionResult(double predicted, double slope, double intercept,
+                                 long[] hourlyTimestamps, int[] hourlyAqi, String source,
+                                 double[] means, double[] lower, double[] upper, double stdError,
+                                 Pollutant dominant) {
             this.predicted = predicted;
             this.slope = slope;
             this.intercept = intercept;
+            this.hourlyTimestamps = hourlyTimestamps;
+            this.hourlyAqi = hourlyAqi;
+            this.source = source;
+            this.means = means;
+            this.lower = lower;
+            this.upper = upper;
+            this.stdError = stdError;
+            this.dominant = dominant;
+        }
+
+        /**
+         * Wrap a multi-step model forecast
+         * @param model Model name, kept in {@link #source}
+         * @param level Last fitted level (kept in {@link #intercept})
+         * @param slope Trend per step
+         * @param means Point forecast for steps 1..h
+         * @param lower Lower 95% bound for each step
+         * @param upper Upper 95% bound for each step
+         * @param stdError One-step residual standard deviation
+         */
+        public static PredictionResult fromModel(String model, double level, double slope,
+                                                 double[] means, double[] lower, double[] upper, double stdError) {
+            if (means.length == 0 || lower.length != means.length || upper.length != means.length) {
+                throw new IllegalArgumentException("Forecast needs matching mean and bound arrays");
+            }
+            return new PredictionResult(means[0], slope, level, NO_TIMESTAMPS, NO_HOURS, model,
+                    means, lower, upper, stdError, null);
+        }
+
+        /**
+         * Copy of this result naming the pollutant that drives it
+         */
+        public PredictionResult withDominant(Pollutant pollutant) {
+            return new PredictionResult(predicted, slope, intercept, hourlyTimestamps, hourlyAqi, source,
+                    means, lower, upper, stdError, pollutant);
         }
 
         public static PredictionResult invalid(String msg) {
@@ -53,6 +311,58 @@ public class PredictionEngine {
         public static PredictionResult fromAvg(double avg, int pointsUsed) {
             return new PredictionResult(avg, 0, 0);
         }
+
+        /**
+         * Wrap an hourly provider forecast.
+         * predicted is tomorrow's average AQI, slope is the change from
+         * today's average (AQI per day) and intercept is the first hour.
+         * @param source Provider name
+         * @param timestamps Hour start times (epoch seconds), ascending
+         * @param aqi AQI for each hour
+         * @param zone Time zone that defines "today" and "tomorrow"
+         */
+        public static PredictionResult fromForecast(String source, long[] timestamps, int[] aqi, ZoneId zone) {
+            if (aqi.length == 0 || timestamps.length != aqi.length) {
+                throw new IllegalArgumentException("Forecast has no hourly values");
+            }
+            long tomorrow = LocalDate.now(zone).plusDays(1).toEpochDay();
+            long todaySum = 0, tomorrowSum = 0;
+            int todayCount = 0, tomorrowCount = 0;
+            for (int i = 0; i < aqi.length; i++) {
+                long day = Instant.ofEpochSecond(timestamps[i]).atZone(zone).toLocalDate().toEpochDay();
+                if (day < tomorrow) {
+                    todaySum += aqi[i];
+                    todayCount++;
+                } else if (day == tomorrow) {
+                    tomorrowSum += aqi[i];
+                    tomorrowCount++;
+                }
+            }
+            double today = todayCount > 0 ? (double) todaySum / todayCount : aqi[0];
+            double next = tomorrowCount > 0 ? (double) tomorrowSum / tomorrowCount : aqi[aqi.length - 1];
+            return new PredictionResult(next, next - today, aqi[0], timestamps, aqi, source);
+        }
+
+        /**
+         * @return true if this result carries an hourly provider forecast
+         */
+        public boolean isForecast() {
+            return hourlyAqi.length > 0;
+        }
+
+        /**
+         * @return Number of forecast steps with bounds (0 if not from a model)
+         */
+        public int horizon() {
+            return means.length;
+        }
+
+        /**
+         * @return false if there was not enough data to predict
+         */
+        public boolean isValid() {
+            return !Double.isNaN(predicted);
+        }
     }
 
 }
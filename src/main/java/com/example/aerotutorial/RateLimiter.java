@@ -0,0 +1,70 @@
+package com.example.aerotutorial;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter.
+ * Tokens refill continuously at a fixed rate up to the bucket capacity, so short
+ * bursts are allowed while the long-run rate never exceeds the configured quota.
+ */
+public class RateLimiter {
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param permitsPerMinute Sustained rate (e.g. the API's per-minute quota)
+     * @param burst Maximum number of permits that can be taken at once
+     */
+    public RateLimiter(int permitsPerMinute, int burst) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.capacity = burst;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / (double) permitsPerMinute;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Take one permit, sleeping until it is available.
+     * Callers reserve their slot under the lock and sleep outside it, so waiting
+     * threads never block each other.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take one permit without waiting for it
+     * @return Nanoseconds until the permit may be used (0 if right away)
+     */
+    public synchronized long reserve() {
+        refill();
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens * nanosPerToken);
+    }
+
+    /**
+     * Take one permit only if it is available right now
+     * @return true if a permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.aerotutorial;
+
+import java.util.List;
+
+/**
+ * Hourly pollutant readings per grid cell ({@link Coordinate#cellKey}),
+ * at most one per cell and timestamp. Storage failures are thrown as
+ * IllegalStateException.
+ */
+public interface ReadingRepository {
+
+    /**
+     * Store readings for a cell, replacing any stored with the same timestamps
+     * @return Readings written
+     */
+    int store(String cell, List<PollutantReading> readings);
+
+    /**
+     * Readings of a cell in a time range, oldest first
+     * @param fromTs Range start (epoch seconds, inclusive)
+     * @param toTs Range end (epoch seconds, inclusive)
+     */
+    List<PollutantReading> range(String cell, long fromTs, long toTs);
+
+    /**
+     * @return Newest reading of a cell, or null if none is stored
+     */
+    PollutantReading latest(String cell);
+
+    /**
+     * @return Readings stored across all cells
+     */
+    long count();
+}
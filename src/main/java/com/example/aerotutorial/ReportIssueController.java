@@ -1,5 +1,6 @@
 package com.example.aerotutorial;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -8,8 +9,6 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ResourceBundle;
@@ -82,41 +81,23 @@ public class ReportIssueController implements Initializable {
             return;
         }
 
-        try {
-            Connection conn = DBConnector.getInstance().getConnection();
-
-            // Create table if not exists
-            String createTableSQL = "CREATE TABLE IF NOT EXISTS reports(" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                    "reporter_name TEXT NOT NULL, " +
-                    "location TEXT NOT NULL, " +
-                    "issue_type TEXT NOT NULL, " +
-                    "severity TEXT NOT NULL, " +
-                    "aqi_value TEXT, " +
-                    "description TEXT NOT NULL, " +
-                    "contact TEXT, " +
-                    "status TEXT DEFAULT 'Pending', " +
-                    "submitted_date TEXT NOT NULL)";
-            conn.createStatement().execute(createTableSQL);
-
-            // Insert report
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT INTO reports(reporter_name, location, issue_type, severity, aqi_value, description, contact, submitted_date) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
-            );
-            stmt.setString(1, reporterName);
-            stmt.setString(2, location);
-            stmt.setString(3, issueType);
-            stmt.setString(4, severity);
-            stmt.setString(5, aqiValue.isEmpty() ? "Not specified" : aqiValue);
-            stmt.setString(6, description);
-            stmt.setString(7, contact.isEmpty() ? "Not provided" : contact);
-            stmt.setString(8, LocalDateTime.now().toString());
-
-            int rows = stmt.executeUpdate();
-
-            if (rows > 0) {
-                System.out.println("✅ Report submitted successfully");
+        statusLabel.setStyle("-fx-text-fill: gray;");
+        statusLabel.setText("Submitting report...");
+
+        // Written in the background (queued by the SQLite engine); the form stays responsive meanwhile
+        String submittedDate = LocalDateTime.now().toString();
+        ReportRepository.Report report = new ReportRepository.Report(0, reporterName, location, issueType, severity,
+                aqiValue.isEmpty() ? "Not specified" : aqiValue, description,
+                contact.isEmpty() ? "Not provided" : contact, ReportRepository.PENDING, submittedDate);
+        StorageEngines.shared().reports().submit(report).whenComplete((id, ex) -> Platform.runLater(() -> {
+            if (ex != null) {
+                ex.printStackTrace();
+                statusLabel.setStyle("-fx-text-fill: red;");
+                statusLabel.setText("❌ Error submitting report: " + HttpService.rootCause(ex).getMessage());
+                return;
+            }
+            if (id != null) {
+                System.out.println("✅ Report " + id + " submitted successfully");
                 statusLabel.setStyle("-fx-text-fill: green; -fx-font-size: 14px;");
                 statusLabel.setText("✅ Report submitted successfully! Government officials will review your report.");
 
@@ -124,18 +105,13 @@ public class ReportIssueController implements Initializable {
                 new Thread(() -> {
                     try {
                         Thread.sleep(2000);
-                        javafx.application.Platform.runLater(this::cancel);
+                        Platform.runLater(this::cancel);
                     } catch (InterruptedException e) {
                         e.printStackTrace();
                     }
                 }).start();
             }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            statusLabel.setStyle("-fx-text-fill: red;");
-            statusLabel.setText("❌ Error submitting report: " + e.getMessage());
-        }
+        }));
     }
 
     @FXML
@@ -0,0 +1,90 @@
+package com.example.aerotutorial;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Citizen reports of environmental issues.
+ * Writes return a future so an engine can queue them (the SQLite engine
+ * commits them through {@link WriteBehindQueue}); reads are synchronous and
+ * should run off the FX thread. Storage failures are thrown as
+ * IllegalStateException.
+ */
+public interface ReportRepository {
+    String PENDING = "Pending";
+
+    /**
+     * Store a new report; its id and status are ignored (new reports are {@link #PENDING})
+     * @return Future completing with the id of the stored report
+     */
+    CompletableFuture<Long> submit(Report report);
+
+    /**
+     * @return Future completing with false if no report has this id
+     */
+    CompletableFuture<Boolean> updateStatus(long id, String status);
+
+    /**
+     * @return The report, or null if no report has this id
+     */
+    Report find(long id);
+
+    /**
+     * Newest reports first
+     * @param status Only reports with this status, or null for all
+     * @param limit Most reports to return
+     */
+    List<Report> recent(String status, int limit);
+
+    /**
+     * @param status Only reports with this status, or null for all
+     */
+    long count(String status);
+
+    /**
+     * One stored (or new) report
+     */
+    class Report {
+        private final long id;
+        private final String reporterName;
+        private final String location;
+        private final String issueType;
+        private final String severity;
+        private final String aqiValue;
+        private final String description;
+        private final String contact;
+        private final String status;
+        private final String submittedDate;
+
+        public Report(long id, String reporterName, String location, String issueType, String severity,
+                      String aqiValue, String description, String contact, String status, String submittedDate) {
+            this.id = id;
+            this.reporterName = reporterName;
+            this.location = location;
+            this.issueType = issueType;
+            this.severity = severity;
+            this.aqiValue = aqiValue;
+            this.description = description;
+            this.contact = contact;
+            this.status = status;
+            this.submittedDate = submittedDate;
+        }
+
+        /** Same report with another id and status */
+        Report stored(long id, String status) {
+            return new Report(id, reporterName, location, issueType, severity, aqiValue, description, contact,
+                    status, submittedDate);
+        }
+
+        public long getId() { return id; }
+        public String getReporterName() { return reporterName; }
+        public String getLocation() { return location; }
+        public String getIssueType() { return issueType; }
+        public String getSeverity() { return severity; }
+        public String getAqiValue() { return aqiValue; }
+        public String getDescription() { return description; }
+        public String getContact() { return contact; }
+        public String getStatus() { return status; }
+        public String getSubmittedDate() { return submittedDate; }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over citizen reports.
+ * reports_fts is an FTS5 index over the description, location and issue
+ * type of each report. It is an external-content table (the text stays in
+ * reports only) kept in sync by triggers, so every write path is covered
+ * without code changes. A search is an index lookup ranked by BM25, with
+ * a snippet of the best matching column; its cost depends on the matches,
+ * not on how many reports are stored. Ranking scores every match, so a
+ * search matching more than "reports.search.rank.max" reports (a very
+ * common word) returns the newest matches instead, which FTS5 can stream
+ * in rowid order without scoring.
+ */
+public final class ReportSearch {
+    /** Marks the start of a matched term in {@link Hit#getSnippet()} */
+    public static final char HIGHLIGHT_START = '\u0002';
+    /** Marks the end of a matched term in {@link Hit#getSnippet()} */
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    private ReportSearch() {
+    }
+
+    /**
+     * Create the index and its triggers and index the existing reports. Must run in a transaction.
+     */
+    static void createIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE VIRTUAL TABLE IF NOT EXISTS reports_fts USING fts5(" +
+                    "description, location, issue_type, " +
+                    "content='reports', content_rowid='id', tokenize='unicode61 remove_diacritics 2')");
+
+            stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS reports_fts_insert AFTER INSERT ON reports BEGIN " +
+                    "INSERT INTO reports_fts(rowid, description, location, issue_type) " +
+                    "VALUES (new.id, new.description, new.location, new.issue_type); END");
+            stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS reports_fts_delete AFTER DELETE ON reports BEGIN " +
+                    "INSERT INTO reports_fts(reports_fts, rowid, description, location, issue_type) " +
+                    "VALUES ('delete', old.id, old.description, old.location, old.issue_type); END");
+            // Status changes do not touch the index
+            stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS reports_fts_update " +
+                    "AFTER UPDATE OF description, location, issue_type ON reports BEGIN " +
+                    "INSERT INTO reports_fts(reports_fts, rowid, description, location, issue_type) " +
+                    "VALUES ('delete', old.id, old.description, old.location, old.issue_type); " +
+                    "INSERT INTO reports_fts(rowid, description, location, issue_type) " +
+                    "VALUES (new.id, new.description, new.location, new.issue_type); END");
+
+            // Location and issue type hits weigh more than words in a long description
+            stmt.executeUpdate("INSERT INTO reports_fts(reports_fts, rank) VALUES ('rank', 'bm25(1.0, 2.0, 2.0)')");
+            stmt.executeUpdate("INSERT INTO reports_fts(reports_fts) VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Reports matching every word of a search, best match first
+     * (newest first when too many reports match to rank them)
+     * @param text Free text typed by the user; each word also matches as a prefix
+     * @param status Only reports with this status, or null for all
+     * @param limit Most hits to return
+     * @return Hits, empty if the text has no searchable words
+     */
+    public static List<Hit> search(String text, String status, int limit) throws SQLException {
+        List<Hit> hits = new ArrayList<>();
+        String match = toMatchExpression(text);
+        if (match.isEmpty()) {
+            return hits;
+        }
+
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            // Counting matches only walks the doclists, far cheaper than scoring them
+            boolean ranked;
+            try (PreparedStatement count = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM reports_fts WHERE reports_fts MATCH ?")) {
+                count.setString(1, match);
+                try (ResultSet rs = count.executeQuery()) {
+                    ranked = rs.next() && rs.getLong(1) <= ConfigLoader.getInt("reports.search.rank.max", 20000);
+                }
+            }
+            search(conn, match, status, limit, ranked, hits);
+        }
+        return hits;
+    }
+
+    private static void search(Connection conn, String match, String status, int limit, boolean ranked,
+                               List<Hit> hits) throws SQLException {
+        String sql = "SELECT r.id, r.submitted_date, r.reporter_name, r.location, r.issue_type, r.severity, r.status, " +
+                "snippet(reports_fts, -1, ?, ?, '…', 12) " +
+                "FROM reports_fts JOIN reports r ON r.id = reports_fts.rowid " +
+                "WHERE reports_fts MATCH ?" + (status != null ? " AND r.status = ?" : "") +
+                " ORDER BY " + (ranked ? "rank" : "reports_fts.rowid DESC") + " LIMIT ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            stmt.setString(index++, String.valueOf(HIGHLIGHT_START));
+            stmt.setString(index++, String.valueOf(HIGHLIGHT_END));
+            stmt.setString(index++, match);
+            if (status != null) {
+                stmt.setString(index++, status);
+            }
+            stmt.setInt(index, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    hits.add(new Hit(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8)));
+                }
+            }
+        }
+    }
+
+    /**
+     * FTS5 query for free text: every word quoted (so operators and
+     * punctuation typed by the user are not parsed) and matched as a prefix
+     */
+    static String toMatchExpression(String text) {
+        StringBuilder match = new StringBuilder();
+        if (text == null) {
+            return "";
+        }
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append('"').append(word).append("\"*");
+        }
+        return match.toString();
+    }
+
+    /**
+     * One matching report
+     */
+    public static class Hit {
+        private final int id;
+        private final String date;
+        private final String reporterName;
+        private final String location;
+        private final String issueType;
+        private final String severity;
+        private final String status;
+        private final String snippet;
+
+        Hit(int id, String date, String reporterName, String location, String issueType,
+            String severity, String status, String snippet) {
+            this.id = id;
+            this.date = date;
+            this.reporterName = reporterName;
+            this.location = location;
+            this.issueType = issueType;
+            this.severity = severity;
+            this.status = status;
+            this.snippet = snippet;
+        }
+
+        public int getId() { return id; }
+        public String getDate() { return date; }
+        public String getReporterName() { return reporterName; }
+        public String getLocation() { return location; }
+        public String getIssueType() { return issueType; }
+        public String getSeverity() { return severity; }
+        public String getStatus() { return status; }
+
+        /** Matching text with matched terms between {@link #HIGHLIGHT_START} and {@link #HIGHLIGHT_END} */
+        public String getSnippet() { return snippet; }
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.aerotutorial;
 
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -18,13 +17,14 @@ import javafx.stage.Stage;
 import netscape.javascript.JSObject;
 
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -52,12 +52,27 @@ public class ResearcherDashboardController implements Initializable {
     @FXML private VBox researchersListBox, publicationsListBox;
 
     // Data storage
-    private ObservableList<AirQualityData> dataHubList = FXCollections.observableArrayList();
+    private static final KeysetQuery<AirQualityData> RESEARCH_DATA = new KeysetQuery<>("research_data",
+            "timestamp, location, pm25, pm10, no2, o3, so2, co",
+            rs -> new AirQualityData(
+                    rs.getString("timestamp"),
+                    rs.getString("location"),
+                    rs.getDouble("pm25"),
+                    rs.getDouble("pm10"),
+                    rs.getDouble("no2"),
+                    rs.getDouble("o3"),
+                    rs.getDouble("so2"),
+                    rs.getDouble("co")
+            ));
+    private LazyTableLoader<AirQualityData> dataHubLoader;
+    private ObservableList<AirQualityData> dataHubList;
     private double selectedLat = 23.8103;
     private double selectedLon = 90.4125;
     private String selectedLocation = "Dhaka, Bangladesh";
     private String API_KEY;
 
+    private static final String USER_AGENT = "AeroSafe-Researcher/1.0";
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Load API key
@@ -84,7 +99,7 @@ public class ResearcherDashboardController implements Initializable {
             ConfigLoader.loadConfig();
             API_KEY = ConfigLoader.getProperty("openweather.api.key");
             if (API_KEY != null && !API_KEY.isEmpty()) {
-                System.out.println("✓ API Key loaded for researcher dashboard: " + API_KEY.substring(0, 8) + "...");
+                System.out.println("✓ API Key loaded for researcher dashboard");
             } else {
                 System.err.println("⚠️ API Key is empty!");
                 API_KEY = "";
@@ -130,40 +145,25 @@ public class ResearcherDashboardController implements Initializable {
             System.out.println("📍 Researcher selected location: " + lat + ", " + lon);
 
             // Fetch location name
-            new Thread(() -> {
-                String locationName = getLocationName(lat, lon);
-                Platform.runLater(() -> {
-                    selectedLocation = locationName;
-                    selectedLocationLabel.setText("📍 Selected: " + locationName);
-                    fetchDetailedPollutantData();
-                });
-            }).start();
+            getLocationNameAsync(lat, lon).thenAccept(locationName -> Platform.runLater(() -> {
+                selectedLocation = locationName;
+                selectedLocationLabel.setText("📍 Selected: " + locationName);
+                fetchDetailedPollutantData();
+            }));
         });
     }
 
     /** Get location name from coordinates */
-    private String getLocationName(double lat, double lon) {
-        try {
-            String urlString = String.format(
-                "https://nominatim.openstreetmap.org/reverse?format=json&lat=%.6f&lon=%.6f&zoom=10",
-                lat, lon
-            );
-            URL url = new URL(urlString);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", "AeroSafe-Researcher/1.0");
-            conn.setConnectTimeout(5000);
-
-            if (conn.getResponseCode() == 200) {
-                BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                reader.close();
+    private java.util.concurrent.CompletableFuture<String> getLocationNameAsync(double lat, double lon) {
+        String urlString = String.format(
+            "https://nominatim.openstreetmap.org/reverse?format=json&lat=%.6f&lon=%.6f&zoom=10",
+            lat, lon
+        );
+        String fallback = String.format("Lat: %.4f, Lon: %.4f", lat, lon);
 
-                JSONObject json = new JSONObject(response.toString());
+        return HttpService.getAsync(urlString, USER_AGENT, java.time.Duration.ofSeconds(5))
+            .thenApply(response -> {
+                JSONObject json = new JSONObject(response);
                 if (json.has("display_name")) {
                     String displayName = json.getString("display_name");
                     String[] parts = displayName.split(",");
@@ -172,18 +172,19 @@ public class ResearcherDashboardController implements Initializable {
                     }
                     return displayName;
                 }
-            }
-        } catch (Exception e) {
-            System.out.println("Error fetching location name: " + e.getMessage());
-        }
-        return String.format("Lat: %.4f, Lon: %.4f", lat, lon);
+                return fallback;
+            })
+            .exceptionally(e -> {
+                System.out.println("Error fetching location name: " + HttpService.rootCause(e).getMessage());
+                return fallback;
+            });
     }
 
     /** Fetch detailed pollutant data from API */
     @FXML
     private void fetchDetailedPollutantData() {
         System.out.println("🔍 Fetching pollutant data...");
-        System.out.println("  API_KEY: " + (API_KEY != null ? (API_KEY.isEmpty() ? "EMPTY" : API_KEY.substring(0, 8) + "...") : "NULL"));
+        FetchMetrics.debug(() -> "  API key configured: " + (API_KEY != null && !API_KEY.isEmpty()));
 
         if (API_KEY == null || API_KEY.isEmpty()) {
             System.err.println("❌ API Key is missing!");
@@ -201,69 +202,34 @@ public class ResearcherDashboardController implements Initializable {
         so2Label.setText("Loading...");
         coLabel.setText("Loading...");
 
-        new Thread(() -> {
-            try {
-                String urlStr = String.format(
-                    "http://api.openweathermap.org/data/2.5/air_pollution?lat=%.6f&lon=%.6f&appid=%s",
-                    selectedLat, selectedLon, API_KEY
-                );
-
-                System.out.println("🌐 API URL: " + urlStr.substring(0, urlStr.indexOf("&appid=")) + "&appid=***");
-
-                URL url = new URL(urlStr);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(10000);
-
-                if (conn.getResponseCode() == 200) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-
-                    JSONObject json = new JSONObject(response.toString());
-                    JSONArray list = json.getJSONArray("list");
-
-                    if (list.length() > 0) {
-                        JSONObject data = list.getJSONObject(0);
-                        JSONObject components = data.getJSONObject("components");
-
-                        double pm25 = components.optDouble("pm2_5", 0);
-                        double pm10 = components.optDouble("pm10", 0);
-                        double no2 = components.optDouble("no2", 0);
-                        double o3 = components.optDouble("o3", 0);
-                        double so2 = components.optDouble("so2", 0);
-                        double co = components.optDouble("co", 0);
-
-                        Platform.runLater(() -> {
-                            pm25Label.setText(String.format("%.2f", pm25));
-                            pm10Label.setText(String.format("%.2f", pm10));
-                            no2Label.setText(String.format("%.2f", no2));
-                            o3Label.setText(String.format("%.2f", o3));
-                            so2Label.setText(String.format("%.2f", so2));
-                            coLabel.setText(String.format("%.2f", co));
-
-                            selectedLocationLabel.setText("📍 " + selectedLocation + " - Data Updated");
-                            System.out.println("✓ Pollutant data fetched successfully");
-                        });
-                    }
-                } else {
-                    System.err.println("❌ API Error: " + conn.getResponseCode());
-                    Platform.runLater(() -> {
-                        pm25Label.setText("N/A");
-                        pm10Label.setText("N/A");
-                        no2Label.setText("N/A");
-                        o3Label.setText("N/A");
-                        so2Label.setText("N/A");
-                        coLabel.setText("N/A");
-                        showAlert("API Error", "Failed to fetch data. Check API key and connection.");
-                    });
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+        // Shared cache means the same area clicked on any dashboard costs one API call
+        AQIFetcher.fetchReadingAsync(selectedLat, selectedLon).thenAccept(reading -> {
+            Platform.runLater(() -> {
+                pm25Label.setText(String.format("%.2f", reading.getPm25()));
+                pm10Label.setText(String.format("%.2f", reading.getPm10()));
+                no2Label.setText(String.format("%.2f", reading.getNo2()));
+                o3Label.setText(String.format("%.2f", reading.getO3()));
+                so2Label.setText(String.format("%.2f", reading.getSo2()));
+                coLabel.setText(String.format("%.2f", reading.getCo()));
+
+                selectedLocationLabel.setText("📍 " + selectedLocation + " - Data Updated");
+                System.out.println("✓ Pollutant data fetched successfully");
+            });
+        }).exceptionally(e -> {
+            Throwable cause = HttpService.rootCause(e);
+            if (cause instanceof HttpService.HttpStatusException statusEx) {
+                System.err.println("❌ API Error: " + statusEx.getStatusCode());
+                Platform.runLater(() -> {
+                    pm25Label.setText("N/A");
+                    pm10Label.setText("N/A");
+                    no2Label.setText("N/A");
+                    o3Label.setText("N/A");
+                    so2Label.setText("N/A");
+                    coLabel.setText("N/A");
+                    showAlert("API Error", "Failed to fetch data. Check API key and connection.");
+                });
+            } else {
+                cause.printStackTrace();
                 Platform.runLater(() -> {
                     pm25Label.setText("Error");
                     pm10Label.setText("Error");
@@ -273,7 +239,8 @@ public class ResearcherDashboardController implements Initializable {
                     coLabel.setText("Error");
                 });
             }
-        }).start();
+            return null;
+        });
     }
 
     /** Search for location by name */
@@ -285,54 +252,38 @@ public class ResearcherDashboardController implements Initializable {
             return;
         }
 
-        new Thread(() -> {
-            try {
-                String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8.toString());
-                String urlStr = "https://nominatim.openstreetmap.org/search?q=" + encodedQuery + "&format=json&limit=1";
-
-                URL url = new URL(urlStr);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("User-Agent", "AeroSafe-Researcher/1.0");
-
-                if (conn.getResponseCode() == 200) {
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-
-                    JSONArray results = new JSONArray(response.toString());
-                    if (results.length() > 0) {
-                        JSONObject location = results.getJSONObject(0);
-                        double lat = location.getDouble("lat");
-                        double lon = location.getDouble("lon");
-                        String displayName = location.getString("display_name");
-
-                        Platform.runLater(() -> {
-                            selectedLat = lat;
-                            selectedLon = lon;
-                            selectedLocation = displayName;
-
-                            // Center map
-                            WebEngine engine = mapView.getEngine();
-                            engine.executeScript("map.setView([" + lat + ", " + lon + "], 13);");
-
-                            selectedLocationLabel.setText("📍 " + displayName);
-                            fetchDetailedPollutantData();
-                            locationSearchField.clear();
-                        });
-                    } else {
-                        Platform.runLater(() -> showAlert("Not Found", "Location not found. Try a different search."));
-                    }
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                Platform.runLater(() -> showAlert("Error", "Failed to search location"));
+        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+        String urlStr = "https://nominatim.openstreetmap.org/search?q=" + encodedQuery + "&format=json&limit=1";
+
+        HttpService.getAsync(urlStr, USER_AGENT, java.time.Duration.ofSeconds(10)).thenAccept(response -> {
+            JSONArray results = new JSONArray(response);
+            if (results.length() > 0) {
+                JSONObject location = results.getJSONObject(0);
+                double lat = location.getDouble("lat");
+                double lon = location.getDouble("lon");
+                String displayName = location.getString("display_name");
+
+                Platform.runLater(() -> {
+                    selectedLat = lat;
+                    selectedLon = lon;
+                    selectedLocation = displayName;
+
+                    // Center map
+                    WebEngine engine = mapView.getEngine();
+                    engine.executeScript("map.setView([" + lat + ", " + lon + "], 13);");
+
+                    selectedLocationLabel.setText("📍 " + displayName);
+                    fetchDetailedPollutantData();
+                    locationSearchField.clear();
+                });
+            } else {
+                Platform.runLater(() -> showAlert("Not Found", "Location not found. Try a different search."));
             }
-        }).start();
+        }).exceptionally(e -> {
+            HttpService.rootCause(e).printStackTrace();
+            Platform.runLater(() -> showAlert("Error", "Failed to search location"));
+            return null;
+        });
     }
 
     /** Refresh current location data */
@@ -358,13 +309,19 @@ public class ResearcherDashboardController implements Initializable {
                 timestamp, selectedLocation, pm25, pm10, no2, o3, so2, co
             );
 
-            dataHubList.add(data);
-
-            // Save to database
-            saveDataToDatabase(data);
-
-            showAlert("Success", "Data added to Data Hub successfully!");
-            System.out.println("✓ Data added to hub: " + selectedLocation);
+            // Shown at once; replaced by the stored rows once saved (a save can
+            // update an existing row), taken out again if the save fails
+            dataHubList.add(0, data);
+            saveDataToDatabase(data).whenComplete((rows, e) -> Platform.runLater(() -> {
+                if (e == null) {
+                    dataHubLoader.reload();
+                    showAlert("Success", "Data added to Data Hub successfully!");
+                    System.out.println("✓ Data added to hub: " + data.getLocation());
+                } else {
+                    dataHubList.remove(data);
+                    showAlert("Error", "Failed to save data: " + HttpService.rootCause(e).getMessage());
+                }
+            }));
 
         } catch (NumberFormatException e) {
             showAlert("Invalid Data", "Please fetch valid pollutant data first");
@@ -372,41 +329,42 @@ public class ResearcherDashboardController implements Initializable {
     }
 
     /** Save data to database */
-    private void saveDataToDatabase(AirQualityData data) {
-        try {
-            var conn = DBConnector.getInstance().getConnection();
-
-            // Create table if not exists
-            String createTable = "CREATE TABLE IF NOT EXISTS research_data(" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                    "timestamp TEXT, " +
-                    "location TEXT, " +
-                    "pm25 REAL, " +
-                    "pm10 REAL, " +
-                    "no2 REAL, " +
-                    "o3 REAL, " +
-                    "so2 REAL, " +
-                    "co REAL)";
-            conn.createStatement().execute(createTable);
-
-            // Insert data
-            var stmt = conn.prepareStatement(
-                    "INSERT INTO research_data(timestamp, location, pm25, pm10, no2, o3, so2, co) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
-            );
-            stmt.setString(1, data.getTimestamp());
-            stmt.setString(2, data.getLocation());
-            stmt.setDouble(3, data.getPm25());
-            stmt.setDouble(4, data.getPm10());
-            stmt.setDouble(5, data.getNo2());
-            stmt.setDouble(6, data.getO3());
-            stmt.setDouble(7, data.getSo2());
-            stmt.setDouble(8, data.getCo());
-            stmt.executeUpdate();
-
-            System.out.println("✓ Data saved to database");
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to save to database: " + e.getMessage());
-        }
+    private CompletableFuture<Integer> saveDataToDatabase(AirQualityData data) {
+        double lat = selectedLat;
+        double lon = selectedLon;
+        return WriteBehindQueue.shared().submit("save research data", conn -> {
+            // Insert data (a second save for the same place and second replaces the first)
+            try (var stmt = conn.prepareStatement(
+                    "INSERT INTO research_data(timestamp, location, pm25, pm10, no2, o3, so2, co, location_id, ts) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT(location_id, ts) DO UPDATE SET timestamp=excluded.timestamp, location=excluded.location, " +
+                    "pm25=excluded.pm25, pm10=excluded.pm10, no2=excluded.no2, o3=excluded.o3, so2=excluded.so2, co=excluded.co"
+            )) {
+                stmt.setString(1, data.getTimestamp());
+                stmt.setString(2, data.getLocation());
+                stmt.setDouble(3, data.getPm25());
+                stmt.setDouble(4, data.getPm10());
+                stmt.setDouble(5, data.getNo2());
+                stmt.setDouble(6, data.getO3());
+                stmt.setDouble(7, data.getSo2());
+                stmt.setDouble(8, data.getCo());
+                long locationId = Locations.idFor(conn, data.getLocation(), lat, lon);
+                Long ts = TimeSeriesMigration.researchTs(data.getTimestamp());
+                stmt.setLong(9, locationId);
+                stmt.setObject(10, ts);
+                int rows = stmt.executeUpdate();
+                if (ts != null) {
+                    Rollups.refresh(conn, locationId, ts, ts);
+                }
+                return rows;
+            }
+        }).whenComplete((rows, e) -> {
+            if (e == null) {
+                System.out.println("✓ Data saved to database");
+            } else {
+                System.err.println("⚠️ Failed to save to database: " + HttpService.rootCause(e).getMessage());
+            }
+        });
     }
 
     /** Setup Data Hub Table */
@@ -420,73 +378,52 @@ public class ResearcherDashboardController implements Initializable {
         so2Column.setCellValueFactory(new PropertyValueFactory<>("so2"));
         coColumn.setCellValueFactory(new PropertyValueFactory<>("co"));
 
-        dataHubTable.setItems(dataHubList);
+        // Rows are saved as they are taken, so id order is time order
+        dataHubLoader = new LazyTableLoader<>(dataHubTable, RESEARCH_DATA).sortBy(dateColumn, "id");
+        dataHubList = dataHubLoader.getItems();
 
         // Load existing data from database
-        loadDataFromDatabase();
-    }
-
-    /** Load data from database */
-    private void loadDataFromDatabase() {
-        new Thread(() -> {
-            try {
-                var conn = DBConnector.getInstance().getConnection();
-                var stmt = conn.createStatement();
-                var rs = stmt.executeQuery("SELECT * FROM research_data ORDER BY id DESC LIMIT 100");
-
-                while (rs.next()) {
-                    AirQualityData data = new AirQualityData(
-                            rs.getString("timestamp"),
-                            rs.getString("location"),
-                            rs.getDouble("pm25"),
-                            rs.getDouble("pm10"),
-                            rs.getDouble("no2"),
-                            rs.getDouble("o3"),
-                            rs.getDouble("so2"),
-                            rs.getDouble("co")
-                    );
-                    Platform.runLater(() -> dataHubList.add(data));
-                }
-                System.out.println("✓ Loaded " + dataHubList.size() + " records from database");
-            } catch (Exception e) {
-                System.out.println("No existing data to load: " + e.getMessage());
-            }
-        }).start();
+        dataHubLoader.reload();
     }
 
     /** Calculate statistics from Data Hub */
     @FXML
     private void calculateStatistics() {
-        if (dataHubList.isEmpty()) {
-            showAlert("No Data", "Data Hub is empty. Add some data first.");
-            return;
-        }
+        // Over every stored sample, not just the rows loaded into the table
+        new Thread(() -> {
+            try (var conn = DBConnector.getInstance().getConnection();
+                 var stmt = conn.createStatement();
+                 var rs = stmt.executeQuery("SELECT COUNT(*), AVG(pm25), AVG(pm10), AVG(no2), AVG(o3), AVG(so2), " +
+                         "AVG(co), MIN(pm25), MAX(pm25) FROM research_data")) {
+                rs.next();
+                long n = rs.getLong(1);
+                if (n == 0) {
+                    Platform.runLater(() -> showAlert("No Data", "Data Hub is empty. Add some data first."));
+                    return;
+                }
 
-        double avgPm25 = dataHubList.stream().mapToDouble(AirQualityData::getPm25).average().orElse(0);
-        double avgPm10 = dataHubList.stream().mapToDouble(AirQualityData::getPm10).average().orElse(0);
-        double avgNo2 = dataHubList.stream().mapToDouble(AirQualityData::getNo2).average().orElse(0);
-        double avgO3 = dataHubList.stream().mapToDouble(AirQualityData::getO3).average().orElse(0);
-        double avgSo2 = dataHubList.stream().mapToDouble(AirQualityData::getSo2).average().orElse(0);
-        double avgCo = dataHubList.stream().mapToDouble(AirQualityData::getCo).average().orElse(0);
-
-        double maxPm25 = dataHubList.stream().mapToDouble(AirQualityData::getPm25).max().orElse(0);
-        double minPm25 = dataHubList.stream().mapToDouble(AirQualityData::getPm25).min().orElse(0);
-
-        String stats = String.format(
-                "📊 Statistical Analysis (n=%d samples)\n\n" +
-                "Average Values:\n" +
-                "  PM2.5: %.2f µg/m³\n" +
-                "  PM10: %.2f µg/m³\n" +
-                "  NO₂: %.2f µg/m³\n" +
-                "  O₃: %.2f µg/m³\n" +
-                "  SO₂: %.2f µg/m³\n" +
-                "  CO: %.2f µg/m³\n\n" +
-                "PM2.5 Range: %.2f - %.2f µg/m³",
-                dataHubList.size(), avgPm25, avgPm10, avgNo2, avgO3, avgSo2, avgCo, minPm25, maxPm25
-        );
+                String stats = String.format(
+                        "📊 Statistical Analysis (n=%d samples)\n\n" +
+                        "Average Values:\n" +
+                        "  PM2.5: %.2f µg/m³\n" +
+                        "  PM10: %.2f µg/m³\n" +
+                        "  NO₂: %.2f µg/m³\n" +
+                        "  O₃: %.2f µg/m³\n" +
+                        "  SO₂: %.2f µg/m³\n" +
+                        "  CO: %.2f µg/m³\n\n" +
+                        "PM2.5 Range: %.2f - %.2f µg/m³",
+                        n, rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5), rs.getDouble(6),
+                        rs.getDouble(7), rs.getDouble(8), rs.getDouble(9)
+                );
 
-        statsLabel.setText(stats);
-        System.out.println("✓ Statistics calculated");
+                Platform.runLater(() -> {
+                    statsLabel.setText(stats);
+                    System.out.println("✓ Statistics calculated");
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> showAlert("Error", "Failed to calculate statistics: " + e.getMessage()));
+            }
+        }).start();
     }
 
     /** Clear Data Hub */
@@ -501,14 +438,23 @@ public class ResearcherDashboardController implements Initializable {
             dataHubList.clear();
             statsLabel.setText("");
 
-            // Clear from database
-            try {
-                var conn = DBConnector.getInstance().getConnection();
-                conn.createStatement().execute("DELETE FROM research_data");
-                System.out.println("✓ Data Hub cleared");
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to clear database: " + e.getMessage());
-            }
+            // Clear from database, then show what is stored (nothing, or the rows
+            // if the delete failed)
+            WriteBehindQueue.shared().submit("clear research data", conn -> {
+                var ranges = Rollups.ranges(conn, "research_data");
+                try (var stmt = conn.createStatement()) {
+                    int rows = stmt.executeUpdate("DELETE FROM research_data");
+                    Rollups.refresh(conn, ranges);
+                    return rows;
+                }
+            }).whenComplete((rows, e) -> {
+                if (e == null) {
+                    System.out.println("✓ Data Hub cleared");
+                } else {
+                    System.err.println("⚠️ Failed to clear database: " + HttpService.rootCause(e).getMessage());
+                }
+                Platform.runLater(dataHubLoader::reload);
+            });
         }
     }
 
@@ -528,23 +474,31 @@ public class ResearcherDashboardController implements Initializable {
         File file = fileChooser.showSaveDialog(mapView.getScene().getWindow());
 
         if (file != null) {
-            try (PrintWriter writer = new PrintWriter(file)) {
-                // Header
-                writer.println("Timestamp,Location,PM2.5,PM10,NO2,O3,SO2,CO");
-
-                // Data rows
-                for (AirQualityData data : dataHubList) {
-                    writer.printf("%s,%s,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
-                            data.getTimestamp(), data.getLocation(),
-                            data.getPm25(), data.getPm10(), data.getNo2(),
-                            data.getO3(), data.getSo2(), data.getCo());
-                }
+            // Every stored row, read page by page, not just the rows loaded into the table
+            new Thread(() -> {
+                try (PrintWriter writer = new PrintWriter(file)) {
+                    // Header
+                    writer.println("Timestamp,Location,PM2.5,PM10,NO2,O3,SO2,CO");
+
+                    // Data rows
+                    KeysetQuery.Page<AirQualityData> page = RESEARCH_DATA.first(1000);
+                    while (true) {
+                        for (AirQualityData data : page.getRows()) {
+                            writer.printf("%s,%s,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                                    data.getTimestamp(), data.getLocation(),
+                                    data.getPm25(), data.getPm10(), data.getNo2(),
+                                    data.getO3(), data.getSo2(), data.getCo());
+                        }
+                        if (!page.hasMore()) break;
+                        page = RESEARCH_DATA.next(page, 1000);
+                    }
 
-                showAlert("Success", "Data exported successfully to:\n" + file.getAbsolutePath());
-                System.out.println("✓ Data exported to: " + file.getName());
-            } catch (IOException e) {
-                showAlert("Error", "Failed to export data: " + e.getMessage());
-            }
+                    Platform.runLater(() -> showAlert("Success", "Data exported successfully to:\n" + file.getAbsolutePath()));
+                    System.out.println("✓ Data exported to: " + file.getName());
+                } catch (IOException | SQLException e) {
+                    Platform.runLater(() -> showAlert("Error", "Failed to export data: " + e.getMessage()));
+                }
+            }).start();
         }
     }
 
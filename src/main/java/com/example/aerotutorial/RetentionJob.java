@@ -0,0 +1,391 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nightly retention: prunes old readings and gives the space back.
+ * <ul>
+ *   <li>Raw readings (aq_hourly, aq_data, research_data) older than
+ *       "retention.raw.days" are deleted in three phases: every location
+ *       with readings about to go is rolled up ({@link Rollups#refresh})
+ *       while all sources are still there, the cut-off is stored as the
+ *       rollup watermark ({@link Rollups#freeze}), and only then are the
+ *       readings deleted. Refreshes and rebuilds never recompute buckets
+ *       before the watermark, so they cannot lose the deleted readings.</li>
+ *   <li>Hourly rollups older than "retention.rollup.hourly.days" (and
+ *       frozen) are deleted. Daily and monthly rollups are kept forever.</li>
+ *   <li>Freed pages are returned to the file system with
+ *       PRAGMA incremental_vacuum, a few pages per step.</li>
+ * </ul>
+ * Every delete is one location per short transaction, with a pause between
+ * steps, so UI writes are never blocked for long. Cut-offs fall on UTC
+ * midnight, so a day is either kept whole or only present as rollups.
+ */
+public final class RetentionJob {
+    private static final long DAY = 86400;
+
+    private RetentionJob() {
+    }
+
+    /**
+     * Run the job every night at "retention.hour" (local time, default 3)
+     * on a background daemon thread ({@link NightlyScheduler}). Does nothing if "retention.enabled" is false.
+     */
+    public static void scheduleNightly() {
+        if (!Boolean.parseBoolean(ConfigLoader.getProperty("retention.enabled", "true").trim())) {
+            return;
+        }
+        NightlyScheduler.schedule("Retention job", Math.floorMod(ConfigLoader.getInt("retention.hour", 3), 24),
+                RetentionJob::run);
+    }
+
+    /**
+     * Apply the configured policies
+     */
+    public static RetentionReport run() throws SQLException, InterruptedException {
+        return run(ConfigLoader.getInt("retention.raw.days", 90),
+                ConfigLoader.getInt("retention.rollup.hourly.days", 365),
+                ConfigLoader.getInt("retention.vacuum.pages", 256),
+                ConfigLoader.getInt("retention.pause.ms", 20));
+    }
+
+    /**
+     * Apply retention policies
+     * @param rawDays Days of raw readings to keep (0 or less keeps everything)
+     * @param hourlyRollupDays Days of hourly rollups to keep (0 or less keeps everything)
+     * @param vacuumPages Pages released per incremental vacuum step
+     * @param pauseMillis Pause between steps, so other writers get the database
+     */
+    public static RetentionReport run(int rawDays, int hourlyRollupDays, int vacuumPages, long pauseMillis)
+            throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        long today = System.currentTimeMillis() / 1000 / DAY * DAY;
+        long sizeBefore = fileBytes();
+
+        long hourly = 0;
+        long daily = 0;
+        long research = 0;
+        long rollups = 0;
+        if (rawDays > 0) {
+            long cutoff = today - rawDays * DAY;
+            downsample(cutoff, pauseMillis);
+            try (Connection conn = DBConnector.getInstance().getConnection()) {
+                Rollups.freeze(conn, cutoff);
+            }
+            hourly = pruneHourly(cutoff, pauseMillis);
+            daily = pruneTable("aq_data", cutoff, pauseMillis);
+            research = pruneTable("research_data", cutoff, pauseMillis);
+        }
+        if (hourlyRollupDays > 0) {
+            // Unfrozen hourly rollups still feed daily refreshes, so they stay
+            long frozenBefore;
+            try (Connection conn = DBConnector.getInstance().getConnection()) {
+                frozenBefore = Rollups.frozenBefore(conn);
+            }
+            rollups = pruneHourlyRollups(Math.min(today - hourlyRollupDays * DAY, frozenBefore), pauseMillis);
+        }
+        long freedPages = vacuum(Math.max(1, vacuumPages), pauseMillis);
+
+        RetentionReport report = new RetentionReport(hourly, daily, research, rollups, freedPages,
+                sizeBefore - fileBytes(), (System.nanoTime() - start) / 1_000_000);
+        System.out.println("✓ " + report);
+        return report;
+    }
+
+    /**
+     * Roll up everything before the cut-off, one location at a time, while
+     * the raw readings of every source are still stored
+     */
+    private static void downsample(long cutoff, long pauseMillis) throws SQLException, InterruptedException {
+        Map<Long, long[]> oldest = new HashMap<>();
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            List<Object[]> cells = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT cell, MIN(ts) FROM aq_hourly WHERE ts<? GROUP BY cell")) {
+                stmt.setLong(1, cutoff);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        cells.add(new Object[]{rs.getString(1), rs.getLong(2)});
+                    }
+                }
+            }
+            for (Object[] cell : cells) {
+                String[] latLon = ((String) cell[0]).split(",");
+                long id = Locations.idFor(conn, (String) cell[0], Double.parseDouble(latLon[0]), Double.parseDouble(latLon[1]));
+                mergeOldest(oldest, id, (Long) cell[1]);
+            }
+            for (String table : new String[]{"aq_data", "research_data"}) {
+                for (Map.Entry<Long, long[]> e : Rollups.ranges(conn, table).entrySet()) {
+                    mergeOldest(oldest, e.getKey(), e.getValue()[0]);
+                }
+            }
+        }
+
+        for (Map.Entry<Long, long[]> e : oldest.entrySet()) {
+            long from = e.getValue()[0];
+            if (from >= cutoff) continue;
+            inTransaction(conn -> {
+                Rollups.refresh(conn, e.getKey(), from, cutoff - 1);
+                return 0;
+            });
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    private static void mergeOldest(Map<Long, long[]> oldest, long locationId, long ts) {
+        oldest.merge(locationId, new long[]{ts}, (a, b) -> a[0] <= b[0] ? a : b);
+    }
+
+    /**
+     * Delete aq_hourly rows before the cut-off, one cell at a time
+     */
+    private static long pruneHourly(long cutoff, long pauseMillis) throws SQLException, InterruptedException {
+        List<String> cells = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT DISTINCT cell FROM aq_hourly WHERE ts<?")) {
+            stmt.setLong(1, cutoff);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    cells.add(rs.getString(1));
+                }
+            }
+        }
+
+        long deleted = 0;
+        for (String key : cells) {
+            deleted += inTransaction(conn -> {
+                int rows;
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM aq_hourly WHERE cell=? AND ts<?")) {
+                    delete.setString(1, key);
+                    delete.setLong(2, cutoff);
+                    rows = delete.executeUpdate();
+                }
+                // The deleted hours are no longer stored, so a backfill may fetch them again
+                try (PreparedStatement ranges = conn.prepareStatement(
+                        "DELETE FROM backfill_ranges WHERE cell=? AND end_ts<=?")) {
+                    ranges.setString(1, key);
+                    ranges.setLong(2, cutoff);
+                    ranges.executeUpdate();
+                }
+                try (PreparedStatement ranges = conn.prepareStatement(
+                        "UPDATE backfill_ranges SET start_ts=? WHERE cell=? AND start_ts<?")) {
+                    ranges.setLong(1, cutoff);
+                    ranges.setString(2, key);
+                    ranges.setLong(3, cutoff);
+                    ranges.executeUpdate();
+                }
+                return rows;
+            });
+            Thread.sleep(pauseMillis);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete rows of a time-series table (aq_data or research_data) before
+     * the cut-off, one location at a time
+     */
+    private static long pruneTable(String table, long cutoff, long pauseMillis)
+            throws SQLException, InterruptedException {
+        Map<Long, long[]> ranges;
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            ranges = Rollups.ranges(conn, table);
+        }
+
+        long deleted = 0;
+        for (Map.Entry<Long, long[]> e : ranges.entrySet()) {
+            long locationId = e.getKey();
+            if (e.getValue()[0] >= cutoff) continue;
+
+            deleted += inTransaction(conn -> {
+                try (PreparedStatement delete = conn.prepareStatement(
+                        "DELETE FROM " + table + " WHERE location_id=? AND ts<?")) {
+                    delete.setLong(1, locationId);
+                    delete.setLong(2, cutoff);
+                    return delete.executeUpdate();
+                }
+            });
+            Thread.sleep(pauseMillis);
+        }
+        return deleted;
+    }
+
+    private static long pruneHourlyRollups(long cutoff, long pauseMillis) throws SQLException, InterruptedException {
+        List<Long> locations = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM locations")) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    locations.add(rs.getLong(1));
+                }
+            }
+        }
+
+        long deleted = 0;
+        for (long locationId : locations) {
+            int rows = inTransaction(conn -> {
+                try (PreparedStatement delete = conn.prepareStatement(
+                        "DELETE FROM aq_rollup_hourly WHERE location_id=? AND bucket<?")) {
+                    delete.setLong(1, locationId);
+                    delete.setLong(2, cutoff);
+                    return delete.executeUpdate();
+                }
+            });
+            deleted += rows;
+            if (rows > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Release free pages to the file system in small steps
+     * @return Pages released (0 if the database is not in incremental auto-vacuum mode)
+     */
+    private static long vacuum(int pagesPerStep, long pauseMillis) throws SQLException, InterruptedException {
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (pragma(stmt, "auto_vacuum") != 2) {
+                long free = pragma(stmt, "freelist_count");
+                if (free > 0) {
+                    System.out.println("ℹ️ " + free + " free pages are reused but not released: the database predates "
+                            + "incremental auto-vacuum (run RetentionJob --convert once to switch it)");
+                }
+                return 0;
+            }
+
+            long released = 0;
+            long free;
+            while ((free = pragma(stmt, "freelist_count")) > 0) {
+                int pages = (int) Math.min(free, pagesPerStep);
+                released += inTransaction(c -> {
+                    // The driver steps a statement once per execute and each step releases one page
+                    try (Statement step = c.createStatement()) {
+                        for (int i = 0; i < pages; i++) {
+                            step.execute("PRAGMA incremental_vacuum(1)");
+                        }
+                    }
+                    return pages;
+                });
+                Thread.sleep(pauseMillis);
+            }
+            return released;
+        }
+    }
+
+    /**
+     * Switch an existing database to incremental auto-vacuum. Rewrites the
+     * whole file with VACUUM, blocking other writers while it runs, so it is
+     * a one-off command rather than part of the nightly job. Databases
+     * created by this version start in that mode.
+     */
+    public static void convertToIncrementalVacuum() throws SQLException {
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (pragma(stmt, "auto_vacuum") == 2) {
+                System.out.println("✓ Database already uses incremental auto-vacuum");
+                return;
+            }
+            long before = fileBytes();
+            stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+            try (Statement vacuum = conn.createStatement()) {
+                vacuum.execute("VACUUM");
+            }
+            System.out.println("✓ Switched to incremental auto-vacuum (" + (before - fileBytes()) / 1024 + " KB reclaimed)");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        int apply(Connection conn) throws SQLException;
+    }
+
+    private static int inTransaction(Step step) throws SQLException {
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int rows = step.apply(conn);
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static long pragma(Statement stmt, String name) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Size of the database in use (page_count × page_size, which the file follows after a checkpoint)
+    private static long fileBytes() throws SQLException {
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            return pragma(stmt, "page_count") * pragma(stmt, "page_size");
+        }
+    }
+
+    /**
+     * Outcome of a retention run
+     */
+    public static class RetentionReport {
+        private final long hourlyRows;
+        private final long dailyRows;
+        private final long researchRows;
+        private final long hourlyRollupRows;
+        private final long pagesReleased;
+        private final long bytesReclaimed;
+        private final long elapsedMillis;
+
+        RetentionReport(long hourlyRows, long dailyRows, long researchRows, long hourlyRollupRows,
+                        long pagesReleased, long bytesReclaimed, long elapsedMillis) {
+            this.hourlyRows = hourlyRows;
+            this.dailyRows = dailyRows;
+            this.researchRows = researchRows;
+            this.hourlyRollupRows = hourlyRollupRows;
+            this.pagesReleased = pagesReleased;
+            this.bytesReclaimed = bytesReclaimed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** Raw rows deleted from aq_hourly, aq_data and research_data */
+        public long getRawRowsDeleted() { return hourlyRows + dailyRows + researchRows; }
+        public long getHourlyRollupRowsDeleted() { return hourlyRollupRows; }
+        public long getPagesReleased() { return pagesReleased; }
+        public long getBytesReclaimed() { return bytesReclaimed; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("Retention: deleted %d hourly, %d daily and %d research readings and %d hourly rollups; "
+                            + "released %d pages (%d KB reclaimed) in %d ms",
+                    hourlyRows, dailyRows, researchRows, hourlyRollupRows, pagesReleased,
+                    bytesReclaimed / 1024, elapsedMillis);
+        }
+    }
+
+    /**
+     * Run the retention job once: RetentionJob [--convert]
+     * (--convert first switches an existing database to incremental auto-vacuum)
+     */
+    public static void main(String[] args) throws Exception {
+        DBSetup.initialize();
+        if (args.length > 0 && args[0].equals("--convert")) {
+            convertToIncrementalVacuum();
+        }
+        run();
+        DBConnector.getInstance().getPool().close();
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hourly, daily and monthly rollups of the stored readings.
+ * Each rollup row holds count, sum, min and max for one location, bucket
+ * and pollutant ("aqi" included), so averages and extremes over long ranges
+ * are read from a few rows instead of aggregated from raw readings.
+ * aq_rollup_category counts, per location and month, the days whose average
+ * AQI fell in each category of the configured standard.
+ * <p>
+ * Sources: aq_hourly (by grid cell) and research_data feed the hourly level;
+ * the daily level adds the per-day rows of aq_data. Writers call
+ * {@link #refresh} in the same transaction as the raw write; it recomputes
+ * only the buckets the written range touches, each level from the one below,
+ * so replaced or deleted readings are handled and a refresh can be repeated.
+ * All buckets are UTC. {@link #rebuild} recomputes everything (needed after
+ * changing "aqi.standard").
+ * <p>
+ * Once {@link RetentionJob} has deleted raw readings, the hourly and daily
+ * buckets before its cut-off can no longer be recomputed. That cut-off is
+ * stored as a watermark ({@link #freeze}); refresh and rebuild leave hourly
+ * and daily buckets older than it as they are, and recompute monthly and
+ * category rows from the daily level, which holds the frozen days too.
+ */
+public final class Rollups {
+    private static final long HOUR = 3600;
+    private static final long DAY = 86400;
+
+    /**
+     * Bucket size of a rollup table
+     */
+    public enum Grain {
+        HOURLY("aq_rollup_hourly"),
+        DAILY("aq_rollup_daily"),
+        MONTHLY("aq_rollup_monthly");
+
+        final String table;
+
+        Grain(String table) {
+            this.table = table;
+        }
+    }
+
+    // Raw readings of one location in [?2, ?3), from both hourly sources
+    private static final String READINGS =
+            "SELECT h.ts AS ts, h.pm25 AS pm25, h.pm10 AS pm10, h.no2 AS no2, h.o3 AS o3, h.so2 AS so2, h.co AS co, h.aqi AS aqi " +
+            "FROM aq_hourly h JOIN locations l ON l.key=h.cell WHERE l.id=?1 AND h.ts>=?2 AND h.ts<?3 " +
+            "UNION ALL SELECT ts, pm25, pm10, no2, o3, so2, co, NULL " +
+            "FROM research_data WHERE location_id=?1 AND ts>=?2 AND ts<?3";
+
+    private static final String[] METRICS = {"pm25", "pm10", "no2", "o3", "so2", "co", "aqi"};
+
+    private Rollups() {
+    }
+
+    /**
+     * Create the rollup tables
+     */
+    static void createTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (Grain grain : Grain.values()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS " + grain.table + "(" +
+                        "location_id INTEGER NOT NULL, " +
+                        "bucket INTEGER NOT NULL, " +
+                        "pollutant TEXT NOT NULL, " +
+                        "n INTEGER NOT NULL, " +
+                        "total REAL NOT NULL, " +
+                        "min REAL NOT NULL, " +
+                        "max REAL NOT NULL, " +
+                        "PRIMARY KEY (location_id, bucket, pollutant)) WITHOUT ROWID");
+            }
+            // Network-wide daily reads (policy statistics)
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS aq_rollup_daily_pollutant ON aq_rollup_daily(pollutant, bucket)");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS aq_rollup_category(" +
+                    "location_id INTEGER NOT NULL, " +
+                    "month INTEGER NOT NULL, " +
+                    "category INTEGER NOT NULL, " +
+                    "days INTEGER NOT NULL, " +
+                    "PRIMARY KEY (location_id, month, category)) WITHOUT ROWID");
+        }
+    }
+
+    /**
+     * Create the table holding the frozen-before watermark
+     */
+    static void createWatermark(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // One row: hourly and daily buckets before frozen_before are never recomputed
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS aq_rollup_watermark(" +
+                    "id INTEGER PRIMARY KEY CHECK (id = 1), " +
+                    "frozen_before INTEGER NOT NULL)");
+        }
+    }
+
+    /**
+     * Start of the oldest hourly/daily bucket that may still be recomputed
+     * from raw readings (0 if nothing is frozen)
+     */
+    public static long frozenBefore(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT frozen_before FROM aq_rollup_watermark WHERE id=1")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Freeze the hourly and daily buckets before a timestamp, before raw
+     * readings older than it are deleted. The watermark only moves forward.
+     * @param beforeTs Start of a UTC day (epoch seconds)
+     */
+    public static void freeze(Connection conn, long beforeTs) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO aq_rollup_watermark(id, frozen_before) VALUES (1, ?1) " +
+                "ON CONFLICT(id) DO UPDATE SET frozen_before=MAX(frozen_before, ?1)")) {
+            stmt.setLong(1, beforeTs);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Recompute the rollups touched by readings of one location. Call in the
+     * writer's transaction, after the raw rows are written or deleted.
+     * Buckets before the {@link #frozenBefore} watermark are left as they are.
+     * @param fromTs Earliest timestamp written (epoch seconds)
+     * @param toTs Latest timestamp written (epoch seconds)
+     */
+    public static void refresh(Connection conn, long locationId, long fromTs, long toTs) throws SQLException {
+        refresh(conn, locationId, fromTs, toTs, frozenBefore(conn));
+    }
+
+    private static void refresh(Connection conn, long locationId, long fromTs, long toTs, long frozenBefore)
+            throws SQLException {
+        // The watermark is a day start, so it is an hour start too
+        long hourStart = Math.max(fromTs - Math.floorMod(fromTs, HOUR), frozenBefore);
+        long hourEnd = toTs - Math.floorMod(toTs, HOUR) + HOUR;
+        long dayStart = Math.max(fromTs - Math.floorMod(fromTs, DAY), frozenBefore);
+        long dayEnd = toTs - Math.floorMod(toTs, DAY) + DAY;
+        if (dayStart >= dayEnd) {
+            return; // entirely frozen
+        }
+        long monthStart = monthOf(dayStart);
+        long monthEnd = nextMonth(monthOf(dayEnd - 1));
+
+        StringBuilder hourly = new StringBuilder("WITH r AS (" + READINGS + ") " +
+                "INSERT INTO aq_rollup_hourly(location_id, bucket, pollutant, n, total, min, max) " +
+                "SELECT ?1, b, m, n, total, mn, mx FROM (");
+        for (int i = 0; i < METRICS.length; i++) {
+            String c = METRICS[i];
+            if (i > 0) hourly.append(" UNION ALL ");
+            hourly.append("SELECT ts - ts % 3600 AS b, '").append(c).append("' AS m, COUNT(").append(c)
+                    .append(") AS n, SUM(").append(c).append(") AS total, MIN(").append(c)
+                    .append(") AS mn, MAX(").append(c).append(") AS mx FROM r GROUP BY b");
+        }
+        hourly.append(") WHERE n > 0");
+        replace(conn, Grain.HOURLY.table, "bucket", hourly.toString(), locationId, hourStart, hourEnd);
+
+        StringBuilder daily = new StringBuilder("INSERT INTO aq_rollup_daily(location_id, bucket, pollutant, n, total, min, max) " +
+                "SELECT ?1, bucket - bucket % 86400 AS b, pollutant, SUM(n), SUM(total), MIN(min), MAX(max) FROM (" +
+                "SELECT bucket, pollutant, n, total, min, max FROM aq_rollup_hourly " +
+                "WHERE location_id=?1 AND bucket>=?2 AND bucket<?3");
+        for (String c : new String[]{"pm25", "pm10", "aqi"}) {
+            daily.append(" UNION ALL SELECT ts, '").append(c).append("', 1, ").append(c).append(", ").append(c)
+                    .append(", ").append(c).append(" FROM aq_data WHERE location_id=?1 AND ts>=?2 AND ts<?3 AND ")
+                    .append(c).append(" IS NOT NULL");
+        }
+        daily.append(") GROUP BY b, pollutant");
+        replace(conn, Grain.DAILY.table, "bucket", daily.toString(), locationId, dayStart, dayEnd);
+
+        String month = "CAST(strftime('%s', bucket, 'unixepoch', 'start of month') AS INTEGER)";
+        replace(conn, Grain.MONTHLY.table, "bucket",
+                "INSERT INTO aq_rollup_monthly(location_id, bucket, pollutant, n, total, min, max) " +
+                "SELECT ?1, " + month + " AS b, pollutant, SUM(n), SUM(total), MIN(min), MAX(max) " +
+                "FROM aq_rollup_daily WHERE location_id=?1 AND bucket>=?2 AND bucket<?3 GROUP BY b, pollutant",
+                locationId, monthStart, monthEnd);
+        replace(conn, "aq_rollup_category", "month",
+                "INSERT INTO aq_rollup_category(location_id, month, category, days) " +
+                "SELECT ?1, " + month + " AS m, " + categoryCase("total / n") + " AS c, COUNT(*) " +
+                "FROM aq_rollup_daily WHERE location_id=?1 AND pollutant='aqi' AND bucket>=?2 AND bucket<?3 " +
+                "GROUP BY m, c",
+                locationId, monthStart, monthEnd);
+    }
+
+    /**
+     * Refresh the rollups of a grid cell ({@link Coordinate#cellKey}) after aq_hourly writes
+     */
+    public static void refreshCell(Connection conn, String cell, long fromTs, long toTs) throws SQLException {
+        refresh(conn, cellLocationId(conn, cell), fromTs, toTs);
+    }
+
+    /**
+     * Timestamp range of every location in a time-series table (aq_data or research_data),
+     * e.g. to refresh after a bulk delete
+     * @return location id -> {min ts, max ts}
+     */
+    public static Map<Long, long[]> ranges(Connection conn, String table) throws SQLException {
+        Map<Long, long[]> ranges = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT location_id, MIN(ts), MAX(ts) FROM " + table +
+                     " WHERE location_id IS NOT NULL AND ts IS NOT NULL GROUP BY location_id")) {
+            while (rs.next()) {
+                ranges.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3)});
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Refresh every location of a ranges map
+     */
+    public static void refresh(Connection conn, Map<Long, long[]> ranges) throws SQLException {
+        long frozenBefore = frozenBefore(conn);
+        for (Map.Entry<Long, long[]> e : ranges.entrySet()) {
+            refresh(conn, e.getKey(), e.getValue()[0], e.getValue()[1], frozenBefore);
+        }
+    }
+
+    /**
+     * Recompute all rollups from the raw tables. Must run in a transaction.
+     * Hourly and daily buckets before the {@link #frozenBefore} watermark are
+     * kept (their raw readings are gone); monthly and category rows are
+     * recomputed from the daily level.
+     * @return Number of locations rolled up
+     */
+    public static int rebuild(Connection conn) throws SQLException {
+        // Migration 6 rebuilds before the watermark table exists (nothing is frozen then)
+        long frozenBefore = hasWatermark(conn) ? frozenBefore(conn) : 0;
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM aq_rollup_hourly WHERE bucket>=?")) {
+            stmt.setLong(1, frozenBefore);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM aq_rollup_daily WHERE bucket>=?")) {
+            stmt.setLong(1, frozenBefore);
+            stmt.executeUpdate();
+        }
+
+        Map<Long, long[]> ranges = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT cell, MIN(ts), MAX(ts) FROM aq_hourly GROUP BY cell")) {
+            List<Object[]> cells = new ArrayList<>();
+            while (rs.next()) {
+                cells.add(new Object[]{rs.getString(1), rs.getLong(2), rs.getLong(3)});
+            }
+            for (Object[] c : cells) {
+                merge(ranges, cellLocationId(conn, (String) c[0]), (Long) c[1], (Long) c[2]);
+            }
+        }
+        for (String table : new String[]{"aq_data", "research_data"}) {
+            for (Map.Entry<Long, long[]> e : ranges(conn, table).entrySet()) {
+                merge(ranges, e.getKey(), e.getValue()[0], e.getValue()[1]);
+            }
+        }
+        for (Map.Entry<Long, long[]> e : ranges.entrySet()) {
+            refresh(conn, e.getKey(), e.getValue()[0], e.getValue()[1], frozenBefore);
+        }
+
+        // Every month, including those only left as frozen daily rows
+        String month = "CAST(strftime('%s', bucket, 'unixepoch', 'start of month') AS INTEGER)";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM aq_rollup_monthly");
+            stmt.executeUpdate("DELETE FROM aq_rollup_category");
+            stmt.executeUpdate("INSERT INTO aq_rollup_monthly(location_id, bucket, pollutant, n, total, min, max) " +
+                    "SELECT location_id, " + month + " AS b, pollutant, SUM(n), SUM(total), MIN(min), MAX(max) " +
+                    "FROM aq_rollup_daily GROUP BY location_id, b, pollutant");
+            stmt.executeUpdate("INSERT INTO aq_rollup_category(location_id, month, category, days) " +
+                    "SELECT location_id, " + month + " AS m, " + categoryCase("total / n") + " AS c, COUNT(*) " +
+                    "FROM aq_rollup_daily WHERE pollutant='aqi' GROUP BY location_id, m, c");
+        }
+        return ranges.size();
+    }
+
+    private static boolean hasWatermark(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type='table' AND name='aq_rollup_watermark'")) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Rebuild all rollups in one transaction
+     */
+    public static int rebuild() throws SQLException {
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int locations = rebuild(conn);
+                conn.commit();
+                return locations;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Rolled-up buckets of one pollutant for a location, oldest first
+     * @param pollutant Column name ("pm25" ... "co") or "aqi"
+     * @param fromTs Range start (epoch seconds, inclusive)
+     * @param toTs Range end (epoch seconds, exclusive)
+     */
+    public static List<Bucket> series(Connection conn, long locationId, Grain grain, String pollutant,
+                                      long fromTs, long toTs) throws SQLException {
+        List<Bucket> buckets = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT bucket, n, total, min, max FROM " + grain.table +
+                " WHERE location_id=? AND bucket>=? AND bucket<? AND pollutant=? ORDER BY bucket")) {
+            stmt.setLong(1, locationId);
+            stmt.setLong(2, fromTs);
+            stmt.setLong(3, toTs);
+            stmt.setString(4, pollutant);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    buckets.add(new Bucket(rs.getLong(1), rs.getLong(2), rs.getDouble(3),
+                            rs.getDouble(4), rs.getDouble(5)));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Days per AQI category for one location over whole months
+     * @param fromMonth First month (inclusive)
+     * @param toMonth Last month (inclusive)
+     * @return Days indexed by category ({@link AqiStandard#category})
+     */
+    public static int[] categoryDays(Connection conn, long locationId, LocalDate fromMonth, LocalDate toMonth)
+            throws SQLException {
+        int[] days = new int[AqiStandard.configured().getCategoryBounds().length + 1];
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT category, SUM(days) FROM aq_rollup_category " +
+                "WHERE location_id=? AND month>=? AND month<? GROUP BY category")) {
+            stmt.setLong(1, locationId);
+            stmt.setLong(2, fromMonth.withDayOfMonth(1).toEpochDay() * DAY);
+            stmt.setLong(3, toMonth.withDayOfMonth(1).plusMonths(1).toEpochDay() * DAY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    days[Math.min(rs.getInt(1), days.length - 1)] += rs.getInt(2);
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Days per AQI category across all locations: each of the last X days
+     * is classified by its average AQI over every location with data
+     * @return Days indexed by category ({@link AqiStandard#category})
+     */
+    public static int[] networkCategoryDays(Connection conn, int days) throws SQLException {
+        AqiStandard standard = AqiStandard.configured();
+        int[] counts = new int[standard.getCategoryBounds().length + 1];
+        long today = LocalDate.now(ZoneOffset.UTC).toEpochDay() * DAY;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT SUM(total) / SUM(n) FROM aq_rollup_daily " +
+                "WHERE pollutant='aqi' AND bucket>=? AND bucket<=? GROUP BY bucket")) {
+            stmt.setLong(1, today - (days - 1) * DAY);
+            stmt.setLong(2, today);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts[standard.category(Math.round(rs.getDouble(1)))]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    // Delete a location's rows in [from, to) of a table and run the insert that recomputes them
+    private static void replace(Connection conn, String table, String bucketColumn, String insert,
+                                long locationId, long from, long to) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM " + table + " WHERE location_id=? AND " + bucketColumn + ">=? AND " + bucketColumn + "<?")) {
+            delete.setLong(1, locationId);
+            delete.setLong(2, from);
+            delete.setLong(3, to);
+            delete.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setLong(1, locationId);
+            stmt.setLong(2, from);
+            stmt.setLong(3, to);
+            stmt.executeUpdate();
+        }
+    }
+
+    // CASE expression mapping an average index to its category under the configured standard
+    private static String categoryCase(String expr) {
+        int[] bounds = AqiStandard.configured().getCategoryBounds();
+        StringBuilder sql = new StringBuilder("CASE");
+        for (int i = 0; i < bounds.length; i++) {
+            sql.append(" WHEN ROUND(").append(expr).append(") <= ").append(bounds[i]).append(" THEN ").append(i);
+        }
+        return sql.append(" ELSE ").append(bounds.length).append(" END").toString();
+    }
+
+    private static long cellLocationId(Connection conn, String cell) throws SQLException {
+        String[] latLon = cell.split(",");
+        return Locations.idFor(conn, cell, Double.parseDouble(latLon[0]), Double.parseDouble(latLon[1]));
+    }
+
+    private static long monthOf(long ts) {
+        LocalDate date = Instant.ofEpochSecond(ts).atOffset(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+        return date.toEpochDay() * DAY;
+    }
+
+    private static long nextMonth(long monthTs) {
+        return LocalDate.ofEpochDay(monthTs / DAY).plusMonths(1).toEpochDay() * DAY;
+    }
+
+    private static void merge(Map<Long, long[]> ranges, long locationId, long from, long to) {
+        ranges.merge(locationId, new long[]{from, to},
+                (a, b) -> new long[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+    }
+
+    /**
+     * One rolled-up bucket
+     */
+    public static class Bucket {
+        private final long timestamp;
+        private final long count;
+        private final double total;
+        private final double min;
+        private final double max;
+
+        Bucket(long timestamp, long count, double total, double min, double max) {
+            this.timestamp = timestamp;
+            this.count = count;
+            this.total = total;
+            this.min = min;
+            this.max = max;
+        }
+
+        /** Bucket start (epoch seconds, UTC) */
+        public long getTimestamp() { return timestamp; }
+        public long getCount() { return count; }
+        public double getAverage() { return total / count; }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+    }
+
+    /**
+     * Recompute all rollups: Rollups rebuild
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || !args[0].equals("rebuild")) {
+            System.err.println("Usage: Rollups rebuild");
+            return;
+        }
+        DBSetup.initialize();
+        long start = System.nanoTime();
+        int locations = rebuild();
+        System.out.println("✓ Rebuilt rollups for " + locations + " location(s) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        DBConnector.getInstance().getPool().close();
+    }
+}
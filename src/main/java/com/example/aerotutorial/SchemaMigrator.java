@@ -0,0 +1,222 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Versioned schema migrations.
+ * The schema version is kept in SQLite's PRAGMA user_version. On startup the
+ * version is read once; if it is current nothing else runs, otherwise each
+ * newer migration is applied in order, in its own transaction together with
+ * the version bump, so a failure leaves the database at the last good
+ * version. Migrations never drop data.
+ * To change the schema, append a migration; never edit one that has shipped.
+ */
+public final class SchemaMigrator {
+
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    // Databases created before versioning start at 0; migration 1 uses IF NOT EXISTS so it adopts them
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "base tables", SchemaMigrator::baseTables),
+            new Migration(2, "username/password/location layout for researchers and admin",
+                    conn -> {
+                        DatabaseMigration.rebuildLegacyUserTable(conn, "researchers");
+                        DatabaseMigration.rebuildLegacyUserTable(conn, "admin");
+                    }),
+            new Migration(3, "hourly pollutant history", SchemaMigrator::hourlyHistory),
+            new Migration(4, "stored forecasts", SchemaMigrator::forecasts),
+            new Migration(5, "indexed time-series layout", TimeSeriesMigration::migrate),
+            new Migration(6, "hourly/daily/monthly rollups",
+                    conn -> {
+                        Rollups.createTables(conn);
+                        Rollups.rebuild(conn);
+                    }),
+            new Migration(7, "index for paging reports by status", SchemaMigrator::reportIndexes),
+            new Migration(8, "full-text index over reports", ReportSearch::createIndex),
+            new Migration(9, "rollup retention watermark", Rollups::createWatermark),
+            new Migration(10, "AQI standard of stored readings", AqiRecalculator::createTable));
+
+    private SchemaMigrator() {
+    }
+
+    /** Version a fully migrated database has */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Apply every migration newer than the database's version
+     * @return Number of migrations applied
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current > latestVersion()) {
+            throw new SQLException("Database schema version " + current
+                    + " is newer than this build supports (" + latestVersion() + ")");
+        }
+
+        int applied = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Migration m : MIGRATIONS) {
+                if (m.version <= current) continue;
+
+                long start = System.nanoTime();
+                conn.setAutoCommit(false);
+                try {
+                    m.step.apply(conn);
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("PRAGMA user_version = " + m.version);
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration " + m.version + " (" + m.description + ") failed", e);
+                }
+                applied++;
+                System.out.println("  ✓ Schema v" + m.version + ": " + m.description
+                        + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void baseTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS users(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "username TEXT UNIQUE NOT NULL, " +
+                    "password TEXT NOT NULL, " +
+                    "location TEXT)");
+
+            // Researchers and admins use the same layout as users
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS researchers(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "username TEXT UNIQUE NOT NULL, " +
+                    "password TEXT NOT NULL, " +
+                    "location TEXT)");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS admin(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "username TEXT UNIQUE NOT NULL, " +
+                    "password TEXT NOT NULL, " +
+                    "location TEXT)");
+
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS aq_data(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "city TEXT, " +
+                    "date TEXT, " +
+                    "pm25 REAL, " +
+                    "pm10 REAL, " +
+                    "aqi INTEGER)");
+
+            // User-submitted environmental issues
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS reports(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "reporter_name TEXT NOT NULL, " +
+                    "location TEXT NOT NULL, " +
+                    "issue_type TEXT NOT NULL, " +
+                    "severity TEXT NOT NULL, " +
+                    "aqi_value TEXT, " +
+                    "description TEXT NOT NULL, " +
+                    "contact TEXT, " +
+                    "status TEXT DEFAULT 'Pending', " +
+                    "submitted_date TEXT NOT NULL)");
+
+            // Researcher Data Hub
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS research_data(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "timestamp TEXT, " +
+                    "location TEXT, " +
+                    "pm25 REAL, " +
+                    "pm10 REAL, " +
+                    "no2 REAL, " +
+                    "o3 REAL, " +
+                    "so2 REAL, " +
+                    "co REAL)");
+
+            // Public health alerts issued from the admin dashboard
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS alerts(" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "alert_type TEXT, " +
+                    "severity TEXT, " +
+                    "location TEXT, " +
+                    "message TEXT, " +
+                    "created_date TEXT, " +
+                    "status TEXT DEFAULT 'Active')");
+        }
+    }
+
+    private static void hourlyHistory(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // One row per grid cell and hour
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS aq_hourly(" +
+                    "cell TEXT NOT NULL, " +
+                    "ts INTEGER NOT NULL, " +
+                    "pm25 REAL, " +
+                    "pm10 REAL, " +
+                    "no2 REAL, " +
+                    "o3 REAL, " +
+                    "so2 REAL, " +
+                    "co REAL, " +
+                    "aqi INTEGER, " +
+                    "PRIMARY KEY (cell, ts)) WITHOUT ROWID");
+
+            // Time ranges of history already stored
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS backfill_ranges(" +
+                    "cell TEXT NOT NULL, " +
+                    "start_ts INTEGER NOT NULL, " +
+                    "end_ts INTEGER NOT NULL, " +
+                    "PRIMARY KEY (cell, start_ts))");
+        }
+    }
+
+    private static void forecasts(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Precomputed hourly forecasts, replaced per cell by BatchForecastJob
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS forecasts(" +
+                    "cell TEXT NOT NULL, " +
+                    "ts INTEGER NOT NULL, " +
+                    "generated_at INTEGER NOT NULL, " +
+                    "model TEXT NOT NULL, " +
+                    "aqi REAL NOT NULL, " +
+                    "lower REAL, " +
+                    "upper REAL, " +
+                    "PRIMARY KEY (cell, ts)) WITHOUT ROWID");
+        }
+    }
+
+    private static void reportIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Serves the admin status filter with keyset paging by id (the rowid is part of every index entry)
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS reports_status ON reports(status)");
+        }
+    }
+}
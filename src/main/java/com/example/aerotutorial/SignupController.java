@@ -11,8 +11,6 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.util.ResourceBundle;
 
 public class SignupController implements Initializable {
@@ -46,19 +44,14 @@ public class SignupController implements Initializable {
             return;
         }
 
-        // Determine which table to insert into based on role
-        String tableName = getTableNameByRole(role);
-
-        try (Connection conn = DBConnector.getInstance().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT INTO " + tableName + "(username, password, location) VALUES (?, ?, ?)"
-            );
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            stmt.setString(3, location);
-            int rows = stmt.executeUpdate();
-
-            System.out.println("Rows inserted: " + rows + " in table: " + tableName);
+        try {
+            if (!StorageEngines.shared().users()
+                    .register(UserRepository.Role.fromLabel(role), username, password, location)) {
+                System.out.println("Signup failed, username taken for " + role + ": " + username);
+                messageLabel.setStyle("-fx-text-fill: red; -fx-font-size: 13px; -fx-font-weight: bold;");
+                messageLabel.setText("Username already exists for " + role + "!");
+                return;
+            }
             System.out.println("Signup successful for " + role + ": " + username);
 
             messageLabel.setStyle("-fx-text-fill: green; -fx-font-size: 13px; -fx-font-weight: bold;");
@@ -72,13 +65,7 @@ public class SignupController implements Initializable {
         } catch (Exception e) {
             e.printStackTrace();
             messageLabel.setStyle("-fx-text-fill: red; -fx-font-size: 13px; -fx-font-weight: bold;");
-
-            // Check for duplicate username error
-            if (e.getMessage().contains("Duplicate entry")) {
-                messageLabel.setText("Username already exists for " + role + "!");
-            } else {
-                messageLabel.setText("Error: " + e.getMessage());
-            }
+            messageLabel.setText("Error: " + e.getMessage());
         }
     }
 
@@ -93,19 +80,4 @@ public class SignupController implements Initializable {
             e.printStackTrace();
         }
     }
-
-    /**
-     * Returns the database table name based on selected role
-     */
-    private String getTableNameByRole(String role) {
-        switch (role) {
-            case "Researcher":
-                return "researchers";
-            case "Government Official":
-                return "admin";
-            case "User":
-            default:
-                return "users";
-        }
-    }
 }
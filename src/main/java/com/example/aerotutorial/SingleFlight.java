@@ -0,0 +1,53 @@
+package com.example.aerotutorial;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Merges concurrent calls for the same key into one in-flight operation.
+ * The first caller starts the work; everyone who asks for the same key before
+ * it finishes gets the same result. Once it completes the key is released so
+ * the next call starts fresh.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run the call for this key, or join the one already running
+     * @param key Identity of the request (e.g. URL or grid cell)
+     * @param call Starts the work; only invoked if nothing is in flight for the key
+     * @return Future for the shared result (each caller gets its own copy, so
+     *         cancelling one does not affect the others)
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            call.get().whenComplete((value, ex) -> {
+                // Release the key before completing so follow-up calls start a new request
+                inFlight.remove(key, promise);
+                if (ex != null) {
+                    promise.completeExceptionally(ex);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise.copy();
+    }
+
+    /**
+     * @return Number of keys currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+/**
+ * Storage engine backed by the SQLite database ({@link DBConnector}).
+ * Readings go to aq_hourly with their rollups refreshed in the same
+ * transaction; report and alert writes are committed through the shared
+ * {@link WriteBehindQueue}.
+ */
+public final class SqliteStorage implements Storage {
+    private final ReadingRepository readings = new Readings();
+    private final ReportRepository reports = new Reports();
+    private final AlertRepository alerts = new Alerts();
+    private final UserRepository users = new Users();
+
+    @Override
+    public String name() {
+        return "sqlite";
+    }
+
+    @Override
+    public ReadingRepository readings() { return readings; }
+
+    @Override
+    public ReportRepository reports() { return reports; }
+
+    @Override
+    public AlertRepository alerts() { return alerts; }
+
+    @Override
+    public UserRepository users() { return users; }
+
+    private static final class Readings implements ReadingRepository {
+        private static final String COLUMNS = "ts, pm25, pm10, no2, o3, so2, co, aqi";
+
+        @Override
+        public int store(String cell, List<PollutantReading> readings) {
+            if (readings.isEmpty()) {
+                return 0;
+            }
+            long from = Long.MAX_VALUE;
+            long to = Long.MIN_VALUE;
+            try (Connection conn = DBConnector.getInstance().getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    try (PreparedStatement insert = conn.prepareStatement(
+                            "INSERT OR REPLACE INTO aq_hourly(cell, " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                        for (PollutantReading r : readings) {
+                            insert.setString(1, cell);
+                            insert.setLong(2, r.getTimestamp());
+                            insert.setDouble(3, r.getPm25());
+                            insert.setDouble(4, r.getPm10());
+                            insert.setDouble(5, r.getNo2());
+                            insert.setDouble(6, r.getO3());
+                            insert.setDouble(7, r.getSo2());
+                            insert.setDouble(8, r.getCo());
+                            insert.setInt(9, r.getAqi());
+                            insert.addBatch();
+                            from = Math.min(from, r.getTimestamp());
+                            to = Math.max(to, r.getTimestamp());
+                        }
+                        insert.executeBatch();
+                    }
+                    Rollups.refreshCell(conn, cell, from, to);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to store readings for " + cell, e);
+            }
+            return readings.size();
+        }
+
+        @Override
+        public List<PollutantReading> range(String cell, long fromTs, long toTs) {
+            List<PollutantReading> readings = new ArrayList<>();
+            try (Connection conn = DBConnector.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT " + COLUMNS + " FROM aq_hourly WHERE cell=? AND ts>=? AND ts<=? ORDER BY ts")) {
+                stmt.setString(1, cell);
+                stmt.setLong(2, fromTs);
+                stmt.setLong(3, toTs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        readings.add(reading(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read readings for " + cell, e);
+            }
+            return readings;
+        }
+
+        @Override
+        public PollutantReading latest(String cell) {
+            try (Connection conn = DBConnector.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT " + COLUMNS + " FROM aq_hourly WHERE cell=? ORDER BY ts DESC LIMIT 1")) {
+                stmt.setString(1, cell);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? reading(rs) : null;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read readings for " + cell, e);
+            }
+        }
+
+        @Override
+        public long count() {
+            return SqliteStorage.count("SELECT COUNT(*) FROM aq_hourly", null);
+        }
+
+        private static PollutantReading reading(ResultSet rs) throws SQLException {
+            return new PollutantReading(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4),
+                    rs.getDouble(5), rs.getDouble(6), rs.getDouble(7), rs.getInt(8));
+        }
+    }
+
+    private static final class Reports implements ReportRepository {
+        private static final String COLUMNS = "id, reporter_name, location, issue_type, severity, aqi_value, " +
+                "description, contact, status, submitted_date";
+
+        @Override
+        public CompletableFuture<Long> submit(Report report) {
+            return WriteBehindQueue.shared().submit("submit report", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO reports(reporter_name, location, issue_type, severity, aqi_value, description, " +
+                        "contact, status, submitted_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id")) {
+                    stmt.setString(1, report.getReporterName());
+                    stmt.setString(2, report.getLocation());
+                    stmt.setString(3, report.getIssueType());
+                    stmt.setString(4, report.getSeverity());
+                    stmt.setString(5, report.getAqiValue());
+                    stmt.setString(6, report.getDescription());
+                    stmt.setString(7, report.getContact());
+                    stmt.setString(8, PENDING);
+                    stmt.setString(9, report.getSubmittedDate());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        return rs.getLong(1);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public CompletableFuture<Boolean> updateStatus(long id, String status) {
+            return WriteBehindQueue.shared().submit("update report " + id, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE reports SET status=? WHERE id=?")) {
+                    stmt.setString(1, status);
+                    stmt.setLong(2, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        }
+
+        @Override
+        public Report find(long id) {
+            List<Report> reports = query("SELECT " + COLUMNS + " FROM reports WHERE id=?", id);
+            return reports.isEmpty() ? null : reports.get(0);
+        }
+
+        @Override
+        public List<Report> recent(String status, int limit) {
+            return status == null
+                    ? query("SELECT " + COLUMNS + " FROM reports ORDER BY id DESC LIMIT ?", limit)
+                    : query("SELECT " + COLUMNS + " FROM reports WHERE status=? ORDER BY id DESC LIMIT ?", status, limit);
+        }
+
+        @Override
+        public long count(String status) {
+            return status == null
+                    ? SqliteStorage.count("SELECT COUNT(*) FROM reports", null)
+                    : SqliteStorage.count("SELECT COUNT(*) FROM reports WHERE status=?", status);
+        }
+
+        private static List<Report> query(String sql, Object... params) {
+            List<Report> reports = new ArrayList<>();
+            try (Connection conn = DBConnector.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        reports.add(new Report(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                                rs.getString(9), rs.getString(10)));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read reports", e);
+            }
+            return reports;
+        }
+    }
+
+    private static final class Alerts implements AlertRepository {
+
+        @Override
+        public CompletableFuture<Long> issue(Alert alert) {
+            return WriteBehindQueue.shared().submit("issue alert", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO alerts(alert_type, severity, location, message, created_date, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?) RETURNING id")) {
+                    stmt.setString(1, alert.getAlertType());
+                    stmt.setString(2, alert.getSeverity());
+                    stmt.setString(3, alert.getLocation());
+                    stmt.setString(4, alert.getMessage());
+                    stmt.setString(5, alert.getCreatedDate());
+                    stmt.setString(6, ACTIVE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        return rs.getLong(1);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public CompletableFuture<Boolean> deactivate(long id) {
+            return WriteBehindQueue.shared().submit("deactivate alert " + id, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE alerts SET status=? WHERE id=?")) {
+                    stmt.setString(1, INACTIVE);
+                    stmt.setLong(2, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        }
+
+        @Override
+        public List<Alert> active() {
+            List<Alert> alerts = new ArrayList<>();
+            try (Connection conn = DBConnector.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT id, alert_type, severity, location, message, created_date, status " +
+                         "FROM alerts WHERE status=? ORDER BY id DESC")) {
+                stmt.setString(1, ACTIVE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        alerts.add(new Alert(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getString(5), rs.getString(6), rs.getString(7)));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read alerts", e);
+            }
+            return alerts;
+        }
+    }
+
+    private static final class Users implements UserRepository {
+
+        @Override
+        public boolean register(Role role, String username, String password, String location) {
+            try (Connection conn = DBConnector.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "INSERT INTO " + role.getTable() + "(username, password, location) VALUES (?, ?, ?)")) {
+                stmt.setString(1, username);
+                stmt.setString(2, password);
+                stmt.setString(3, location);
+                return stmt.executeUpdate() > 0;
+            } catch (SQLiteException e) {
+                // Only a taken username means "not registered"; other constraint failures are errors
+                if (e.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE) {
+                    return false;
+                }
+                throw new IllegalStateException("Failed to register " + username, e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to register " + username, e);
+            }
+        }
+
+        @Override
+        public User authenticate(Role role, String username, String password) {
+            return query(role, "SELECT id, username, location FROM " + role.getTable() +
+                    " WHERE username=? AND password=?", username, password);
+        }
+
+        @Override
+        public User find(Role role, String username) {
+            return query(role, "SELECT id, username, location FROM " + role.getTable() + " WHERE username=?", username);
+        }
+
+        @Override
+        public long count(Role role) {
+            return SqliteStorage.count("SELECT COUNT(*) FROM " + role.getTable(), null);
+        }
+
+        private static User query(Role role, String sql, String... params) {
+            try (Connection conn = DBConnector.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setString(i + 1, params[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? new User(rs.getLong(1), role, rs.getString(2), rs.getString(3)) : null;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read " + role.getTable(), e);
+            }
+        }
+    }
+
+    private static long count(String sql, String param) {
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            if (param != null) {
+                stmt.setString(1, param);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to count rows", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.aerotutorial;
+
+/**
+ * A storage engine: one repository per kind of record.
+ * {@link SqliteStorage} keeps them in the database file; {@link MemoryStorage}
+ * keeps them in process memory only and is used by tests and benchmarks.
+ * The application uses {@link StorageEngines#shared}.
+ * Both engines must pass StorageContractTest.
+ */
+public interface Storage {
+    /**
+     * @return Short name used to select this engine in config (e.g. "sqlite")
+     */
+    String name();
+
+    ReadingRepository readings();
+
+    ReportRepository reports();
+
+    AlertRepository alerts();
+
+    UserRepository users();
+}
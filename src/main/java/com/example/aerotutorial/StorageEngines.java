@@ -0,0 +1,36 @@
+package com.example.aerotutorial;
+
+/**
+ * The application's {@link Storage} engine, and engines by name for tests
+ * and benchmarks.
+ */
+public final class StorageEngines {
+    private static final Storage SHARED = new SqliteStorage();
+
+    private StorageEngines() {
+    }
+
+    /**
+     * The engine behind the application: SQLite, since the dashboards also
+     * page, count and search the database directly. Other engines are for
+     * tests and benchmarks ({@link #forName}).
+     */
+    public static Storage shared() {
+        return SHARED;
+    }
+
+    /**
+     * A new engine instance (an in-memory one starts empty)
+     * @param name Engine name (case-insensitive)
+     */
+    public static Storage forName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "sqlite":
+                return new SqliteStorage();
+            case "memory":
+                return new MemoryStorage();
+            default:
+                throw new IllegalArgumentException("Unknown storage engine: " + name);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.aerotutorial;
+
+import java.util.Arrays;
+
+/**
+ * One location's readings on a regular grid (hourly or daily), built from
+ * rows read in time order. Readings in the same step are averaged and
+ * missing steps repeat the previous value, so seasonal models see one value
+ * per step. A gap longer than {@link #MAX_GAP_STEPS} starts the series over,
+ * because filling it would only add made-up data.
+ */
+final class TimeSeries {
+    static final int MAX_GAP_STEPS = 1000;
+
+    final String key;
+    final long step;
+    double[] values = new double[64];
+    int length;
+    long lastTs;
+    private int lastCount;
+
+    /**
+     * @param key Location key (grid cell, city or location name)
+     * @param step Step length in seconds (3600 for hourly, 86400 for daily)
+     */
+    TimeSeries(String key, long step) {
+        this.key = key;
+        this.step = step;
+    }
+
+    /**
+     * Add a reading; timestamps must not decrease
+     * @param ts Epoch seconds
+     */
+    void add(long ts, double value) {
+        long aligned = ts - Math.floorMod(ts, step);
+        if (length > 0) {
+            if (aligned == lastTs) {
+                values[length - 1] += (value - values[length - 1]) / ++lastCount;
+                return;
+            }
+            if (aligned < lastTs) {
+                return; // out of order
+            }
+            long missing = (aligned - lastTs) / step - 1;
+            if (missing > MAX_GAP_STEPS) {
+                length = 0;
+            } else {
+                double previous = values[length - 1];
+                for (long i = 0; i < missing; i++) {
+                    append(previous);
+                }
+            }
+        }
+        append(value);
+        lastTs = aligned;
+        lastCount = 1;
+    }
+
+    private void append(double v) {
+        if (length == values.length) {
+            values = Arrays.copyOf(values, length * 2);
+        }
+        values[length++] = v;
+    }
+}
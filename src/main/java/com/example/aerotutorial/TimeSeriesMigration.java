@@ -0,0 +1,182 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moves aq_data and research_data onto an indexed time-series layout:
+ * an integer epoch timestamp (ts), a location_id into the locations table,
+ * and a unique (location_id, ts) index that serves range queries and upserts.
+ * The original text columns are kept. Existing rows are backfilled in place;
+ * rows that would break the unique index (the same location and time stored
+ * twice) are moved to aq_data_duplicates / research_data_duplicates rather
+ * than deleted. Applied once by {@link SchemaMigrator}, inside its
+ * transaction; each step checks what is already there, so a database that
+ * was partly migrated by hand is also handled.
+ */
+public class TimeSeriesMigration {
+    public static final DateTimeFormatter RESEARCH_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Researcher locations saved before a place name was resolved look like "23.8103, 90.4125"
+    private static final Pattern LAT_LON = Pattern.compile("\\s*(-?\\d+(?:\\.\\d+)?)\\s*,\\s*(-?\\d+(?:\\.\\d+)?)\\s*");
+
+    private TimeSeriesMigration() {
+    }
+
+    /**
+     * Bring both tables up to the time-series layout. Must run in a transaction.
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS locations(" +
+                    "id INTEGER PRIMARY KEY, " +
+                    "key TEXT NOT NULL UNIQUE, " +
+                    "name TEXT NOT NULL, " +
+                    "lat_q INTEGER, " +
+                    "lon_q INTEGER)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS locations_lat_lon ON locations(lat_q, lon_q)");
+        }
+
+        try {
+            int aqData = migrateTable(conn, "aq_data", "city", "date");
+            int research = migrateTable(conn, "research_data", "location", "timestamp");
+            if (aqData + research > 0) {
+                System.out.println("  → Time-series backfill: " + aqData + " aq_data rows, "
+                        + research + " research_data rows");
+            }
+        } finally {
+            // Ids created inside the migration's transaction were not cached
+            Locations.clearCache();
+        }
+    }
+
+    private static int migrateTable(Connection conn, String table, String locationColumn, String timeColumn)
+            throws SQLException {
+        if (!hasColumn(conn, table, "location_id")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN location_id INTEGER REFERENCES locations(id)");
+            }
+        }
+        if (!hasColumn(conn, table, "ts")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN ts INTEGER");
+            }
+        }
+
+        // Paged by id so the scan never runs over rows it is updating
+        int updated = 0;
+        boolean daily = table.equals("aq_data");
+        long lastId = 0;
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT id, " + locationColumn + ", " + timeColumn + " FROM " + table +
+                " WHERE id>? AND location_id IS NULL AND " + locationColumn + " IS NOT NULL ORDER BY id LIMIT 1000");
+             PreparedStatement update = conn.prepareStatement(
+                     "UPDATE " + table + " SET location_id=?, ts=? WHERE id=?")) {
+            while (true) {
+                List<Object[]> page = new ArrayList<>();
+                select.setLong(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        page.add(new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)});
+                    }
+                }
+                if (page.isEmpty()) break;
+
+                for (Object[] row : page) {
+                    String location = (String) row[1];
+                    String time = (String) row[2];
+                    update.setLong(1, daily ? Locations.idForName(conn, location) : researchLocationId(conn, location));
+                    update.setObject(2, daily ? dayTs(time) : researchTs(time));
+                    update.setLong(3, (Long) row[0]);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                updated += page.size();
+                lastId = (Long) page.get(page.size() - 1)[0];
+            }
+        }
+
+        String index = table + "_location_ts";
+        if (!hasIndex(conn, index)) {
+            try (Statement stmt = conn.createStatement()) {
+                // Keep the newest row for each (location, time) and set the rest aside
+                String duplicates = "SELECT * FROM " + table + " WHERE ts IS NOT NULL AND id NOT IN (" +
+                        "SELECT MAX(id) FROM " + table + " WHERE ts IS NOT NULL GROUP BY location_id, ts)";
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS " + table + "_duplicates AS SELECT * FROM " + table + " WHERE 0");
+                int moved = stmt.executeUpdate("INSERT INTO " + table + "_duplicates " + duplicates);
+                if (moved > 0) {
+                    stmt.executeUpdate("DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table + "_duplicates)");
+                    System.out.println("  → Moved " + moved + " duplicate " + table + " rows to " + table + "_duplicates");
+                }
+                stmt.executeUpdate("CREATE UNIQUE INDEX " + index + " ON " + table + "(location_id, ts)");
+            }
+        }
+        return updated;
+    }
+
+    private static long researchLocationId(Connection conn, String location) throws SQLException {
+        Matcher m = LAT_LON.matcher(location);
+        if (m.matches()) {
+            return Locations.idFor(conn, location.trim(), Double.parseDouble(m.group(1)), Double.parseDouble(m.group(2)));
+        }
+        return Locations.idForName(conn, location);
+    }
+
+    /**
+     * Epoch seconds of an aq_data date (UTC midnight), or null if it does not parse
+     * @param date ISO date, e.g. "2024-05-01"
+     */
+    public static Long dayTs(String date) {
+        try {
+            return LocalDate.parse(date.trim()).toEpochDay() * 86400;
+        } catch (DateTimeParseException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Epoch seconds of a research_data timestamp in the local zone, or null if it does not parse
+     * @param timestamp "yyyy-MM-dd HH:mm:ss"
+     */
+    public static Long researchTs(String timestamp) {
+        try {
+            return LocalDateTime.parse(timestamp.trim(), RESEARCH_TIMESTAMP).atZone(ZoneId.systemDefault()).toEpochSecond();
+        } catch (DateTimeParseException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasIndex(Connection conn, String index) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type='index' AND name=?")) {
+            stmt.setString(1, index);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.aerotutorial;
+
+/**
+ * Accounts of the three roles. Usernames are unique within a role.
+ * Storage failures are thrown as IllegalStateException.
+ */
+public interface UserRepository {
+
+    /**
+     * Account roles, each stored separately
+     */
+    enum Role {
+        USER("User", "users"),
+        RESEARCHER("Researcher", "researchers"),
+        ADMIN("Government Official", "admin");
+
+        private final String label;
+        private final String table;
+
+        Role(String label, String table) {
+            this.label = label;
+            this.table = table;
+        }
+
+        /** Name shown in the login and signup forms */
+        public String getLabel() { return label; }
+
+        /** SQLite table holding the role's accounts */
+        String getTable() { return table; }
+
+        /**
+         * Role for a form label (unknown labels are plain users)
+         */
+        public static Role fromLabel(String label) {
+            for (Role role : values()) {
+                if (role.label.equals(label)) {
+                    return role;
+                }
+            }
+            return USER;
+        }
+    }
+
+    /**
+     * Create an account
+     * @return false if the username is already taken for this role
+     */
+    boolean register(Role role, String username, String password, String location);
+
+    /**
+     * @return The account if the username and password match, else null
+     */
+    User authenticate(Role role, String username, String password);
+
+    /**
+     * @return The account, or null if there is none with this username
+     */
+    User find(Role role, String username);
+
+    long count(Role role);
+
+    /**
+     * One account (without its password)
+     */
+    class User {
+        private final long id;
+        private final Role role;
+        private final String username;
+        private final String location;
+
+        public User(long id, Role role, String username, String location) {
+            this.id = id;
+            this.role = role;
+            this.username = username;
+            this.location = location;
+        }
+
+        public long getId() { return id; }
+        public Role getRole() { return role; }
+        public String getUsername() { return username; }
+        public String getLocation() { return location; }
+    }
+}
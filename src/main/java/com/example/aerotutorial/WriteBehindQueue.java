@@ -0,0 +1,195 @@
+package com.example.aerotutorial;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single background writer for database writes that start in the UI.
+ * Controllers submit a write and get a future back immediately. The writer
+ * thread collects writes for a short window (or until a size limit), runs
+ * them in one transaction and commits once, so SQLite sees one writer and
+ * syncs once per group instead of once per write. Each write runs under its
+ * own savepoint: one that fails is rolled back and its future fails without
+ * affecting the rest of the group. Futures complete after the commit, on
+ * the writer thread.
+ */
+public final class WriteBehindQueue {
+
+    /**
+     * One database write; runs on the writer thread inside a transaction
+     */
+    @FunctionalInterface
+    public interface Write<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    // Queued by close() to wake the writer and make it finish
+    private static final Pending<Object> STOP = new Pending<>("stop", conn -> null, new CompletableFuture<>());
+
+    private static final WriteBehindQueue SHARED = new WriteBehindQueue(
+            ConfigLoader.getInt("db.write.group.window.ms", 5),
+            ConfigLoader.getInt("db.write.group.max", 256));
+
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final long windowNanos;
+    private final int maxGroup;
+    private final Thread writer;
+    // Guards closed and adds to the queue, so no write is queued after the writer's final drain
+    private final Object lock = new Object();
+    private boolean closed;
+
+    /**
+     * @param windowMillis How long to wait for more writes after the first one of a group
+     * @param maxGroup Most writes committed together
+     */
+    WriteBehindQueue(long windowMillis, int maxGroup) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxGroup = Math.max(1, maxGroup);
+        this.writer = new Thread(this::run, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** The process-wide queue */
+    public static WriteBehindQueue shared() {
+        return SHARED;
+    }
+
+    /**
+     * Queue a write
+     * @param label What the write does, for error messages
+     * @return Future completing with the write's result once it is committed
+     */
+    public <T> CompletableFuture<T> submit(String label, Write<T> write) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!closed) {
+                queue.add(new Pending<>(label, write, future));
+                return future;
+            }
+        }
+        future.completeExceptionally(new IllegalStateException("Write queue is closed"));
+        return future;
+    }
+
+    /**
+     * Stop accepting writes, commit everything already queued and stop the writer
+     * @param timeoutMillis How long to wait for the queue to drain
+     */
+    public void close(long timeoutMillis) {
+        synchronized (lock) {
+            closed = true;
+            queue.add(STOP);
+        }
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending<?>> group = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                Pending<?> first = queue.take();
+                if (first == STOP) {
+                    stopping = true;
+                } else {
+                    group.add(first);
+                }
+                long deadline = System.nanoTime() + windowNanos;
+                while (!stopping && group.size() < maxGroup) {
+                    long wait = deadline - System.nanoTime();
+                    Pending<?> next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    if (next == STOP) {
+                        stopping = true;
+                    } else {
+                        group.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopping = true;
+            }
+            if (stopping) {
+                // Also when interrupted: no write may be queued after this drain
+                synchronized (lock) {
+                    closed = true;
+                }
+                // Writes queued before close() still get committed
+                Pending<?> next;
+                while ((next = queue.poll()) != null) {
+                    if (next != STOP) group.add(next);
+                }
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<?>> group) {
+        long start = System.nanoTime();
+        List<Pending<?>> succeeded = new ArrayList<>(group.size());
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            for (Pending<?> p : group) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    p.apply(conn);
+                    conn.releaseSavepoint(savepoint);
+                    succeeded.add(p);
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback(savepoint);
+                    System.err.println("⚠️ Write failed (" + p.label + "): " + e.getMessage());
+                    p.future.completeExceptionally(e);
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("❌ Group commit of " + group.size() + " write(s) failed: " + e.getMessage());
+            for (Pending<?> p : group) {
+                p.future.completeExceptionally(e); // no-op for writes that already failed
+            }
+            return;
+        }
+
+        for (Pending<?> p : succeeded) {
+            p.complete();
+        }
+        FetchMetrics.debug(() -> "✓ Group commit: " + succeeded.size() + "/" + group.size() + " write(s) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static final class Pending<T> {
+        final String label;
+        final Write<T> write;
+        final CompletableFuture<T> future;
+        T result;
+
+        Pending(String label, Write<T> write, CompletableFuture<T> future) {
+            this.label = label;
+            this.write = write;
+            this.future = future;
+        }
+
+        void apply(Connection conn) throws SQLException {
+            result = write.apply(conn);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+    }
+}
@@ -11,9 +11,17 @@ module com.example.aerotutorial {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
     requires java.sql;
+    requires org.xerial.sqlitejdbc;
     requires org.json;
     requires jdk.jsobject;
+    requires java.net.http;
+    requires jdk.jfr;
 
     opens com.example.aerotutorial to javafx.fxml;
     exports com.example.aerotutorial;
+
+    uses com.example.aerotutorial.AirQualityProvider;
+    provides com.example.aerotutorial.AirQualityProvider with
+            com.example.aerotutorial.OpenWeatherMapProvider,
+            com.example.aerotutorial.FixtureProvider;
 }
\ No newline at end of file
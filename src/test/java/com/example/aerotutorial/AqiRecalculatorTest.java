@@ -0,0 +1,52 @@
+package com.example.aerotutorial;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AqiRecalculatorTest {
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        TestDatabase.initialize();
+    }
+
+    @Test
+    void recomputesStoredValuesAfterAStandardChange() throws Exception {
+        AqiStandard standard = AqiStandard.configured();
+        AqiStandard other = standard == AqiStandard.EU_CAQI ? AqiStandard.EPA : AqiStandard.EU_CAQI;
+        String cell = Coordinate.cellKey(-75.0, 10.0);
+        long ts = 3600L * 1000;
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO aq_hourly(cell, ts, pm25, pm10, no2, o3, so2, co, aqi) VALUES (?, ?, 40, 60, 30, 50, 10, 400, ?)")) {
+            insert.setString(1, cell);
+            insert.setLong(2, ts);
+            insert.setInt(3, other.overall(40, 60, 30, 50, 10, 400));
+            insert.executeUpdate();
+        }
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE aqi_standard SET name='" + other.getName() + "'");
+        }
+
+        assertTrue(AqiRecalculator.recomputeIfChanged() >= 1);
+        assertEquals(0, AqiRecalculator.recomputeIfChanged(), "standard is recorded after a recompute");
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             PreparedStatement select = conn.prepareStatement("SELECT aqi FROM aq_hourly WHERE cell=? AND ts=?")) {
+            select.setString(1, cell);
+            select.setLong(2, ts);
+            try (ResultSet rs = select.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(standard.overall(40, 60, 30, 50, 10, 400), rs.getInt(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.aerotutorial;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NightlySchedulerTest {
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Test
+    void keepsLocalHourAcrossDaylightSavingChanges() {
+        // Clocks go back on 2026-10-25, so that day has 25 hours
+        ZonedDateTime afterRun = LocalDateTime.of(2026, 10, 24, 3, 0, 1).atZone(BERLIN);
+        assertEquals(LocalDateTime.of(2026, 10, 25, 3, 0),
+                NightlyScheduler.nextRun(afterRun, 3).toLocalDateTime());
+        // Clocks go forward on 2026-03-29
+        afterRun = LocalDateTime.of(2026, 3, 28, 3, 0, 1).atZone(BERLIN);
+        assertEquals(LocalDateTime.of(2026, 3, 29, 3, 0),
+                NightlyScheduler.nextRun(afterRun, 3).toLocalDateTime());
+    }
+
+    @Test
+    void runsTodayWhenTheHourIsStillAhead() {
+        ZonedDateTime now = LocalDateTime.of(2026, 6, 1, 1, 30).atZone(BERLIN);
+        assertEquals(LocalDateTime.of(2026, 6, 1, 3, 0), NightlyScheduler.nextRun(now, 3).toLocalDateTime());
+    }
+
+    @Test
+    void skippedHourRunsAfterTheGap() {
+        ZonedDateTime now = LocalDateTime.of(2026, 3, 29, 0, 0).atZone(BERLIN);
+        assertEquals(LocalDateTime.of(2026, 3, 29, 3, 0), NightlyScheduler.nextRun(now, 2).toLocalDateTime());
+    }
+}
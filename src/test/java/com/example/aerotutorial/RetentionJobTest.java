@@ -0,0 +1,112 @@
+package com.example.aerotutorial;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RetentionJobTest {
+    private static final long HOUR = 3600;
+    private static final long DAY = 86400;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        TestDatabase.initialize();
+    }
+
+    @Test
+    void retentionThenRebuildKeepsDailyAndMonthlyRollups() throws Exception {
+        long today = System.currentTimeMillis() / 1000 / DAY * DAY;
+        long from = today - 40 * DAY;
+        String cell = Coordinate.cellKey(23.81, 90.41);
+        try (Connection conn = DBConnector.getInstance().getConnection()) {
+            long locationId = Locations.idFor(conn, "Dhaka", 23.81, 90.41);
+            conn.setAutoCommit(false);
+            // One location fed by all three sources
+            try (PreparedStatement hourly = conn.prepareStatement(
+                    "INSERT INTO aq_hourly(cell, ts, pm25, pm10, no2, o3, so2, co, aqi) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement research = conn.prepareStatement(
+                         "INSERT INTO research_data(location_id, ts, pm25, pm10, no2, o3, so2, co) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement daily = conn.prepareStatement(
+                         "INSERT INTO aq_data(location_id, ts, pm25, pm10, aqi) VALUES (?, ?, ?, ?, ?)")) {
+                for (long ts = from; ts < today; ts += HOUR) {
+                    int i = (int) ((ts - from) / HOUR);
+                    hourly.setString(1, cell);
+                    hourly.setLong(2, ts);
+                    for (int p = 3; p <= 8; p++) {
+                        hourly.setDouble(p, 10 + (i * p) % 50);
+                    }
+                    hourly.setInt(9, 1 + i % 5);
+                    hourly.addBatch();
+
+                    if (i % 3 == 0) {
+                        research.setLong(1, locationId);
+                        research.setLong(2, ts + 60);
+                        for (int p = 3; p <= 8; p++) {
+                            research.setDouble(p, 100 + (i * p) % 70);
+                        }
+                        research.addBatch();
+                    }
+                    if (ts % DAY == 0) {
+                        daily.setLong(1, locationId);
+                        daily.setLong(2, ts);
+                        daily.setDouble(3, 30 + i % 20);
+                        daily.setDouble(4, 60 + i % 30);
+                        daily.setInt(5, 1 + i % 4);
+                        daily.addBatch();
+                    }
+                }
+                hourly.executeBatch();
+                research.executeBatch();
+                daily.executeBatch();
+            }
+            Rollups.rebuild(conn);
+            conn.commit();
+        }
+
+        List<String> daily = snapshot("SELECT * FROM aq_rollup_daily ORDER BY location_id, bucket, pollutant");
+        List<String> monthly = snapshot("SELECT * FROM aq_rollup_monthly ORDER BY location_id, bucket, pollutant");
+        List<String> categories = snapshot("SELECT * FROM aq_rollup_category ORDER BY location_id, month, category");
+        assertFalse(daily.isEmpty());
+
+        RetentionJob.run(10, 0, 256, 0);
+        assertEquals(daily, snapshot("SELECT * FROM aq_rollup_daily ORDER BY location_id, bucket, pollutant"));
+        assertEquals(monthly, snapshot("SELECT * FROM aq_rollup_monthly ORDER BY location_id, bucket, pollutant"));
+
+        Rollups.rebuild();
+        assertEquals(daily, snapshot("SELECT * FROM aq_rollup_daily ORDER BY location_id, bucket, pollutant"));
+        assertEquals(monthly, snapshot("SELECT * FROM aq_rollup_monthly ORDER BY location_id, bucket, pollutant"));
+        assertEquals(categories, snapshot("SELECT * FROM aq_rollup_category ORDER BY location_id, month, category"));
+
+        long cutoff = today - 10 * DAY;
+        for (String table : new String[]{"aq_hourly", "aq_data", "research_data"}) {
+            assertEquals("0", snapshot("SELECT COUNT(*) FROM " + table + " WHERE ts<" + cutoff).get(0), table);
+        }
+    }
+
+    private static List<String> snapshot(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = DBConnector.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int c = 1; c <= columns; c++) {
+                    row.append(c > 1 ? "|" : "").append(rs.getString(c));
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+}
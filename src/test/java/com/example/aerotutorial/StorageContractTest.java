@@ -0,0 +1,252 @@
+package com.example.aerotutorial;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same contract checks against every storage engine, so each engine
+ * behaves the same behind the repository interfaces. The SQLite engine
+ * shares the test database, so checks only compare counts before and after
+ * their own writes and use names unique to the run.
+ */
+class StorageContractTest {
+    // Keeps names from other tests on the same database apart
+    private static final String RUN = Long.toString(System.currentTimeMillis(), 36);
+    private static int cellCounter;
+
+    private static Storage storage(String engine) throws Exception {
+        Storage storage = StorageEngines.forName(engine);
+        if (storage instanceof SqliteStorage) {
+            TestDatabase.initialize();
+        }
+        return storage;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void emptyCell(String engine) throws Exception {
+        Storage storage = storage(engine);
+        String cell = newCell();
+        assertNull(storage.readings().latest(cell), "latest of an empty cell");
+        assertTrue(storage.readings().range(cell, 0, Long.MAX_VALUE).isEmpty(), "range of an empty cell");
+        assertEquals(0, storage.readings().store(cell, List.of()), "storing nothing");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void readingRange(String engine) throws Exception {
+        ReadingRepository readings = storage(engine).readings();
+        String cell = newCell();
+        long before = readings.count();
+
+        // Out of order, with one hour stored twice in the second call
+        assertEquals(3, readings.store(cell, List.of(reading(7200, 3), reading(0, 1), reading(3600, 2))));
+        assertEquals(2, readings.store(cell, List.of(reading(3600, 20), reading(10800, 4))));
+        assertEquals(4, readings.count() - before, "count should grow by the distinct timestamps");
+
+        List<PollutantReading> all = readings.range(cell, 0, 10800);
+        assertEquals(List.of(0L, 3600L, 7200L, 10800L), timestamps(all), "range should be ordered");
+        assertTrue(all.get(1).getAqi() == 20 && all.get(1).getPm25() == 20.5, "later write should replace the hour");
+        assertTrue(all.get(2).getCo() == 3 * 6 && all.get(2).getNo2() == 3 * 3, "pollutants should round-trip");
+        assertEquals(List.of(3600L, 7200L), timestamps(readings.range(cell, 3600, 7200)), "range bounds are inclusive");
+        assertTrue(readings.range(cell, 3601, 7199).isEmpty(), "range between readings");
+        assertEquals(10800, readings.latest(cell).getTimestamp(), "latest should be the newest reading");
+        assertTrue(readings.range(newCell(), 0, 10800).isEmpty(), "cells should not share readings");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void concurrentReadings(String engine) throws Exception {
+        ReadingRepository readings = storage(engine).readings();
+        int writers = 8;
+        int perWriter = 200;
+        long before = readings.count();
+
+        List<String> cells = new ArrayList<>();
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String cell = newCell();
+            cells.add(cell);
+            done.add(CompletableFuture.runAsync(() -> {
+                // Small batches, newest first, so writers interleave and insert mid-series
+                for (int i = perWriter - 1; i >= 0; i -= 10) {
+                    List<PollutantReading> batch = new ArrayList<>();
+                    for (int j = i; j > i - 10; j--) {
+                        batch.add(reading(j * 3600L, j));
+                    }
+                    readings.store(cell, batch);
+                }
+            }));
+        }
+        CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).get();
+
+        assertEquals((long) writers * perWriter, readings.count() - before, "count after concurrent writes");
+        for (String cell : cells) {
+            List<PollutantReading> series = readings.range(cell, 0, Long.MAX_VALUE);
+            assertEquals(perWriter, series.size(), cell);
+            for (int i = 0; i < series.size(); i++) {
+                assertTrue(series.get(i).getTimestamp() == i * 3600L && series.get(i).getAqi() == i,
+                        cell + " out of order at " + i);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void reportLifecycle(String engine) throws Exception {
+        ReportRepository reports = storage(engine).reports();
+        long pending = reports.count(ReportRepository.PENDING);
+        String resolved = "Resolved " + RUN + engine;
+
+        long id = reports.submit(report("lifecycle", "Ignored")).get();
+        ReportRepository.Report stored = reports.find(id);
+        assertNotNull(stored, "submitted report should be found by id");
+        assertEquals(id, stored.getId());
+        assertEquals(ReportRepository.PENDING, stored.getStatus(), "new report should be pending");
+        assertTrue(("lifecycle " + RUN).equals(stored.getDescription()) && "Smoke".equals(stored.getIssueType())
+                && "High".equals(stored.getSeverity()) && "2026-01-01T10:00".equals(stored.getSubmittedDate()),
+                "fields should round-trip");
+        assertEquals(1, reports.count(ReportRepository.PENDING) - pending, "pending count should grow by one");
+
+        assertTrue(reports.updateStatus(id, resolved).get(), "status update of a stored report");
+        assertEquals(resolved, reports.find(id).getStatus());
+        assertEquals(1, reports.count(resolved), "count by new status");
+        assertEquals(pending, reports.count(ReportRepository.PENDING), "pending count should drop back");
+        assertFalse(reports.updateStatus(Long.MAX_VALUE, resolved).get(), "status update of an unknown report");
+        assertNull(reports.find(Long.MAX_VALUE), "unknown report");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void recentReports(String engine) throws Exception {
+        ReportRepository reports = storage(engine).reports();
+        String status = "Reviewed " + RUN + engine;
+        long total = reports.count(null);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            long id = reports.submit(report("recent " + i, null)).get();
+            assertTrue(ids.isEmpty() || id > ids.get(ids.size() - 1), "ids should increase");
+            ids.add(id);
+        }
+        assertEquals(5, reports.count(null) - total, "total count should grow by five");
+        reports.updateStatus(ids.get(1), status).get();
+        reports.updateStatus(ids.get(3), status).get();
+
+        List<ReportRepository.Report> newest = reports.recent(null, 3);
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(2)), reportIds(newest), "newest first and limited");
+        assertEquals(List.of(ids.get(3), ids.get(1)), reportIds(reports.recent(status, 10)), "filtered by status");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void alertLifecycle(String engine) throws Exception {
+        AlertRepository alerts = storage(engine).alerts();
+        String location = "Contract " + RUN + engine;
+        long first = alerts.issue(alert(location, "first")).get();
+        long second = alerts.issue(alert(location, "second")).get();
+
+        List<AlertRepository.Alert> active = alertsAt(alerts.active(), location);
+        assertEquals(2, active.size());
+        assertTrue(active.get(0).getId() == second && active.get(1).getId() == first, "newest first");
+        assertTrue(AlertRepository.ACTIVE.equals(active.get(0).getStatus()) && "second".equals(active.get(0).getMessage())
+                && "Smog".equals(active.get(0).getAlertType()), "fields should round-trip");
+
+        assertTrue(alerts.deactivate(first).get(), "deactivating a stored alert");
+        active = alertsAt(alerts.active(), location);
+        assertTrue(active.size() == 1 && active.get(0).getId() == second, "deactivated alert should not be active");
+        assertFalse(alerts.deactivate(Long.MAX_VALUE).get(), "deactivating an unknown alert");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void userRegistration(String engine) throws Exception {
+        UserRepository users = storage(engine).users();
+        String name = "contract-" + RUN + engine;
+        long before = users.count(UserRepository.Role.RESEARCHER);
+
+        assertTrue(users.register(UserRepository.Role.RESEARCHER, name, "secret", "Dhaka"), "first registration");
+        assertFalse(users.register(UserRepository.Role.RESEARCHER, name, "other", "Chittagong"), "duplicate username");
+        // A duplicate must not use up an id
+        assertTrue(users.register(UserRepository.Role.RESEARCHER, name + "-next", "secret", "Dhaka"));
+        assertEquals(users.find(UserRepository.Role.RESEARCHER, name).getId() + 1,
+                users.find(UserRepository.Role.RESEARCHER, name + "-next").getId(), "ids after a duplicate");
+        assertTrue(users.register(UserRepository.Role.ADMIN, name, "secret", "Dhaka"), "same username in another role");
+        assertEquals(2, users.count(UserRepository.Role.RESEARCHER) - before, "count should grow by two");
+
+        UserRepository.User user = users.find(UserRepository.Role.RESEARCHER, name);
+        assertNotNull(user);
+        assertTrue(name.equals(user.getUsername()) && "Dhaka".equals(user.getLocation())
+                && user.getRole() == UserRepository.Role.RESEARCHER, "registered user should be found unchanged");
+        assertNull(users.find(UserRepository.Role.USER, name), "roles should not share accounts");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sqlite", "memory"})
+    void userAuthentication(String engine) throws Exception {
+        UserRepository users = storage(engine).users();
+        String name = "login-" + RUN + engine;
+        users.register(UserRepository.Role.USER, name, "correct", "Sylhet");
+
+        UserRepository.User user = users.authenticate(UserRepository.Role.USER, name, "correct");
+        assertTrue(user != null && user.getId() > 0 && name.equals(user.getUsername()), "right password");
+        assertNull(users.authenticate(UserRepository.Role.USER, name, "wrong"), "wrong password");
+        assertNull(users.authenticate(UserRepository.Role.ADMIN, name, "correct"), "wrong role");
+        assertNull(users.authenticate(UserRepository.Role.USER, name + "-missing", "correct"), "unknown user");
+    }
+
+    // A cell key no other test uses: latitudes below -60 hold no real locations
+    private static synchronized String newCell() {
+        int n = cellCounter++;
+        return Coordinate.cellKey(-70.0, -179.0 + n * 0.01);
+    }
+
+    private static PollutantReading reading(long ts, int value) {
+        return new PollutantReading(ts, value + 0.5, value * 2, value * 3, value * 4, value * 5, value * 6, value);
+    }
+
+    private static List<Long> timestamps(List<PollutantReading> readings) {
+        List<Long> ts = new ArrayList<>();
+        for (PollutantReading r : readings) {
+            ts.add(r.getTimestamp());
+        }
+        return ts;
+    }
+
+    private static List<Long> reportIds(List<ReportRepository.Report> reports) {
+        List<Long> ids = new ArrayList<>();
+        for (ReportRepository.Report report : reports) {
+            ids.add(report.getId());
+        }
+        return ids;
+    }
+
+    private static ReportRepository.Report report(String description, String status) {
+        return new ReportRepository.Report(0, "Contract", "Dhaka", "Smoke", "High", "150",
+                description + " " + RUN, "n/a", status, "2026-01-01T10:00");
+    }
+
+    private static AlertRepository.Alert alert(String location, String message) {
+        return new AlertRepository.Alert(0, "Smog", "High", location, message, "2026-01-01 10:00:00", null);
+    }
+
+    private static List<AlertRepository.Alert> alertsAt(List<AlertRepository.Alert> alerts, String location) {
+        List<AlertRepository.Alert> at = new ArrayList<>();
+        for (AlertRepository.Alert alert : alerts) {
+            if (Objects.equals(alert.getLocation(), location)) {
+                at.add(alert);
+            }
+        }
+        return at;
+    }
+}
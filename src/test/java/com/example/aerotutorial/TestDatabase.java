@@ -0,0 +1,25 @@
+package com.example.aerotutorial;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Points {@link DBConnector} at a fresh temporary database file, once per
+ * test JVM, and brings its schema up to date.
+ */
+final class TestDatabase {
+    private static boolean initialized;
+
+    private TestDatabase() {
+    }
+
+    static synchronized void initialize() throws IOException, SQLException {
+        if (initialized) return;
+        File file = File.createTempFile("aerosafe-test", ".db");
+        file.deleteOnExit();
+        System.setProperty("db.path", file.getAbsolutePath());
+        DBSetup.initialize();
+        initialized = true;
+    }
+}